@@ -15,11 +15,14 @@
  */
 package parquet.bytes;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.util.Arrays;
 import java.util.List;
 
@@ -84,6 +87,15 @@ abstract public class BytesInput {
     return new ByteArrayBytesInput(in, offset, length);
   }
 
+  /**
+   * @param buffer the bytes between position and limit are the content. It is not copied
+   * @return a BytesInput that will write the content of the buffer
+   */
+  public static BytesInput from(ByteBuffer buffer) {
+    if (DEBUG) LOG.debug("BytesInput from buffer of " + buffer.remaining() + " bytes");
+    return new ByteBufferBytesInput(buffer);
+  }
+
   /**
    * @param intValue the int to write
    * @return a BytesInput that will write 4 bytes in little endian
@@ -144,6 +156,24 @@ abstract public class BytesInput {
     return baos.getBuf();
   }
 
+  /**
+   * The buffer returned may share its content with this input.
+   * Its position and limit delimit the bytes of this input.
+   * @return a buffer containing the bytes of this input
+   * @throws IOException
+   */
+  public ByteBuffer toByteBuffer() throws IOException {
+    return ByteBuffer.wrap(toByteArray());
+  }
+
+  /**
+   * @return a stream reading the bytes of this input
+   * @throws IOException
+   */
+  public InputStream toInputStream() throws IOException {
+    return new ByteArrayInputStream(toByteArray());
+  }
+
   /**
    *
    * @return the size in bytes that would be written
@@ -314,6 +344,16 @@ abstract public class BytesInput {
       out.write(in, offset, length);
     }
 
+    @Override
+    public ByteBuffer toByteBuffer() throws IOException {
+      return ByteBuffer.wrap(in, offset, length);
+    }
+
+    @Override
+    public InputStream toInputStream() throws IOException {
+      return new ByteArrayInputStream(in, offset, length);
+    }
+
     @Override
     public long size() {
       return length;
@@ -321,4 +361,41 @@ abstract public class BytesInput {
 
   }
 
+  private static class ByteBufferBytesInput extends BytesInput {
+
+    private final ByteBuffer buffer;
+
+    private ByteBufferBytesInput(ByteBuffer buffer) {
+      this.buffer = buffer.duplicate();
+    }
+
+    @Override
+    public void writeAllTo(OutputStream out) throws IOException {
+      Channels.newChannel(out).write(buffer.duplicate());
+    }
+
+    @Override
+    public byte[] toByteArray() throws IOException {
+      byte[] result = new byte[buffer.remaining()];
+      buffer.duplicate().get(result);
+      return result;
+    }
+
+    @Override
+    public ByteBuffer toByteBuffer() throws IOException {
+      return buffer.duplicate();
+    }
+
+    @Override
+    public InputStream toInputStream() throws IOException {
+      return new ByteBufferInputStream(buffer);
+    }
+
+    @Override
+    public long size() {
+      return buffer.remaining();
+    }
+
+  }
+
 }
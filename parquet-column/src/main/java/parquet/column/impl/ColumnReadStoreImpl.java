@@ -15,6 +15,9 @@
  */
 package parquet.column.impl;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import parquet.column.ColumnDescriptor;
 import parquet.column.ColumnReadStore;
 import parquet.column.ColumnReader;
@@ -37,9 +40,10 @@ import parquet.schema.Type;
  */
 public class ColumnReadStoreImpl implements ColumnReadStore {
 
-  private final PageReadStore pageReadStore;
+  private PageReadStore pageReadStore;
   private final GroupConverter recordConverter;
   private final MessageType schema;
+  private final List<ColumnReaderImpl> columnReaders = new ArrayList<ColumnReaderImpl>();
 
   /**
    * @param pageReadStore uderlying page storage
@@ -60,7 +64,20 @@ public class ColumnReadStoreImpl implements ColumnReadStore {
 
   private ColumnReaderImpl newMemColumnReader(ColumnDescriptor path, PageReader pageReader) {
     PrimitiveConverter converter = getPrimitiveConverter(path);
-    return new ColumnReaderImpl(path, pageReader, converter);
+    ColumnReaderImpl columnReader = new ColumnReaderImpl(path, pageReader, converter);
+    columnReaders.add(columnReader);
+    return columnReader;
+  }
+
+  /**
+   * moves the column readers already created to the pages of another row group
+   * @param pageReadStore the pages of the next row group
+   */
+  public void setPageReadStore(PageReadStore pageReadStore) {
+    this.pageReadStore = pageReadStore;
+    for (ColumnReaderImpl columnReader : columnReaders) {
+      columnReader.reset(pageReadStore.getPageReader(columnReader.getDescriptor()));
+    }
   }
 
   private PrimitiveConverter getPrimitiveConverter(ColumnDescriptor path) {
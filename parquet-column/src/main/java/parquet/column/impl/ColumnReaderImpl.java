@@ -20,6 +20,7 @@ import static parquet.Log.DEBUG;
 import static parquet.Preconditions.checkNotNull;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import parquet.Log;
 import parquet.column.ColumnDescriptor;
@@ -30,6 +31,7 @@ import parquet.column.page.Page;
 import parquet.column.page.PageReader;
 import parquet.column.values.ValuesReader;
 import parquet.column.values.ValuesType;
+import parquet.column.values.rle.RunLengthBitPackingHybridValuesReader;
 import parquet.io.ParquetDecodingException;
 import parquet.io.api.Binary;
 import parquet.io.api.PrimitiveConverter;
@@ -42,7 +44,7 @@ import parquet.schema.PrimitiveType.PrimitiveTypeNameConverter;
  * @author Julien Le Dem
  *
  */
-class ColumnReaderImpl implements ColumnReader {
+public class ColumnReaderImpl implements ColumnReader {
   private static final Log LOG = Log.getLog(ColumnReaderImpl.class);
 
   private static abstract class Binding {
@@ -72,12 +74,17 @@ class ColumnReaderImpl implements ColumnReader {
   }
 
   private final ColumnDescriptor path;
-  private final long totalValueCount;
-  private final PageReader pageReader;
-  private final Dictionary dictionary;
+  private long totalValueCount;
+  private PageReader pageReader;
+  private Dictionary dictionary;
+  private final int maxRepetitionLevel;
+  private final int maxDefinitionLevel;
 
   private ValuesReader repetitionLevelColumn;
   private ValuesReader definitionLevelColumn;
+  // the level of every value of the current page or -1 when the levels must be decoded
+  private int constantRepetitionLevel;
+  private int constantDefinitionLevel;
   protected ValuesReader dataColumn;
 
   private int repetitionLevel;
@@ -241,8 +248,24 @@ class ColumnReaderImpl implements ColumnReader {
    */
   public ColumnReaderImpl(ColumnDescriptor path, PageReader pageReader, PrimitiveConverter converter) {
     this.path = checkNotNull(path, "path");
-    this.pageReader = checkNotNull(pageReader, "pageReader");
     this.converter = checkNotNull(converter, "converter");
+    this.maxRepetitionLevel = path.getMaxRepetitionLevel();
+    this.maxDefinitionLevel = path.getMaxDefinitionLevel();
+    reset(pageReader);
+  }
+
+  /**
+   * starts reading from the pages of another row group.
+   * The converter is kept and receives the dictionary of the new pages if any
+   * @param pageReader the underlying store to read from
+   */
+  void reset(PageReader pageReader) {
+    this.pageReader = checkNotNull(pageReader, "pageReader");
+    this.readValues = 0;
+    this.readValuesInPage = 0;
+    this.pageValueCount = 0;
+    this.consumed = true;
+    this.valueRead = false;
     DictionaryPage dictionaryPage = pageReader.readDictionaryPage();
     if (dictionaryPage != null) {
       try {
@@ -262,6 +285,51 @@ class ColumnReaderImpl implements ColumnReader {
     }
   }
 
+  /**
+   * @return the descriptor of the column read
+   */
+  public ColumnDescriptor getDescriptor() {
+    return path;
+  }
+
+  /**
+   * Skips the current value: it will not be written to the converter.
+   * {@link #consume()} must still be called to move to the next triplet.
+   */
+  public void skip() {
+    if (getCurrentDefinitionLevel() == maxDefinitionLevel && !consumed && !valueRead) {
+      // a defined value is stepped over to stay aligned with the data without being decoded
+      try {
+        dataColumn.skip();
+      } catch (RuntimeException e) {
+        throw new ParquetDecodingException(
+            format(
+                "Can't skip value in column %s at value %d out of %d, %d out of %d in currentPage. repetition level: %d, definition level: %d",
+                path, readValues, totalValueCount, readValuesInPage, pageValueCount, repetitionLevel, definitionLevel),
+            e);
+      }
+      valueRead = true;
+    }
+  }
+
+  /**
+   * Consumes the current value and the rest of its page in one step when all the values of the page are null.
+   * Their definition levels and repetition levels are not decoded.
+   * @return the number of values consumed, 0 if the current page holds values
+   */
+  public int skipNullPage() {
+    checkRead();
+    if (consumed || constantDefinitionLevel == -1 || constantDefinitionLevel == maxDefinitionLevel) {
+      return 0;
+    }
+    // the current value was read from the page already
+    int skipped = (int)(pageValueCount - readValuesInPage) + 1;
+    readValues += skipped - 1;
+    readValuesInPage = (int)pageValueCount;
+    consume();
+    return skipped;
+  }
+
   /**
    * {@inheritDoc}
    * @see parquet.column.ColumnReader#isFullyConsumed()
@@ -392,8 +460,8 @@ class ColumnReaderImpl implements ColumnReader {
 
   // TODO: change the logic around read() to not tie together reading from the 3 columns
   private void read() {
-    repetitionLevel = repetitionLevelColumn.readInteger();
-    definitionLevel = definitionLevelColumn.readInteger();
+    repetitionLevel = constantRepetitionLevel == -1 ? repetitionLevelColumn.readInteger() : constantRepetitionLevel;
+    definitionLevel = constantDefinitionLevel == -1 ? definitionLevelColumn.readInteger() : constantDefinitionLevel;
     ++readValues;
     ++readValuesInPage;
     consumed = false;
@@ -431,14 +499,32 @@ class ColumnReaderImpl implements ColumnReader {
       this.pageValueCount = page.getValueCount();
       this.readValuesInPage = 0;
       try {
-        byte[] bytes = page.getBytes().toByteArray();
-        if (DEBUG) LOG.debug("page size " + bytes.length + " bytes and " + pageValueCount + " records");
-        if (DEBUG) LOG.debug("reading repetition levels at 0");
-        int next = repetitionLevelColumn.initFromPage(pageValueCount, bytes, 0);
+        // pages sliced from a larger buffer are decoded in place
+        ByteBuffer pageBuffer = page.getBytes().toByteBuffer();
+        byte[] bytes;
+        int offset;
+        if (pageBuffer.hasArray()) {
+          bytes = pageBuffer.array();
+          offset = pageBuffer.arrayOffset() + pageBuffer.position();
+        } else {
+          bytes = new byte[pageBuffer.remaining()];
+          pageBuffer.duplicate().get(bytes);
+          offset = 0;
+        }
+        if (DEBUG) LOG.debug("page size " + pageBuffer.remaining() + " bytes and " + pageValueCount + " records");
+        if (DEBUG) LOG.debug("reading repetition levels at " + offset);
+        int next = repetitionLevelColumn.initFromPage(pageValueCount, bytes, offset);
         if (DEBUG) LOG.debug("reading definition levels at " + next);
         next = definitionLevelColumn.initFromPage(pageValueCount, bytes, next);
-        if (DEBUG) LOG.debug("reading data at " + next);
-        dataColumn.initFromPage(pageValueCount, bytes, next);
+        constantRepetitionLevel = getConstantLevel(repetitionLevelColumn, maxRepetitionLevel);
+        constantDefinitionLevel = getConstantLevel(definitionLevelColumn, maxDefinitionLevel);
+        if (constantDefinitionLevel != -1 && constantDefinitionLevel < maxDefinitionLevel) {
+          // all the values of the page are null: there is no data to decode
+          if (DEBUG) LOG.debug("skipping data of null page");
+        } else {
+          if (DEBUG) LOG.debug("reading data at " + next);
+          dataColumn.initFromPage(pageValueCount, bytes, next);
+        }
       } catch (IOException e) {
         throw new ParquetDecodingException("could not read page " + page + " in col " + path, e);
       }
@@ -446,6 +532,21 @@ class ColumnReaderImpl implements ColumnReader {
     read();
   }
 
+  /**
+   * levels are not stored when their maximum is 0
+   * and a page where they don't vary holds them in a single run
+   * @return the level of every value of the current page or -1 if they must be decoded
+   */
+  private static int getConstantLevel(ValuesReader levels, int maxLevel) {
+    if (maxLevel == 0) {
+      return 0;
+    }
+    if (levels instanceof RunLengthBitPackingHybridValuesReader) {
+      return ((RunLengthBitPackingHybridValuesReader)levels).getConstantValue();
+    }
+    return -1;
+  }
+
   private boolean isPageFullyConsumed() {
     return readValuesInPage >= pageValueCount;
   }
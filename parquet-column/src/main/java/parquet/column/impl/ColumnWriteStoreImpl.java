@@ -26,6 +26,8 @@ import parquet.column.ColumnWriteStore;
 import parquet.column.ColumnWriter;
 import parquet.column.page.PageWriteStore;
 import parquet.column.page.PageWriter;
+import parquet.io.ParquetEncodingException;
+import parquet.io.api.Binary;
 
 
 public class ColumnWriteStoreImpl implements ColumnWriteStore {
@@ -45,6 +47,10 @@ public class ColumnWriteStoreImpl implements ColumnWriteStore {
   }
 
   public ColumnWriter getColumnWriter(ColumnDescriptor path) {
+    return getColumnWriterImpl(path);
+  }
+
+  private ColumnWriterImpl getColumnWriterImpl(ColumnDescriptor path) {
     ColumnWriterImpl column = columns.get(path);
     if (column == null) {
       column = newMemColumn(path);
@@ -58,6 +64,57 @@ public class ColumnWriteStoreImpl implements ColumnWriteStore {
     return new ColumnWriterImpl(path, pageWriter, pageSizeThreshold, initialSizePerCol, enableDictionary);
   }
 
+  /**
+   * Writes a batch of triplets to a column without going through a RecordConsumer.
+   * The values array holds only the defined values:
+   * one for each definition level equal to the maximum definition level of the column.
+   * @param path the column
+   * @param values the defined values
+   * @param repetitionLevels the repetition levels or null if the column is not repeated
+   * @param definitionLevels the definition levels or null if the column is required
+   * @param count the number of triplets
+   * @throws ParquetEncodingException if the batch does not match the column, before any of it is written
+   */
+  public void writeBatch(ColumnDescriptor path, int[] values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    getColumnWriterImpl(path).writeBatch(values, repetitionLevels, definitionLevels, count);
+  }
+
+  /**
+   * @see #writeBatch(ColumnDescriptor, int[], int[], int[], int)
+   */
+  public void writeBatch(ColumnDescriptor path, long[] values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    getColumnWriterImpl(path).writeBatch(values, repetitionLevels, definitionLevels, count);
+  }
+
+  /**
+   * @see #writeBatch(ColumnDescriptor, int[], int[], int[], int)
+   */
+  public void writeBatch(ColumnDescriptor path, boolean[] values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    getColumnWriterImpl(path).writeBatch(values, repetitionLevels, definitionLevels, count);
+  }
+
+  /**
+   * for BINARY and FIXED_LEN_BYTE_ARRAY columns
+   * @see #writeBatch(ColumnDescriptor, int[], int[], int[], int)
+   */
+  public void writeBatch(ColumnDescriptor path, Binary[] values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    getColumnWriterImpl(path).writeBatch(values, repetitionLevels, definitionLevels, count);
+  }
+
+  /**
+   * @see #writeBatch(ColumnDescriptor, int[], int[], int[], int)
+   */
+  public void writeBatch(ColumnDescriptor path, float[] values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    getColumnWriterImpl(path).writeBatch(values, repetitionLevels, definitionLevels, count);
+  }
+
+  /**
+   * @see #writeBatch(ColumnDescriptor, int[], int[], int[], int)
+   */
+  public void writeBatch(ColumnDescriptor path, double[] values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    getColumnWriterImpl(path).writeBatch(values, repetitionLevels, definitionLevels, count);
+  }
+
   @Override
   public String toString() {
       StringBuilder sb = new StringBuilder();
@@ -32,6 +32,7 @@ import parquet.column.values.plain.PlainValuesWriter;
 import parquet.column.values.rle.RunLengthBitPackingHybridValuesWriter;
 import parquet.io.ParquetEncodingException;
 import parquet.io.api.Binary;
+import parquet.schema.PrimitiveType.PrimitiveTypeName;
 
 import static parquet.bytes.BytesInput.concat;
 
@@ -53,11 +54,13 @@ final class ColumnWriterImpl implements ColumnWriter {
   private ValuesWriter repetitionLevelColumn;
   private ValuesWriter definitionLevelColumn;
   private ValuesWriter dataColumn;
+  private final int maxDefinitionLevel;
   private int valueCount;
   private int valueCountForNextSizeCheck;
 
   public ColumnWriterImpl(ColumnDescriptor path, PageWriter pageWriter, int pageSizeThreshold, int initialSizePerCol, boolean enableDictionary) {
     this.path = path;
+    this.maxDefinitionLevel = path.getMaxDefinitionLevel();
     this.pageWriter = pageWriter;
     this.pageSizeThreshold = pageSizeThreshold;
     // initial check of memory usage. So that we have enough data to make an initial prediction
@@ -117,6 +120,15 @@ final class ColumnWriterImpl implements ColumnWriter {
    */
   private void accountForValueWritten() {
     ++ valueCount;
+    checkPageSize();
+  }
+
+  private void accountForValuesWritten(int count) {
+    valueCount += count;
+    checkPageSize();
+  }
+
+  private void checkPageSize() {
     if (valueCount > valueCountForNextSizeCheck) {
       // not checking the memory used for every value
       long memSize = repetitionLevelColumn.getBufferedSize()
@@ -159,6 +171,19 @@ final class ColumnWriterImpl implements ColumnWriter {
     accountForValueWritten();
   }
 
+  /**
+   * writes a run of null values that share the same levels
+   * @param count the number of nulls
+   * @param repetitionLevel
+   * @param definitionLevel
+   */
+  private void writeNulls(int count, int repetitionLevel, int definitionLevel) {
+    if (DEBUG) log(count + " nulls", repetitionLevel, definitionLevel);
+    repetitionLevelColumn.writeIntegers(repetitionLevel, count);
+    definitionLevelColumn.writeIntegers(definitionLevel, count);
+    accountForValuesWritten(count);
+  }
+
   @Override
   public void write(double value, int repetitionLevel, int definitionLevel) {
     if (DEBUG) log(value, repetitionLevel, definitionLevel);
@@ -213,6 +238,156 @@ final class ColumnWriterImpl implements ColumnWriter {
     accountForValueWritten();
   }
 
+  /**
+   * the defined values of a batch
+   */
+  private static abstract class DefinedValues {
+    /**
+     * writes the defined value at index i of the batch
+     */
+    abstract void write(ValuesWriter dataColumn, int i);
+  }
+
+  /**
+   * checks a batch can be written to this column before any of it is written
+   * @param type the type of the values of the batch
+   * @param valueCount the number of values of the batch
+   */
+  private void checkBatch(PrimitiveTypeName type, int valueCount, int[] repetitionLevels, int[] definitionLevels, int count) {
+    if (path.getType() != type) {
+      throw new ParquetEncodingException("can not write " + type + " values to " + path);
+    }
+    if (repetitionLevels == null && path.getMaxRepetitionLevel() != 0) {
+      throw new ParquetEncodingException("repetition levels are required for " + path);
+    }
+    if (definitionLevels == null && maxDefinitionLevel != 0) {
+      throw new ParquetEncodingException("definition levels are required for " + path);
+    }
+    int definedCount = count;
+    if (definitionLevels != null) {
+      definedCount = 0;
+      for (int i = 0; i < count; i++) {
+        if (definitionLevels[i] == maxDefinitionLevel) {
+          ++ definedCount;
+        }
+      }
+    }
+    if (valueCount != definedCount) {
+      throw new ParquetEncodingException(
+          "expected " + definedCount + " values for the defined levels of " + path + " but got " + valueCount);
+    }
+  }
+
+  private static int level(int[] levels, int i) {
+    return levels == null ? 0 : levels[i];
+  }
+
+  /**
+   * writes a batch of triplets.
+   * values contains only the defined values: one per definition level equal to the maximum.
+   * Consecutive nulls with the same levels are written as one run.
+   * @param values the defined values
+   * @param repetitionLevels the repetition levels or null if the column is not repeated
+   * @param definitionLevels the definition levels or null if the column is required
+   * @param count the number of triplets
+   */
+  private void writeBatch(DefinedValues values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    int v = 0;
+    int i = 0;
+    while (i < count) {
+      int repetitionLevel = level(repetitionLevels, i);
+      int definitionLevel = level(definitionLevels, i);
+      if (definitionLevel == maxDefinitionLevel) {
+        repetitionLevelColumn.writeInteger(repetitionLevel);
+        definitionLevelColumn.writeInteger(definitionLevel);
+        values.write(dataColumn, v++);
+        accountForValueWritten();
+        ++ i;
+      } else {
+        int end = i + 1;
+        while (end < count && level(repetitionLevels, end) == repetitionLevel && level(definitionLevels, end) == definitionLevel) {
+          ++ end;
+        }
+        writeNulls(end - i, repetitionLevel, definitionLevel);
+        i = end;
+      }
+    }
+  }
+
+  /**
+   * @see #writeBatch(DefinedValues, int[], int[], int)
+   */
+  void writeBatch(final int[] values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    checkBatch(PrimitiveTypeName.INT32, values.length, repetitionLevels, definitionLevels, count);
+    writeBatch(new DefinedValues() {
+      void write(ValuesWriter dataColumn, int i) {
+        dataColumn.writeInteger(values[i]);
+      }
+    }, repetitionLevels, definitionLevels, count);
+  }
+
+  /**
+   * @see #writeBatch(DefinedValues, int[], int[], int)
+   */
+  void writeBatch(final long[] values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    checkBatch(PrimitiveTypeName.INT64, values.length, repetitionLevels, definitionLevels, count);
+    writeBatch(new DefinedValues() {
+      void write(ValuesWriter dataColumn, int i) {
+        dataColumn.writeLong(values[i]);
+      }
+    }, repetitionLevels, definitionLevels, count);
+  }
+
+  /**
+   * @see #writeBatch(DefinedValues, int[], int[], int)
+   */
+  void writeBatch(final boolean[] values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    checkBatch(PrimitiveTypeName.BOOLEAN, values.length, repetitionLevels, definitionLevels, count);
+    writeBatch(new DefinedValues() {
+      void write(ValuesWriter dataColumn, int i) {
+        dataColumn.writeBoolean(values[i]);
+      }
+    }, repetitionLevels, definitionLevels, count);
+  }
+
+  /**
+   * for BINARY and FIXED_LEN_BYTE_ARRAY columns
+   * @see #writeBatch(DefinedValues, int[], int[], int)
+   */
+  void writeBatch(final Binary[] values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    checkBatch(path.getType() == PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY ? PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY : PrimitiveTypeName.BINARY,
+        values.length, repetitionLevels, definitionLevels, count);
+    writeBatch(new DefinedValues() {
+      void write(ValuesWriter dataColumn, int i) {
+        dataColumn.writeBytes(values[i]);
+      }
+    }, repetitionLevels, definitionLevels, count);
+  }
+
+  /**
+   * @see #writeBatch(DefinedValues, int[], int[], int)
+   */
+  void writeBatch(final float[] values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    checkBatch(PrimitiveTypeName.FLOAT, values.length, repetitionLevels, definitionLevels, count);
+    writeBatch(new DefinedValues() {
+      void write(ValuesWriter dataColumn, int i) {
+        dataColumn.writeFloat(values[i]);
+      }
+    }, repetitionLevels, definitionLevels, count);
+  }
+
+  /**
+   * @see #writeBatch(DefinedValues, int[], int[], int)
+   */
+  void writeBatch(final double[] values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    checkBatch(PrimitiveTypeName.DOUBLE, values.length, repetitionLevels, definitionLevels, count);
+    writeBatch(new DefinedValues() {
+      void write(ValuesWriter dataColumn, int i) {
+        dataColumn.writeDouble(values[i]);
+      }
+    }, repetitionLevels, definitionLevels, count);
+  }
+
   @Override
   public void flush() {
     if (valueCount > 0) {
@@ -56,6 +56,12 @@ public abstract class ValuesReader {
    */
   public abstract int initFromPage(long valueCount, byte[] page, int offset) throws IOException;
 
+  /**
+   * Skips the next value of the page.
+   * The encodings that can step over a value without decoding it do so.
+   */
+  public abstract void skip();
+
   /**
    * usable when the encoding is dictionary based
    * @return the id of the next value from the page
@@ -100,6 +100,17 @@ public abstract class ValuesWriter {
     throw new UnsupportedOperationException(getClass().getName());
   }
 
+  /**
+   * writes the same value several times
+   * @param v the value to encode
+   * @param count how many times to write it
+   */
+  public void writeIntegers(int v, int count) {
+    for (int i = 0; i < count; i++) {
+      writeInteger(v);
+    }
+  }
+
   /**
    * @param value the value to encode
    */
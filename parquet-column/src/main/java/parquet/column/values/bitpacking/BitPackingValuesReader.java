@@ -47,6 +47,15 @@ public class BitPackingValuesReader extends ValuesReader {
     this.bitsPerValue = getWidthFromMaxInt(bound);
   }
 
+  /**
+   * {@inheritDoc}
+   * @see parquet.column.values.ValuesReader#skip()
+   */
+  @Override
+  public void skip() {
+    readInteger();
+  }
+
   /**
    * {@inheritDoc}
    * @see parquet.column.values.ValuesReader#readInteger()
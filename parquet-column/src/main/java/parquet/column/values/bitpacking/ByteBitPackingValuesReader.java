@@ -39,6 +39,11 @@ public class ByteBitPackingValuesReader extends ValuesReader {
     this.packer = packer.newBytePacker(bitWidth);
   }
 
+  @Override
+  public void skip() {
+    readInteger();
+  }
+
   @Override
   public int readInteger() {
     ++ decodedPosition;
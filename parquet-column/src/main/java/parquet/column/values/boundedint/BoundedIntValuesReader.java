@@ -42,6 +42,11 @@ class BoundedIntValuesReader extends ValuesReader {
     bitsPerValue = BytesUtils.getWidthFromMaxInt(bound);
   }
 
+  @Override
+  public void skip() {
+    readInteger();
+  }
+
   @Override
   public int readInteger() {
     try {
@@ -40,6 +40,10 @@ public class DevNullValuesWriter extends ValuesWriter {
   public void writeInteger(int v) {
   }
 
+  @Override
+  public void writeIntegers(int v, int count) {
+  }
+
   @Override
   public void writeByte(int value) {
   }
@@ -26,6 +26,10 @@ import parquet.column.values.ValuesReader;
  */
 public class ZeroIntegerValuesReader extends ValuesReader {
 
+  @Override
+  public void skip() {
+  }
+
   public int readInteger() {
     return 0;
   }
@@ -36,6 +36,11 @@ public class DeltaValuesReader extends ValuesReader {
 			return -v/2;
 	}
 
+	@Override
+	public void skip() {
+		readInteger();
+	}
+
 	@Override
 	public int readInteger() {
 		
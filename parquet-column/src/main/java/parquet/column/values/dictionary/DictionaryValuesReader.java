@@ -68,6 +68,15 @@ public class DictionaryValuesReader extends ValuesReader {
     }
   }
 
+  @Override
+  public void skip() {
+    try {
+      decoder.readInt(); // the id is not looked up in the dictionary
+    } catch (IOException e) {
+      throw new ParquetDecodingException(e);
+    }
+  }
+
   @Override
   public Binary readBytes() {
     try {
@@ -45,6 +45,15 @@ public class BooleanPlainValuesReader extends ValuesReader {
     return in.readInteger() == 0 ? false : true;
   }
 
+  /**
+   * {@inheritDoc}
+   * @see parquet.column.values.ValuesReader#skip()
+   */
+  @Override
+  public void skip() {
+    in.readInteger();
+  }
+
 
   /**
    * {@inheritDoc}
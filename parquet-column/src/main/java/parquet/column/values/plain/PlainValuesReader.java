@@ -31,7 +31,7 @@ import parquet.io.ParquetDecodingException;
  * @author Julien Le Dem
  *
  */
-public class PlainValuesReader extends ValuesReader {
+public abstract class PlainValuesReader extends ValuesReader {
   private static final Log LOG = Log.getLog(PlainValuesReader.class);
 
   protected LittleEndianDataInputStream in;
@@ -47,7 +47,22 @@ public class PlainValuesReader extends ValuesReader {
     return in.length;
   }
 
+  void skipBytes(int length) {
+    try {
+      if (in.skipBytes(length) != length) {
+        throw new ParquetDecodingException("could not skip " + length + " bytes");
+      }
+    } catch (IOException e) {
+      throw new ParquetDecodingException("could not skip " + length + " bytes", e);
+    }
+  }
+
   public static class DoublePlainValuesReader extends PlainValuesReader {
+    @Override
+    public void skip() {
+      skipBytes(8);
+    }
+
     @Override
     public double readDouble() {
       try {
@@ -59,6 +74,11 @@ public class PlainValuesReader extends ValuesReader {
   }
 
   public static class FloatPlainValuesReader extends PlainValuesReader {
+    @Override
+    public void skip() {
+      skipBytes(4);
+    }
+
     @Override
     public float readFloat() {
       try {
@@ -70,6 +90,11 @@ public class PlainValuesReader extends ValuesReader {
   }
 
   public static class IntegerPlainValuesReader extends PlainValuesReader {
+    @Override
+    public void skip() {
+      skipBytes(4);
+    }
+
     @Override
     public int readInteger() {
       try {
@@ -81,6 +106,11 @@ public class PlainValuesReader extends ValuesReader {
   }
 
   public static class LongPlainValuesReader extends PlainValuesReader {
+    @Override
+    public void skip() {
+      skipBytes(8);
+    }
+
     @Override
     public long readLong() {
       try {
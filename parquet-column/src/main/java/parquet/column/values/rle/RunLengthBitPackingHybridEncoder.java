@@ -165,6 +165,22 @@ public class RunLengthBitPackingHybridEncoder {
     }
   }
 
+  /**
+   * writes the same value count times.
+   * Once an rle-run of the value is started the remaining repeats are added in constant time
+   * @param value the value to write
+   * @param count how many times to write it
+   */
+  public void writeRepeatedInt(int value, int count) throws IOException {
+    // at most 8 values are needed to start an rle-run
+    while (count > 0 && (value != previousValue || repeatCount < 8)) {
+      writeInt(value);
+      --count;
+    }
+    // writeInt() would only increment the repeat count from now on
+    repeatCount += count;
+  }
+
   private void writeOrAppendBitPackedRun() throws IOException {
     if (bitPackedGroupCount >= 63) {
       // we've packed as many values as we can for this run,
@@ -18,6 +18,7 @@ import parquet.io.ParquetDecodingException;
 public class RunLengthBitPackingHybridValuesReader extends ValuesReader {
   private final int bitWidth;
   private RunLengthBitPackingHybridDecoder decoder;
+  private int constantValue = -1;
 
   public RunLengthBitPackingHybridValuesReader(int bitWidth) {
     this.bitWidth = bitWidth;
@@ -28,6 +29,7 @@ public class RunLengthBitPackingHybridValuesReader extends ValuesReader {
     // TODO: we are assuming valueCount < Integer.MAX_VALUE
     //       we should address this here and elsewhere
     int valueCount = Ints.checkedCast(valueCountL);
+    constantValue = -1;
 
     if (valueCount <= 0) {
       // readInteger() will never be called,
@@ -37,6 +39,7 @@ public class RunLengthBitPackingHybridValuesReader extends ValuesReader {
 
     ByteArrayInputStream in = new ByteArrayInputStream(page, offset, page.length);
     int length = BytesUtils.readIntLittleEndian(in);
+    constantValue = readConstantValue(valueCount, page, offset + 4, length);
 
     decoder = new RunLengthBitPackingHybridDecoder(bitWidth, in);
 
@@ -44,6 +47,42 @@ public class RunLengthBitPackingHybridValuesReader extends ValuesReader {
     return offset + length + 4;
   }
 
+  /**
+   * peeks at the first run of the page without consuming it
+   * @return the value of the run if it is an RLE run covering all the values of the page, -1 otherwise
+   */
+  private int readConstantValue(int valueCount, byte[] page, int offset, int length) throws IOException {
+    if (length <= 0) {
+      return -1;
+    }
+    ByteArrayInputStream in = new ByteArrayInputStream(page, offset, length);
+    int header = BytesUtils.readUnsignedVarInt(in);
+    if ((header & 1) != 0 || (header >>> 1) < valueCount) {
+      // bit packed or shorter than the page
+      return -1;
+    }
+    return BytesUtils.readIntLittleEndianPaddedOnBitWidth(in, bitWidth);
+  }
+
+  /**
+   * @return true if all the values of the current page are the same and can be obtained from {@link #getConstantValue()}
+   */
+  boolean isConstant() {
+    return constantValue != -1;
+  }
+
+  /**
+   * @return the value of every entry of the current page if it is constant, -1 otherwise
+   */
+  public int getConstantValue() {
+    return constantValue;
+  }
+
+  @Override
+  public void skip() {
+    readInteger();
+  }
+
   @Override
   public int readInteger() {
     try {
@@ -31,6 +31,15 @@ public class RunLengthBitPackingHybridValuesWriter extends ValuesWriter {
     }
   }
 
+  @Override
+  public void writeIntegers(int v, int count) {
+    try {
+      encoder.writeRepeatedInt(v, count);
+    } catch (IOException e) {
+      throw new ParquetEncodingException(e);
+    }
+  }
+
   @Override
   public long getBufferedSize() {
     return encoder.getBufferedSize();
@@ -0,0 +1,157 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.filter;
+
+import parquet.column.ColumnDescriptor;
+import parquet.column.ColumnReader;
+
+/**
+ * Predicates applied to the value of a column at the start of a record.
+ * The predicates return false for null values.
+ *
+ */
+public class ColumnPredicates {
+
+  /**
+   * a predicate on the current value of a column reader
+   */
+  public static interface Predicate {
+    /**
+     * @param column the column read by the input
+     * @param input the reader positioned on the value to test
+     * @return true if the value matches
+     */
+    boolean apply(ColumnDescriptor column, ColumnReader input);
+  }
+
+  private ColumnPredicates() {
+  }
+
+  private static boolean isDefined(ColumnDescriptor column, ColumnReader input) {
+    return input.getCurrentDefinitionLevel() == column.getMaxDefinitionLevel();
+  }
+
+  public static Predicate isNull() {
+    return new Predicate() {
+      @Override
+      public boolean apply(ColumnDescriptor column, ColumnReader input) {
+        return !isDefined(column, input);
+      }
+    };
+  }
+
+  public static Predicate equalTo(final String target) {
+    if (target == null) {
+      throw new NullPointerException("target");
+    }
+    return new Predicate() {
+      @Override
+      public boolean apply(ColumnDescriptor column, ColumnReader input) {
+        return isDefined(column, input) && target.equals(input.getBinary().toStringUsingUTF8());
+      }
+    };
+  }
+
+  public static Predicate equalTo(final int target) {
+    return new Predicate() {
+      @Override
+      public boolean apply(ColumnDescriptor column, ColumnReader input) {
+        return isDefined(column, input) && input.getInteger() == target;
+      }
+    };
+  }
+
+  public static Predicate equalTo(final long target) {
+    return new Predicate() {
+      @Override
+      public boolean apply(ColumnDescriptor column, ColumnReader input) {
+        return isDefined(column, input) && input.getLong() == target;
+      }
+    };
+  }
+
+  public static Predicate equalTo(final float target) {
+    return new Predicate() {
+      @Override
+      public boolean apply(ColumnDescriptor column, ColumnReader input) {
+        return isDefined(column, input) && input.getFloat() == target;
+      }
+    };
+  }
+
+  public static Predicate equalTo(final double target) {
+    return new Predicate() {
+      @Override
+      public boolean apply(ColumnDescriptor column, ColumnReader input) {
+        return isDefined(column, input) && input.getDouble() == target;
+      }
+    };
+  }
+
+  public static Predicate equalTo(final boolean target) {
+    return new Predicate() {
+      @Override
+      public boolean apply(ColumnDescriptor column, ColumnReader input) {
+        return isDefined(column, input) && input.getBoolean() == target;
+      }
+    };
+  }
+
+  /**
+   * @param min the minimum (inclusive)
+   * @param max the maximum (inclusive)
+   * @return a predicate matching INT32 values in the given range
+   */
+  public static Predicate inRange(final int min, final int max) {
+    return new Predicate() {
+      @Override
+      public boolean apply(ColumnDescriptor column, ColumnReader input) {
+        if (!isDefined(column, input)) {
+          return false;
+        }
+        int value = input.getInteger();
+        return value >= min && value <= max;
+      }
+    };
+  }
+
+  /**
+   * @param min the minimum (inclusive)
+   * @param max the maximum (inclusive)
+   * @return a predicate matching INT64 values in the given range
+   */
+  public static Predicate inRange(final long min, final long max) {
+    return new Predicate() {
+      @Override
+      public boolean apply(ColumnDescriptor column, ColumnReader input) {
+        if (!isDefined(column, input)) {
+          return false;
+        }
+        long value = input.getLong();
+        return value >= min && value <= max;
+      }
+    };
+  }
+
+  public static Predicate not(final Predicate predicate) {
+    return new Predicate() {
+      @Override
+      public boolean apply(ColumnDescriptor column, ColumnReader input) {
+        return !predicate.apply(column, input);
+      }
+    };
+  }
+}
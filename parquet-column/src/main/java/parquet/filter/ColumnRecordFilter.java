@@ -0,0 +1,79 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.filter;
+
+import static parquet.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import parquet.column.ColumnDescriptor;
+import parquet.column.ColumnReader;
+
+/**
+ * Record filter which applies the supplied predicate to the specified column.
+ * The predicate sees the first value of the column in the record.
+ *
+ */
+public final class ColumnRecordFilter implements RecordFilter {
+
+  private final ColumnDescriptor filterOnDescriptor;
+  private final ColumnReader filterOnColumn;
+  private final ColumnPredicates.Predicate filterPredicate;
+
+  /**
+   * Factory method for record filter which applies the supplied predicate to the specified column.
+   * @param columnPath dot separated path specifier, e.g. "engine.capacity"
+   * @param predicate should be applied to the column
+   * @return the unbound filter
+   */
+  public static final UnboundRecordFilter column(final String columnPath,
+                                                 final ColumnPredicates.Predicate predicate) {
+    checkNotNull(columnPath, "columnPath");
+    checkNotNull(predicate, "predicate");
+    return new UnboundRecordFilter() {
+      final String[] filterPath = columnPath.split("\\.");
+      @Override
+      public RecordFilter bind(Map<ColumnDescriptor, ColumnReader> readers) {
+        for (Entry<ColumnDescriptor, ColumnReader> reader : readers.entrySet()) {
+          if (Arrays.equals(reader.getKey().getPath(), filterPath)) {
+            return new ColumnRecordFilter(reader.getKey(), reader.getValue(), predicate);
+          }
+        }
+        throw new IllegalArgumentException("Column " + columnPath + " does not exist.");
+      }
+    };
+  }
+
+  /**
+   * Private constructor. Use column() instead.
+   */
+  private ColumnRecordFilter(ColumnDescriptor filterOnDescriptor, ColumnReader filterOnColumn, ColumnPredicates.Predicate filterPredicate) {
+    this.filterOnDescriptor = filterOnDescriptor;
+    this.filterOnColumn = filterOnColumn;
+    this.filterPredicate = filterPredicate;
+  }
+
+  /**
+   * @return true if the current value for the column reader matches the predicate.
+   */
+  @Override
+  public boolean isMatch() {
+    return filterPredicate.apply(filterOnDescriptor, filterOnColumn);
+  }
+
+}
@@ -0,0 +1,31 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.filter;
+
+/**
+ * Filter to be applied to a record to work out whether to skip it.
+ *
+ */
+public interface RecordFilter {
+
+  /**
+   * Works out whether the current record can pass through the filter.
+   * It is called before any value of the record is materialized.
+   * @return true if the record must be materialized
+   */
+  boolean isMatch();
+
+}
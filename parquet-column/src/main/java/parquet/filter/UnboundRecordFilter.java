@@ -0,0 +1,37 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.filter;
+
+import java.util.Map;
+
+import parquet.column.ColumnDescriptor;
+import parquet.column.ColumnReader;
+
+/**
+ * Builder for a record filter. Idea is that each filter provides a create function
+ * which returns an unbound filter that only becomes a filter when it is bound to the actual columns.
+ *
+ */
+public interface UnboundRecordFilter {
+
+  /**
+   * Call to bind to actual columns and create filter.
+   * @param readers the readers of the columns of the records by column
+   * @return the filter to apply to each record
+   */
+  RecordFilter bind(Map<ColumnDescriptor, ColumnReader> readers);
+
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.io;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import parquet.column.ColumnDescriptor;
+import parquet.column.ColumnReader;
+import parquet.column.impl.ColumnReaderImpl;
+import parquet.column.page.PageReadStore;
+import parquet.filter.RecordFilter;
+import parquet.filter.UnboundRecordFilter;
+
+/**
+ * Record reader that evaluates a filter before assembling each record.
+ * The filter only decodes the values of the columns it is bound to.
+ * The records that do not match are skipped in every column without reaching the converters.
+ *
+ * @param <T> the type of the materialized record
+ */
+class FilteredRecordReader<T> extends RecordReader<T> {
+
+  private final RecordReaderImplementation<T> delegate;
+  private final ColumnReaderImpl[] columnReaders;
+  private final RecordFilter recordFilter;
+
+  /**
+   * @param delegate the reader assembling the matching records
+   * @param unboundFilter the filter to bind to the columns of the delegate
+   */
+  FilteredRecordReader(RecordReaderImplementation<T> delegate, UnboundRecordFilter unboundFilter) {
+    this.delegate = delegate;
+    // one state per leaf, its column reader comes from the ColumnReadStoreImpl of the delegate
+    this.columnReaders = new ColumnReaderImpl[delegate.getStateCount()];
+    Map<ColumnDescriptor, ColumnReader> readers = new LinkedHashMap<ColumnDescriptor, ColumnReader>();
+    for (int i = 0; i < columnReaders.length; i++) {
+      columnReaders[i] = (ColumnReaderImpl)delegate.getState(i).column;
+      readers.put(columnReaders[i].getDescriptor(), columnReaders[i]);
+    }
+    this.recordFilter = unboundFilter.bind(readers);
+  }
+
+  /**
+   * @return the next record or null if it does not match the filter
+   * @see parquet.io.RecordReader#read()
+   */
+  @Override
+  public T read() {
+    if (recordFilter.isMatch()) {
+      return delegate.read();
+    }
+    skipRecord();
+    return null;
+  }
+
+  private void skipRecord() {
+    for (ColumnReaderImpl columnReader : columnReaders) {
+      // the repetition level is 0 at the start of the next record and when the column is fully consumed
+      do {
+        columnReader.skip();
+        columnReader.consume();
+      } while (columnReader.getCurrentRepetitionLevel() != 0);
+    }
+  }
+
+  @Override
+  public void setPageReadStore(PageReadStore pages) {
+    // the column readers the filter is bound to are reset in place
+    delegate.setPageReadStore(pages);
+  }
+
+}
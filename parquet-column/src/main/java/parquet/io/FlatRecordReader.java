@@ -0,0 +1,85 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.io;
+
+import parquet.column.ColumnReader;
+import parquet.column.impl.ColumnReadStoreImpl;
+import parquet.io.api.GroupConverter;
+import parquet.io.api.RecordMaterializer;
+
+/**
+ * Record reader for schemas made only of non repeated primitive fields of the root.
+ * There is no nesting to track: each record reads one value of each column in order,
+ * the definition level only tells if the value is null and is not even read for required columns.
+ *
+ * @param <T> the type of the materialized record
+ */
+class FlatRecordReader<T> extends RecordReaderImplementation<T> {
+
+  /**
+   * @param root the root of the schema
+   * @return true if all the columns are non repeated primitive fields of the root
+   */
+  static boolean isFlat(MessageColumnIO root) {
+    for (PrimitiveColumnIO leaf : root.getLeaves()) {
+      if (leaf.getRepetitionLevel() != 0 || leaf.getFieldPath().length != 1) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private final GroupConverter root;
+  private final ColumnReader[] columns;
+  private final int[] maxDefinitionLevels;
+
+  /**
+   * @param root the root of the schema
+   * @param recordMaterializer to materialize the records
+   * @param validating whether to validate the records
+   * @param columnStore the columns to read from
+   */
+  public FlatRecordReader(MessageColumnIO root, RecordMaterializer<T> recordMaterializer, boolean validating, ColumnReadStoreImpl columnStore) {
+    super(root, recordMaterializer, validating, columnStore);
+    this.root = recordMaterializer.getRootConverter();
+    this.columns = new ColumnReader[getStateCount()];
+    this.maxDefinitionLevels = new int[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      State state = getState(i);
+      columns[i] = state.column;
+      maxDefinitionLevels[i] = state.maxDefinitionLevel;
+    }
+  }
+
+  /**
+   * @see parquet.io.RecordReader#read()
+   */
+  @Override
+  public T read() {
+    root.start();
+    for (int i = 0; i < columns.length; i++) {
+      ColumnReader column = columns[i];
+      int maxDefinitionLevel = maxDefinitionLevels[i];
+      if (maxDefinitionLevel == 0 || column.getCurrentDefinitionLevel() >= maxDefinitionLevel) {
+        column.writeCurrentValueToConverter();
+      }
+      column.consume();
+    }
+    root.end();
+    return getMaterializer().getCurrentRecord();
+  }
+
+}
@@ -23,6 +23,7 @@ import parquet.column.ColumnWriteStore;
 import parquet.column.ColumnWriter;
 import parquet.column.impl.ColumnReadStoreImpl;
 import parquet.column.page.PageReadStore;
+import parquet.filter.UnboundRecordFilter;
 import parquet.io.api.Binary;
 import parquet.io.api.RecordConsumer;
 import parquet.io.api.RecordMaterializer;
@@ -54,12 +55,55 @@ public class MessageColumnIO extends GroupColumnIO {
   }
 
   public <T> RecordReader<T> getRecordReader(PageReadStore columns, RecordMaterializer<T> recordMaterializer) {
-    return new RecordReaderImplementation<T>(
-        this,
-        recordMaterializer,
-        validating,
-        new ColumnReadStoreImpl(columns, recordMaterializer.getRootConverter(), getType())
-        );
+    return getRecordReaderImplementation(columns, recordMaterializer);
+  }
+
+  /**
+   * The filter is evaluated before a record is assembled.
+   * The columns it is bound to are decoded first and the others only for the matching records:
+   * the values of the records filtered out are skipped without being decoded.
+   * @param columns the pages to read
+   * @param recordMaterializer to materialize the records
+   * @param unboundFilter the filter to apply to the records
+   * @return a reader returning null for the records that do not match the filter
+   */
+  public <T> RecordReader<T> getRecordReader(PageReadStore columns, RecordMaterializer<T> recordMaterializer, UnboundRecordFilter unboundFilter) {
+    return new FilteredRecordReader<T>(getRecordReaderImplementation(columns, recordMaterializer), unboundFilter);
+  }
+
+  /**
+   * flat schemas are read without the assembly automaton, the others by interpreting it
+   * @param columns the pages to read
+   * @param recordMaterializer to materialize the records
+   * @return the record reader
+   */
+  private <T> RecordReaderImplementation<T> getRecordReaderImplementation(PageReadStore columns, RecordMaterializer<T> recordMaterializer) {
+    if (FlatRecordReader.isFlat(this)) {
+      return new FlatRecordReader<T>(this, recordMaterializer, validating, newColumnReadStore(columns, recordMaterializer));
+    }
+    return getInterpretedRecordReader(columns, recordMaterializer);
+  }
+
+  /**
+   * @param columns the pages to read
+   * @param recordMaterializer to materialize the records
+   * @return a reader interpreting the assembly automaton
+   */
+  <T> RecordReaderImplementation<T> getInterpretedRecordReader(PageReadStore columns, RecordMaterializer<T> recordMaterializer) {
+    return new RecordReaderImplementation<T>(this, recordMaterializer, validating, newColumnReadStore(columns, recordMaterializer));
+  }
+
+  /**
+   * @param columns the pages to read
+   * @param recordMaterializer to materialize the records
+   * @return a reader executing the assembly automaton from precomputed tables
+   */
+  <T> RecordReaderImplementation<T> getTableDrivenRecordReader(PageReadStore columns, RecordMaterializer<T> recordMaterializer) {
+    return new TableDrivenRecordReader<T>(this, recordMaterializer, validating, newColumnReadStore(columns, recordMaterializer));
+  }
+
+  private ColumnReadStoreImpl newColumnReadStore(PageReadStore columns, RecordMaterializer<?> recordMaterializer) {
+    return new ColumnReadStoreImpl(columns, recordMaterializer.getRootConverter(), getType());
   }
 
   private class MessageColumnIORecordConsumer extends RecordConsumer {
@@ -141,28 +185,23 @@ public class MessageColumnIO extends GroupColumnIO {
 
     private void writeNullForMissingFields(final int to) {
       final int from = currentIndex[currentLevel];
-      for (;currentIndex[currentLevel]<=to; ++currentIndex[currentLevel]) {
-        try {
-          ColumnIO undefinedField = ((GroupColumnIO)currentColumnIO).getChild(currentIndex[currentLevel]);
-          int d = currentColumnIO.getDefinitionLevel();
-          if (DEBUG) log(Arrays.toString(undefinedField.getFieldPath()) + ".writeNull(" + r[currentLevel] + "," + d + ")");
-          writeNull(undefinedField, r[currentLevel], d);
-        } catch (RuntimeException e) {
-          throw new ParquetEncodingException("error while writing nulls from " + from + " to " + to + ". current index: " + currentIndex[currentLevel], e);
-        }
+      if (from > to) {
+        return;
       }
-    }
-
-    private void writeNull(ColumnIO undefinedField, int r, int d) {
-      if (undefinedField.getType().isPrimitive()) {
-        columnWriter[((PrimitiveColumnIO)undefinedField).getId()].writeNull(r, d);
-      } else {
-        GroupColumnIO groupColumnIO = (GroupColumnIO)undefinedField;
-        int childrenCount = groupColumnIO.getChildrenCount();
-        for (int i = 0; i < childrenCount; i++) {
-          writeNull(groupColumnIO.getChild(i), r, d);
+      try {
+        GroupColumnIO group = (GroupColumnIO)currentColumnIO;
+        int d = currentColumnIO.getDefinitionLevel();
+        // leaves are numbered depth first: the leaves of consecutive fields have consecutive ids
+        int firstLeaf = group.getChild(from).getFirst().getId();
+        int lastLeaf = group.getChild(to).getLast().getId();
+        for (int id = firstLeaf; id <= lastLeaf; ++id) {
+          if (DEBUG) log(Arrays.toString(MessageColumnIO.this.getLeaves().get(id).getFieldPath()) + ".writeNull(" + r[currentLevel] + "," + d + ")");
+          columnWriter[id].writeNull(r[currentLevel], d);
         }
+      } catch (RuntimeException e) {
+        throw new ParquetEncodingException("error while writing nulls from " + from + " to " + to, e);
       }
+      currentIndex[currentLevel] = to + 1;
     }
 
     private void setRepetitionLevel() {
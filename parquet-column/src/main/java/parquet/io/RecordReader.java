@@ -15,6 +15,7 @@
  */
 package parquet.io;
 
+import parquet.column.page.PageReadStore;
 
 /**
  * used to read reassembled records
@@ -30,4 +31,11 @@ public abstract class RecordReader<T> {
    */
   public abstract T read();
 
+  /**
+   * Moves this reader to the pages of another row group with the same schema.
+   * The assembly automaton and the converters are reused instead of being built again.
+   * @param pages the pages of the next row group
+   */
+  public abstract void setPageReadStore(PageReadStore pages);
+
 }
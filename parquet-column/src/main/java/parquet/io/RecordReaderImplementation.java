@@ -26,6 +26,7 @@ import java.util.Map;
 import parquet.Log;
 import parquet.column.ColumnReader;
 import parquet.column.impl.ColumnReadStoreImpl;
+import parquet.column.page.PageReadStore;
 import parquet.io.api.Converter;
 import parquet.io.api.GroupConverter;
 import parquet.io.api.PrimitiveConverter;
@@ -226,6 +227,7 @@ class RecordReaderImplementation<T> extends RecordReader<T> {
 
   private final GroupConverter recordConsumer;
   private final RecordMaterializer<T> recordMaterializer;
+  private final ColumnReadStoreImpl columnStore;
 
   private State[] states;
 
@@ -238,6 +240,7 @@ class RecordReaderImplementation<T> extends RecordReader<T> {
    */
   public RecordReaderImplementation(MessageColumnIO root, RecordMaterializer<T> recordMaterializer, boolean validating, ColumnReadStoreImpl columnStore) {
     this.recordMaterializer = recordMaterializer;
+    this.columnStore = columnStore;
     this.recordConsumer = recordMaterializer.getRootConverter(); // TODO: validator(wrap(recordMaterializer), validating, root.getType());
     PrimitiveColumnIO[] leaves = root.getLeaves().toArray(new PrimitiveColumnIO[root.getLeaves().size()]);
     ColumnReader[] columns = new ColumnReader[leaves.length];
@@ -407,6 +410,15 @@ class RecordReaderImplementation<T> extends RecordReader<T> {
     return recordMaterializer.getCurrentRecord();
   }
 
+  /**
+   * the column readers of the states are reset in place
+   * @see parquet.io.RecordReader#setPageReadStore(parquet.column.page.PageReadStore)
+   */
+  @Override
+  public void setPageReadStore(PageReadStore pages) {
+    columnStore.setPageReadStore(pages);
+  }
+
   private static void log(String string) {
     LOG.debug(string);
   }
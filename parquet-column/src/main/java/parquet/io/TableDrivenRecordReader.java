@@ -0,0 +1,147 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.io;
+
+import parquet.column.ColumnReader;
+import parquet.column.impl.ColumnReadStoreImpl;
+import parquet.io.api.GroupConverter;
+import parquet.io.api.RecordMaterializer;
+
+/**
+ * Record reader executing the automaton of {@link RecordReaderImplementation} from precomputed tables.
+ * Each case of each state is resolved once into the exact sequence of group converters to start and end
+ * and the level it leaves the record at, so that reading a value does not compute any level transition.
+ * The automaton of the parent class is built first: the tables are derived from its states.
+ *
+ * It is not used by default as it has not been shown to be faster than the interpreter.
+ *
+ * @param <T> the type of the materialized record
+ */
+class TableDrivenRecordReader<T> extends RecordReaderImplementation<T> {
+
+  private static final GroupConverter[] NO_CONVERTERS = new GroupConverter[0];
+
+  private static final class TableState {
+    private final ColumnReader column;
+    private final int maxDefinitionLevel;
+    private final int maxRepetitionLevel;
+    // indexed by current level and definition level
+    private final GroupConverter[][][] starts;
+    private final int[][] levelAfterStart;
+    // indexed by current level and next repetition level
+    private final GroupConverter[][][] ends;
+    private final int[][] levelAfterEnd;
+    // indexed by next repetition level, null at the end of the record
+    private TableState[] nextState;
+
+    TableState(State state) {
+      this.column = state.column;
+      this.maxDefinitionLevel = state.maxDefinitionLevel;
+      this.maxRepetitionLevel = state.maxRepetitionLevel;
+      int levels = state.fieldPath.length;
+      starts = new GroupConverter[levels][maxDefinitionLevel + 1][];
+      levelAfterStart = new int[levels][maxDefinitionLevel + 1];
+      ends = new GroupConverter[levels][maxRepetitionLevel + 1][];
+      levelAfterEnd = new int[levels][maxRepetitionLevel + 1];
+      for (int currentLevel = 0; currentLevel < levels; ++ currentLevel) {
+        for (int d = 0; d <= maxDefinitionLevel; ++ d) {
+          // opening tags from the current level up to the depth defined by d
+          int depth = state.getDepth(d);
+          starts[currentLevel][d] = slice(state.groupConverterPath, currentLevel, depth + 1, false);
+          levelAfterStart[currentLevel][d] = Math.max(currentLevel, depth + 1);
+        }
+        for (int nextR = 0; nextR <= maxRepetitionLevel; ++ nextR) {
+          // closing tags from the current level down to the level of the next value
+          int next = state.nextLevel[nextR];
+          ends[currentLevel][nextR] = slice(state.groupConverterPath, next, currentLevel, true);
+          levelAfterEnd[currentLevel][nextR] = Math.min(currentLevel, next);
+        }
+      }
+    }
+
+    private static GroupConverter[] slice(GroupConverter[] path, int from, int to, boolean reverse) {
+      if (from >= to) {
+        return NO_CONVERTERS;
+      }
+      GroupConverter[] converters = new GroupConverter[to - from];
+      for (int i = 0; i < converters.length; i++) {
+        converters[i] = path[reverse ? to - 1 - i : from + i];
+      }
+      return converters;
+    }
+  }
+
+  private final GroupConverter root;
+  private final TableState firstState;
+
+  /**
+   * @param root the root of the schema
+   * @param recordMaterializer to materialize the records
+   * @param validating whether to validate the records
+   * @param columnStore the columns to read from
+   */
+  public TableDrivenRecordReader(MessageColumnIO root, RecordMaterializer<T> recordMaterializer, boolean validating, ColumnReadStoreImpl columnStore) {
+    super(root, recordMaterializer, validating, columnStore);
+    this.root = recordMaterializer.getRootConverter();
+    int stateCount = getStateCount();
+    TableState[] states = new TableState[stateCount];
+    for (int i = 0; i < stateCount; i++) {
+      states[i] = new TableState(getState(i));
+    }
+    for (int i = 0; i < stateCount; i++) {
+      TableState state = states[i];
+      state.nextState = new TableState[state.maxRepetitionLevel + 1];
+      for (int nextR = 0; nextR <= state.maxRepetitionLevel; ++ nextR) {
+        int next = getNextReader(i, nextR);
+        state.nextState[nextR] = next == stateCount ? null : states[next];
+      }
+    }
+    this.firstState = stateCount == 0 ? null : states[0];
+  }
+
+  /**
+   * @see parquet.io.RecordReader#read()
+   */
+  @Override
+  public T read() {
+    int currentLevel = 0;
+    TableState currentState = firstState;
+    root.start();
+    while (currentState != null) {
+      ColumnReader columnReader = currentState.column;
+      int d = columnReader.getCurrentDefinitionLevel();
+      GroupConverter[] starts = currentState.starts[currentLevel][d];
+      for (int i = 0; i < starts.length; i++) {
+        starts[i].start();
+      }
+      currentLevel = currentState.levelAfterStart[currentLevel][d];
+      if (d >= currentState.maxDefinitionLevel) {
+        columnReader.writeCurrentValueToConverter();
+      }
+      columnReader.consume();
+      int nextR = currentState.maxRepetitionLevel == 0 ? 0 : columnReader.getCurrentRepetitionLevel();
+      GroupConverter[] ends = currentState.ends[currentLevel][nextR];
+      for (int i = 0; i < ends.length; i++) {
+        ends[i].end();
+      }
+      currentLevel = currentState.levelAfterEnd[currentLevel][nextR];
+      currentState = currentState.nextState[nextR];
+    }
+    root.end();
+    return getMaterializer().getCurrentRecord();
+  }
+
+}
@@ -17,6 +17,8 @@ package parquet.column.mem;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 
 import parquet.Log;
@@ -24,12 +26,15 @@ import parquet.column.ColumnDescriptor;
 import parquet.column.ColumnReader;
 import parquet.column.ColumnWriter;
 import parquet.column.impl.ColumnReadStoreImpl;
+import parquet.column.impl.ColumnReaderImpl;
 import parquet.column.impl.ColumnWriteStoreImpl;
 import parquet.column.page.mem.MemPageStore;
 import parquet.example.DummyRecordConverter;
+import parquet.io.ParquetEncodingException;
 import parquet.io.api.Binary;
 import parquet.schema.MessageType;
 import parquet.schema.MessageTypeParser;
+import parquet.schema.PrimitiveType.PrimitiveTypeName;
 
 
 public class TestMemColumn {
@@ -153,4 +158,243 @@ public class TestMemColumn {
       ++ i;
     }
   }
+
+  @Test
+  public void testMemColumnConstantLevelPages() throws Exception {
+    MessageType mt = MessageTypeParser.parseMessageType("message msg { repeated group foo { optional int64 bar; } }");
+    ColumnDescriptor path = mt.getColumnDescription(new String[] {"foo", "bar"});
+    MemPageStore memPageStore = new MemPageStore();
+    ColumnWriter columnWriter = getColumnWriter(path, memPageStore);
+    // all defined
+    for (int i = 0; i < 300; i++) {
+      columnWriter.write((long)i, 0, 2);
+    }
+    columnWriter.flush();
+    // all null
+    for (int i = 0; i < 300; i++) {
+      columnWriter.writeNull(1, 0);
+    }
+    columnWriter.flush();
+    // mixed
+    for (int i = 0; i < 300; i++) {
+      if (i % 3 == 0) {
+        columnWriter.write((long)i, i % 2, 2);
+      } else {
+        columnWriter.writeNull(i % 2, 1);
+      }
+    }
+    columnWriter.flush();
+
+    ColumnReader columnReader = getColumnReader(memPageStore, path, mt);
+    for (int i = 0; i < 300; i++) {
+      assertEquals(0, columnReader.getCurrentRepetitionLevel());
+      assertEquals(2, columnReader.getCurrentDefinitionLevel());
+      assertEquals(i, columnReader.getLong());
+      columnReader.consume();
+    }
+    for (int i = 0; i < 300; i++) {
+      assertEquals(1, columnReader.getCurrentRepetitionLevel());
+      assertEquals(0, columnReader.getCurrentDefinitionLevel());
+      columnReader.consume();
+    }
+    for (int i = 0; i < 300; i++) {
+      assertEquals(i % 2, columnReader.getCurrentRepetitionLevel());
+      if (i % 3 == 0) {
+        assertEquals(2, columnReader.getCurrentDefinitionLevel());
+        assertEquals(i, columnReader.getLong());
+      } else {
+        assertEquals(1, columnReader.getCurrentDefinitionLevel());
+      }
+      columnReader.consume();
+    }
+    assertEquals(true, columnReader.isFullyConsumed());
+  }
+
+  @Test
+  public void testMemColumnSkipNullPages() throws Exception {
+    MessageType mt = MessageTypeParser.parseMessageType("message msg { repeated group foo { optional int64 bar; } }");
+    ColumnDescriptor path = mt.getColumnDescription(new String[] {"foo", "bar"});
+    MemPageStore memPageStore = new MemPageStore();
+    ColumnWriter columnWriter = getColumnWriter(path, memPageStore);
+    for (int i = 0; i < 300; i++) {
+      columnWriter.write((long)i, 0, 2);
+    }
+    columnWriter.flush();
+    for (int i = 0; i < 300; i++) {
+      columnWriter.writeNull(1, 0);
+    }
+    columnWriter.flush();
+    for (int i = 0; i < 300; i++) {
+      columnWriter.writeNull(0, 1);
+    }
+    columnWriter.flush();
+    columnWriter.write(42l, 0, 2);
+    columnWriter.flush();
+
+    ColumnReaderImpl columnReader = (ColumnReaderImpl)getColumnReader(memPageStore, path, mt);
+    for (int i = 0; i < 300; i++) {
+      assertEquals(0, columnReader.skipNullPage());
+      assertEquals(i, columnReader.getLong());
+      columnReader.consume();
+    }
+    // the current value is part of the skipped page
+    assertEquals(0, columnReader.getCurrentDefinitionLevel());
+    columnReader.consume();
+    assertEquals(299, columnReader.skipNullPage());
+    assertEquals(300, columnReader.skipNullPage());
+    assertEquals(0, columnReader.skipNullPage());
+    assertEquals(42, columnReader.getLong());
+    columnReader.consume();
+    assertEquals(true, columnReader.isFullyConsumed());
+    assertEquals(0, columnReader.skipNullPage());
+  }
+
+  @Test
+  public void testMemColumnWriteNulls() throws Exception {
+    MessageType mt = MessageTypeParser.parseMessageType("message msg { repeated group foo { optional int64 bar; } }");
+    ColumnDescriptor path = mt.getColumnDescription(new String[] {"foo", "bar"});
+    MemPageStore memPageStore = new MemPageStore();
+    ColumnWriteStoreImpl memColumnsStore = new ColumnWriteStoreImpl(memPageStore, 2048, 2048, false);
+    // the runs of nulls of a batch are written in bulk
+    int count = 1 + 3 + 10000 + 1;
+    int[] r = new int[count];
+    int[] d = new int[count];
+    d[0] = 2;
+    for (int i = 1; i < 4; i++) {
+      r[i] = 1;
+      d[i] = 1;
+    }
+    r[count - 1] = 1;
+    d[count - 1] = 2;
+    memColumnsStore.writeBatch(path, new long[] {1l, 2l}, r, d, count);
+    memColumnsStore.writeBatch(path, new long[0], r, d, 0);
+    memColumnsStore.flush();
+
+    ColumnReader columnReader = getColumnReader(memPageStore, path, mt);
+    assertEquals(2, columnReader.getCurrentDefinitionLevel());
+    assertEquals(1l, columnReader.getLong());
+    columnReader.consume();
+    for (int i = 0; i < 3; i++) {
+      assertEquals(1, columnReader.getCurrentRepetitionLevel());
+      assertEquals(1, columnReader.getCurrentDefinitionLevel());
+      columnReader.consume();
+    }
+    for (int i = 0; i < 10000; i++) {
+      assertEquals(0, columnReader.getCurrentRepetitionLevel());
+      assertEquals(0, columnReader.getCurrentDefinitionLevel());
+      columnReader.consume();
+    }
+    assertEquals(1, columnReader.getCurrentRepetitionLevel());
+    assertEquals(2, columnReader.getCurrentDefinitionLevel());
+    assertEquals(2l, columnReader.getLong());
+    columnReader.consume();
+    assertEquals(true, columnReader.isFullyConsumed());
+  }
+
+  @Test
+  public void testMemColumnWriteBatch() throws Exception {
+    MessageType mt = MessageTypeParser.parseMessageType("message msg { repeated group foo { optional binary bar; } }");
+    ColumnDescriptor path = mt.getColumnDescription(new String[] {"foo", "bar"});
+    MemPageStore memPageStore = new MemPageStore();
+    ColumnWriteStoreImpl memColumnsStore = new ColumnWriteStoreImpl(memPageStore, 2048, 2048, false);
+    int count = 10000;
+    int[] r = new int[count];
+    int[] d = new int[count];
+    Binary[] values = new Binary[count];
+    int defined = 0;
+    for (int i = 0; i < count; i++) {
+      // runs of nulls of various lengths in between defined values
+      r[i] = i % 3 == 0 ? 0 : 1;
+      d[i] = (i / 100) % 2 == 0 ? i % 3 : 2;
+      if (d[i] == 2) {
+        values[defined++] = Binary.fromString("bar" + i);
+      }
+    }
+    memColumnsStore.writeBatch(path, Arrays.copyOf(values, defined), r, d, count);
+    memColumnsStore.flush();
+
+    ColumnReader columnReader = getColumnReader(memPageStore, path, mt);
+    for (int i = 0; i < count; i++) {
+      assertEquals(r[i], columnReader.getCurrentRepetitionLevel());
+      assertEquals(d[i], columnReader.getCurrentDefinitionLevel());
+      if (d[i] == 2) {
+        assertEquals("bar" + i, columnReader.getBinary().toStringUsingUTF8());
+      }
+      columnReader.consume();
+    }
+    assertEquals(true, columnReader.isFullyConsumed());
+  }
+
+  @Test
+  public void testMemColumnWriteBatchFixedLenByteArray() throws Exception {
+    ColumnDescriptor path = new ColumnDescriptor(new String[] {"foo"}, PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY, 0, 1);
+    MemPageStore memPageStore = new MemPageStore();
+    ColumnWriteStoreImpl memColumnsStore = new ColumnWriteStoreImpl(memPageStore, 2048, 2048, false);
+    Binary[] values = { Binary.fromString("abcd"), Binary.fromString("efgh") };
+    memColumnsStore.writeBatch(path, values, null, new int[] {1, 0, 0, 1}, 4);
+    memColumnsStore.flush();
+    assertEquals(4, memPageStore.getPageReader(path).getTotalValueCount());
+  }
+
+  @Test(expected = ParquetEncodingException.class)
+  public void testMemColumnWriteBatchWrongType() throws Exception {
+    MessageType mt = MessageTypeParser.parseMessageType("message msg { required int32 foo; }");
+    ColumnDescriptor path = mt.getColumnDescription(new String[] {"foo"});
+    ColumnWriteStoreImpl memColumnsStore = new ColumnWriteStoreImpl(new MemPageStore(), 2048, 2048, false);
+    memColumnsStore.writeBatch(path, new Binary[] { Binary.fromString("a") }, null, null, 1);
+  }
+
+  @Test
+  public void testMemColumnSkip() throws Exception {
+    testMemColumnSkip(false);
+    testMemColumnSkip(true);
+  }
+
+  private void testMemColumnSkip(boolean enableDictionary) {
+    MessageType mt = MessageTypeParser.parseMessageType(
+        "message msg { optional int32 a; optional int64 b; optional float c; optional double d; optional boolean e; optional binary f; }");
+    MemPageStore memPageStore = new MemPageStore();
+    ColumnWriteStoreImpl memColumnsStore = new ColumnWriteStoreImpl(memPageStore, 2048, 2048, enableDictionary);
+    int count = 5000;
+    for (ColumnDescriptor path : mt.getColumns()) {
+      ColumnWriter columnWriter = memColumnsStore.getColumnWriter(path);
+      for (int i = 0; i < count; i++) {
+        if (i % 3 == 0) {
+          columnWriter.writeNull(0, 0);
+          continue;
+        }
+        switch (path.getType()) {
+        case INT32: columnWriter.write(i, 0, 1); break;
+        case INT64: columnWriter.write((long)i, 0, 1); break;
+        case FLOAT: columnWriter.write((float)i, 0, 1); break;
+        case DOUBLE: columnWriter.write((double)i, 0, 1); break;
+        case BOOLEAN: columnWriter.write(i % 4 == 1, 0, 1); break;
+        default: columnWriter.write(Binary.fromString("v" + i % 10), 0, 1); break;
+        }
+      }
+    }
+    memColumnsStore.flush();
+
+    for (ColumnDescriptor path : mt.getColumns()) {
+      ColumnReaderImpl columnReader = (ColumnReaderImpl)getColumnReader(memPageStore, path, mt);
+      for (int i = 0; i < count; i++) {
+        assertEquals(i % 3 == 0 ? 0 : 1, columnReader.getCurrentDefinitionLevel());
+        // the skipped values must leave the reader aligned with the following ones
+        if (i % 2 == 1) {
+          columnReader.skip();
+        } else if (i % 3 != 0) {
+          switch (path.getType()) {
+          case INT32: assertEquals(i, columnReader.getInteger()); break;
+          case INT64: assertEquals(i, columnReader.getLong()); break;
+          case FLOAT: assertEquals(i, columnReader.getFloat(), 0); break;
+          case DOUBLE: assertEquals(i, columnReader.getDouble(), 0); break;
+          case BOOLEAN: assertEquals(i % 4 == 1, columnReader.getBoolean()); break;
+          default: assertEquals("v" + i % 10, columnReader.getBinary().toStringUsingUTF8()); break;
+          }
+        }
+        columnReader.consume();
+      }
+      assertEquals(true, columnReader.isFullyConsumed());
+    }
+  }
 }
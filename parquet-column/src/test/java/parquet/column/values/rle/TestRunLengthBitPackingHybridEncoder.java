@@ -11,6 +11,7 @@ import parquet.bytes.BytesUtils;
 import parquet.column.values.bitpacking.ByteBitPackingLE;
 import parquet.column.values.bitpacking.BytePacker;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -285,4 +286,18 @@ public class TestRunLengthBitPackingHybridEncoder {
     return values;
   }
 
+
+  @Test
+  public void testWriteRepeatedInt() throws Exception {
+    int[][] runs = {{1, 3}, {2, 100}, {2, 5}, {0, 1}, {3, 9}, {3, 7}, {1, 1000}, {4, 2}};
+    RunLengthBitPackingHybridEncoder expected = new RunLengthBitPackingHybridEncoder(3, 5);
+    RunLengthBitPackingHybridEncoder actual = new RunLengthBitPackingHybridEncoder(3, 5);
+    for (int[] run : runs) {
+      for (int i = 0; i < run[1]; i++) {
+        expected.writeInt(run[0]);
+      }
+      actual.writeRepeatedInt(run[0], run[1]);
+    }
+    assertArrayEquals(expected.toBytes().toByteArray(), actual.toBytes().toByteArray());
+  }
 }
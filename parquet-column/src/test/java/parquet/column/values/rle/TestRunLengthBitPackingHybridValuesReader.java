@@ -0,0 +1,71 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.column.values.rle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestRunLengthBitPackingHybridValuesReader {
+
+  private RunLengthBitPackingHybridValuesReader read(int bitWidth, int... values) throws Exception {
+    RunLengthBitPackingHybridValuesWriter writer = new RunLengthBitPackingHybridValuesWriter(bitWidth, 64);
+    for (int value : values) {
+      writer.writeInteger(value);
+    }
+    RunLengthBitPackingHybridValuesReader reader = new RunLengthBitPackingHybridValuesReader(bitWidth);
+    reader.initFromPage(values.length, writer.getBytes().toByteArray(), 0);
+    return reader;
+  }
+
+  private int[] repeat(int value, int count) {
+    int[] values = new int[count];
+    for (int i = 0; i < count; i++) {
+      values[i] = value;
+    }
+    return values;
+  }
+
+  @Test
+  public void testConstantPage() throws Exception {
+    for (int bitWidth = 1; bitWidth <= 3; bitWidth++) {
+      for (int value = 0; value < (1 << bitWidth); value++) {
+        RunLengthBitPackingHybridValuesReader reader = read(bitWidth, repeat(value, 100));
+        assertTrue(reader.isConstant());
+        assertEquals(value, reader.getConstantValue());
+        // the values can still be decoded
+        for (int i = 0; i < 100; i++) {
+          assertEquals(value, reader.readInteger());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testVaryingPage() throws Exception {
+    int[] values = repeat(1, 100);
+    values[99] = 0;
+    RunLengthBitPackingHybridValuesReader reader = read(1, values);
+    assertFalse(reader.isConstant());
+    assertEquals(-1, reader.getConstantValue());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(values[i], reader.readInteger());
+    }
+    assertFalse(read(2, 0, 1, 2, 3, 0, 1, 2, 3).isConstant());
+  }
+}
@@ -57,8 +57,12 @@ public class PerfTest {
     MessageColumnIO columnIO = newColumnFactory(myschema);
     System.out.println(message);
     RecordMaterializer<Object> recordConsumer = new DummyRecordConverter(myschema);
-    RecordReader<Object> recordReader = columnIO.getRecordReader(memPageStore, recordConsumer);
+    read(columnIO.getRecordReader(memPageStore, recordConsumer), myschema);
+    System.out.println(message + " table driven");
+    read(columnIO.getTableDrivenRecordReader(memPageStore, recordConsumer), myschema);
+  }
 
+  private static void read(RecordReader<Object> recordReader, MessageType myschema) {
     read(recordReader, 2, myschema);
     read(recordReader, 10000, myschema);
     read(recordReader, 10000, myschema);
@@ -16,6 +16,8 @@
 package parquet.io;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static parquet.example.Paper.pr1;
 import static parquet.example.Paper.pr2;
@@ -468,6 +470,112 @@ public class TestColumnIO {
 
   }
 
+  @Test
+  public void testFlatSchema() {
+    MessageType flatSchema = MessageTypeParser.parseMessageType(
+        "message flat { required int32 a; optional binary b; required int64 c; optional int32 d; }");
+    MemPageStore memPageStore = new MemPageStore();
+    ColumnWriteStoreImpl columns = new ColumnWriteStoreImpl(memPageStore, 800, 800, false);
+    MessageColumnIO columnIO = new ColumnIOFactory().getColumnIO(flatSchema);
+    GroupWriter groupWriter = new GroupWriter(columnIO.getRecordWriter(columns), flatSchema);
+    SimpleGroupFactory groupFactory = new SimpleGroupFactory(flatSchema);
+    List<Group> groups = new ArrayList<Group>();
+    for (int i = 0; i < 1000; i++) {
+      Group group = groupFactory.newGroup().append("a", i);
+      if (i % 3 == 0) {
+        group.append("b", "b" + i);
+      }
+      group.append("c", (long)i * 2);
+      if (i % 7 != 0) {
+        group.append("d", -i);
+      }
+      groupWriter.write(group);
+      groups.add(group);
+    }
+    columns.flush();
+
+    RecordReader<Group> recordReader = columnIO.getRecordReader(memPageStore, new GroupRecordConverter(flatSchema));
+    assertTrue(recordReader instanceof FlatRecordReader);
+    for (Group group : groups) {
+      assertEquals(group.toString(), recordReader.read().toString());
+    }
+    assertFalse(FlatRecordReader.isFlat(new ColumnIOFactory().getColumnIO(schema)));
+  }
+
+  @Test
+  public void testReuseReaderAcrossPageStores() {
+    MessageType flatSchema = MessageTypeParser.parseMessageType(
+        "message flat { required int32 a; optional binary b; }");
+    SimpleGroupFactory groupFactory = new SimpleGroupFactory(flatSchema);
+    for (MessageType testSchema : Arrays.asList(schema, flatSchema)) {
+      MessageColumnIO columnIO = new ColumnIOFactory().getColumnIO(testSchema);
+      List<MemPageStore> pageStores = new ArrayList<MemPageStore>();
+      List<List<Group>> rowGroups = new ArrayList<List<Group>>();
+      for (int i = 0; i < 3; i++) {
+        MemPageStore memPageStore = new MemPageStore();
+        // dictionary encoded so that each row group brings its own dictionary
+        ColumnWriteStoreImpl columns = new ColumnWriteStoreImpl(memPageStore, 800, 800, true);
+        GroupWriter groupWriter = new GroupWriter(columnIO.getRecordWriter(columns), testSchema);
+        List<Group> groups = new ArrayList<Group>();
+        for (int j = 0; j < 10 * (i + 1); j++) {
+          Group group;
+          if (testSchema == schema) {
+            group = j % 2 == 0 ? r1 : r2;
+          } else {
+            group = groupFactory.newGroup().append("a", j);
+            if (j % 3 != i) {
+              group.append("b", "row group " + i + " value " + (j % 4));
+            }
+          }
+          groupWriter.write(group);
+          groups.add(group);
+        }
+        columns.flush();
+        pageStores.add(memPageStore);
+        rowGroups.add(groups);
+      }
+
+      RecordReader<Group> recordReader = null;
+      for (int i = 0; i < pageStores.size(); i++) {
+        if (recordReader == null) {
+          recordReader = columnIO.getRecordReader(pageStores.get(i), new GroupRecordConverter(testSchema));
+        } else {
+          recordReader.setPageReadStore(pageStores.get(i));
+        }
+        for (Group group : rowGroups.get(i)) {
+          assertEquals(group.toString(), recordReader.read().toString());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testTableDrivenAndInterpretedReadersAgree() {
+    MemPageStore memPageStore = new MemPageStore();
+    ColumnWriteStoreImpl columns = new ColumnWriteStoreImpl(memPageStore, 800, 800, false);
+    MessageColumnIO columnIO = new ColumnIOFactory().getColumnIO(schema);
+    GroupWriter groupWriter = new GroupWriter(columnIO.getRecordWriter(columns), schema);
+    for (int i = 0; i < 100; i++) {
+      groupWriter.write(r1);
+      groupWriter.write(r2);
+    }
+    columns.flush();
+
+    // the automaton is interpreted by default
+    RecordReader<Void> interpreted = columnIO.getRecordReader(memPageStore, new ExpectationValidatingConverter(expectedEventsForR1, schema));
+    assertFalse(interpreted instanceof TableDrivenRecordReader);
+    interpreted.read();
+
+    for (MessageType requestedSchema : Arrays.asList(schema, schema2)) {
+      MessageColumnIO requestedColumnIO = new ColumnIOFactory().getColumnIO(requestedSchema);
+      RecordReader<Group> tableDrivenReader = requestedColumnIO.getTableDrivenRecordReader(memPageStore, new GroupRecordConverter(requestedSchema));
+      RecordReader<Group> interpretedReader = requestedColumnIO.getInterpretedRecordReader(memPageStore, new GroupRecordConverter(requestedSchema));
+      for (int i = 0; i < 200; i++) {
+        assertEquals("record " + i, interpretedReader.read().toString(), tableDrivenReader.read().toString());
+      }
+    }
+  }
+
   @Test
   public void testEmptyField() {
     MemPageStore memPageStore = new MemPageStore();
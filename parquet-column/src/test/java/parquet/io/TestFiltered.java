@@ -0,0 +1,129 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static parquet.example.Paper.r1;
+import static parquet.example.Paper.r2;
+import static parquet.example.Paper.schema;
+import static parquet.filter.AndRecordFilter.and;
+import static parquet.filter.ColumnPredicates.equalTo;
+import static parquet.filter.ColumnPredicates.inRange;
+import static parquet.filter.ColumnPredicates.isNull;
+import static parquet.filter.ColumnRecordFilter.column;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import parquet.column.impl.ColumnWriteStoreImpl;
+import parquet.column.page.mem.MemPageStore;
+import parquet.example.data.Group;
+import parquet.example.data.GroupWriter;
+import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.example.data.simple.convert.GroupRecordConverter;
+import parquet.filter.UnboundRecordFilter;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+
+public class TestFiltered {
+
+  private MemPageStore writeGroups(MessageType schema, Group... groups) {
+    MemPageStore memPageStore = new MemPageStore();
+    ColumnWriteStoreImpl columns = new ColumnWriteStoreImpl(memPageStore, 800, 800, false);
+    MessageColumnIO columnIO = new ColumnIOFactory(true).getColumnIO(schema);
+    GroupWriter groupWriter = new GroupWriter(columnIO.getRecordWriter(columns), schema);
+    for (Group group : groups) {
+      groupWriter.write(group);
+    }
+    columns.flush();
+    return memPageStore;
+  }
+
+  private List<Group> readAll(MemPageStore memPageStore, MessageType schema, int recordCount, UnboundRecordFilter filter) {
+    MessageColumnIO columnIO = new ColumnIOFactory(true).getColumnIO(schema);
+    RecordReader<Group> recordReader = columnIO.getRecordReader(memPageStore, new GroupRecordConverter(schema), filter);
+    List<Group> groups = new ArrayList<Group>();
+    for (int i = 0; i < recordCount; i++) {
+      Group group = recordReader.read();
+      if (group != null) {
+        groups.add(group);
+      }
+    }
+    return groups;
+  }
+
+  @Test
+  public void testFilterOnInteger() {
+    MemPageStore memPageStore = writeGroups(schema, r1, r2);
+
+    List<Group> all = readAll(memPageStore, schema, 2, column("DocId", equalTo(10l)));
+    assertEquals(1, all.size());
+    assertEquals(r1.toString(), all.get(0).toString());
+
+    memPageStore = writeGroups(schema, r1, r2);
+    all = readAll(memPageStore, schema, 2, column("DocId", equalTo(20l)));
+    assertEquals(1, all.size());
+    assertEquals(r2.toString(), all.get(0).toString());
+  }
+
+  @Test
+  public void testFilterOnNestedColumn() {
+    MemPageStore memPageStore = writeGroups(schema, r1, r2);
+    List<Group> all = readAll(memPageStore, schema, 2, column("Name.Url", equalTo("http://C")));
+    assertEquals(1, all.size());
+    assertEquals(r2.toString(), all.get(0).toString());
+  }
+
+  @Test
+  public void testSkipManyRecords() {
+    Group[] groups = new Group[1000];
+    for (int i = 0; i < groups.length; i++) {
+      groups[i] = i % 3 == 0 ? r2 : r1;
+    }
+    MemPageStore memPageStore = writeGroups(schema, groups);
+    List<Group> all = readAll(memPageStore, schema, groups.length,
+        and(column("DocId", equalTo(20l)), column("Name.Url", equalTo("http://C"))));
+    assertEquals(334, all.size());
+    for (Group group : all) {
+      assertEquals(r2.toString(), group.toString());
+    }
+  }
+
+  @Test
+  public void testFlatSchema() {
+    MessageType flat = MessageTypeParser.parseMessageType("message flat { required int32 a; optional binary b; }");
+    SimpleGroupFactory factory = new SimpleGroupFactory(flat);
+    Group[] groups = new Group[100];
+    for (int i = 0; i < groups.length; i++) {
+      groups[i] = factory.newGroup().append("a", i);
+      if (i % 2 == 0) {
+        groups[i].append("b", "b" + i);
+      }
+    }
+    List<Group> all = readAll(writeGroups(flat, groups), flat, groups.length, column("a", inRange(10, 19)));
+    assertEquals(10, all.size());
+    for (int i = 0; i < all.size(); i++) {
+      assertEquals(groups[10 + i].toString(), all.get(i).toString());
+    }
+    all = readAll(writeGroups(flat, groups), flat, groups.length, column("b", isNull()));
+    assertEquals(50, all.size());
+    assertEquals(1, all.get(0).getInteger("a", 0));
+    assertTrue(readAll(writeGroups(flat, groups), flat, groups.length, column("a", equalTo(-1))).isEmpty());
+  }
+}
@@ -0,0 +1,257 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.format.converter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import parquet.format.ColumnChunk;
+import parquet.format.ColumnMetaData;
+import parquet.format.CompressionCodec;
+import parquet.format.Encoding;
+import parquet.format.FileMetaData;
+import parquet.format.KeyValue;
+import parquet.format.RowGroup;
+import parquet.format.SchemaElement;
+import parquet.format.Type;
+import parquet.format.converter.ParquetMetadataConverter.MetadataFilter;
+import parquet.hadoop.metadata.ColumnPath;
+import parquet.org.apache.thrift.TException;
+import parquet.org.apache.thrift.protocol.TCompactProtocol;
+import parquet.org.apache.thrift.protocol.TField;
+import parquet.org.apache.thrift.protocol.TList;
+import parquet.org.apache.thrift.protocol.TProtocol;
+import parquet.org.apache.thrift.protocol.TProtocolUtil;
+import parquet.org.apache.thrift.protocol.TType;
+import parquet.org.apache.thrift.transport.TIOStreamTransport;
+
+/**
+ * Decodes a thrift footer keeping only the parts selected by a {@link MetadataFilter}.
+ * The column chunks of the other columns are skipped as soon as their path is known
+ * and the values of the other key/value metadata are skipped without being decoded.
+ * As in {@link ParquetMetadataConverter#fromParquetMetadata(FileMetaData, MetadataFilter)}
+ * the first column chunk of each row group is always kept.
+ */
+class FilteredFileMetaDataReader {
+
+  private final MetadataFilter filter;
+
+  /**
+   * @param filter the parts of the footer to keep
+   */
+  FilteredFileMetaDataReader(MetadataFilter filter) {
+    this.filter = filter;
+  }
+
+  /**
+   * @param from the stream to read the footer from
+   * @return the footer without the parts filtered out
+   * @throws IOException
+   */
+  FileMetaData read(InputStream from) throws IOException {
+    try {
+      return readFileMetaData(new TCompactProtocol(new TIOStreamTransport(from)));
+    } catch (TException e) {
+      throw new IOException("can not read " + FileMetaData.class + ": " + e.getMessage(), e);
+    }
+  }
+
+  private FileMetaData readFileMetaData(TProtocol prot) throws TException {
+    FileMetaData fileMetaData = new FileMetaData();
+    prot.readStructBegin();
+    for (TField field = prot.readFieldBegin(); field.type != TType.STOP; field = prot.readFieldBegin()) {
+      if (field.id == 1 && field.type == TType.I32) {
+        fileMetaData.setVersion(prot.readI32());
+      } else if (field.id == 2 && field.type == TType.LIST) {
+        TList list = prot.readListBegin();
+        List<SchemaElement> schema = new ArrayList<SchemaElement>(list.size);
+        for (int i = 0; i < list.size; i++) {
+          SchemaElement element = new SchemaElement();
+          element.read(prot);
+          schema.add(element);
+        }
+        prot.readListEnd();
+        fileMetaData.setSchema(schema);
+      } else if (field.id == 3 && field.type == TType.I64) {
+        fileMetaData.setNum_rows(prot.readI64());
+      } else if (field.id == 4 && field.type == TType.LIST) {
+        TList list = prot.readListBegin();
+        List<RowGroup> rowGroups = new ArrayList<RowGroup>(list.size);
+        for (int i = 0; i < list.size; i++) {
+          rowGroups.add(readRowGroup(prot));
+        }
+        prot.readListEnd();
+        fileMetaData.setRow_groups(rowGroups);
+      } else if (field.id == 5 && field.type == TType.LIST) {
+        TList list = prot.readListBegin();
+        List<KeyValue> keyValues = new ArrayList<KeyValue>();
+        for (int i = 0; i < list.size; i++) {
+          KeyValue keyValue = readKeyValue(prot);
+          if (keyValue != null) {
+            keyValues.add(keyValue);
+          }
+        }
+        prot.readListEnd();
+        fileMetaData.setKey_value_metadata(keyValues);
+      } else if (field.id == 6 && field.type == TType.STRING) {
+        fileMetaData.setCreated_by(prot.readString());
+      } else {
+        TProtocolUtil.skip(prot, field.type);
+      }
+      prot.readFieldEnd();
+    }
+    prot.readStructEnd();
+    return fileMetaData;
+  }
+
+  private RowGroup readRowGroup(TProtocol prot) throws TException {
+    RowGroup rowGroup = new RowGroup();
+    prot.readStructBegin();
+    for (TField field = prot.readFieldBegin(); field.type != TType.STOP; field = prot.readFieldBegin()) {
+      if (field.id == 1 && field.type == TType.LIST) {
+        TList list = prot.readListBegin();
+        List<ColumnChunk> columns = new ArrayList<ColumnChunk>();
+        for (int i = 0; i < list.size; i++) {
+          ColumnChunk column = readColumnChunk(prot, i == 0);
+          if (column != null) {
+            columns.add(column);
+          }
+        }
+        prot.readListEnd();
+        rowGroup.setColumns(columns);
+      } else if (field.id == 2 && field.type == TType.I64) {
+        rowGroup.setTotal_byte_size(prot.readI64());
+      } else if (field.id == 3 && field.type == TType.I64) {
+        rowGroup.setNum_rows(prot.readI64());
+      } else {
+        TProtocolUtil.skip(prot, field.type);
+      }
+      prot.readFieldEnd();
+    }
+    prot.readStructEnd();
+    return rowGroup;
+  }
+
+  /**
+   * @return the column chunk or null if it is filtered out
+   */
+  private ColumnChunk readColumnChunk(TProtocol prot, boolean keep) throws TException {
+    ColumnChunk columnChunk = new ColumnChunk();
+    boolean kept = true;
+    prot.readStructBegin();
+    for (TField field = prot.readFieldBegin(); field.type != TType.STOP; field = prot.readFieldBegin()) {
+      if (!kept) {
+        TProtocolUtil.skip(prot, field.type);
+      } else if (field.id == 1 && field.type == TType.STRING) {
+        columnChunk.setFile_path(prot.readString());
+      } else if (field.id == 2 && field.type == TType.I64) {
+        columnChunk.setFile_offset(prot.readI64());
+      } else if (field.id == 3 && field.type == TType.STRUCT) {
+        ColumnMetaData metaData = readColumnMetaData(prot, keep);
+        if (metaData == null) {
+          kept = false;
+        } else {
+          columnChunk.setMeta_data(metaData);
+        }
+      } else {
+        TProtocolUtil.skip(prot, field.type);
+      }
+      prot.readFieldEnd();
+    }
+    prot.readStructEnd();
+    return kept ? columnChunk : null;
+  }
+
+  /**
+   * the fields following the path of a column filtered out are skipped
+   * @return the column metadata or null if it is filtered out
+   */
+  private ColumnMetaData readColumnMetaData(TProtocol prot, boolean keep) throws TException {
+    ColumnMetaData metaData = new ColumnMetaData();
+    boolean kept = true;
+    prot.readStructBegin();
+    for (TField field = prot.readFieldBegin(); field.type != TType.STOP; field = prot.readFieldBegin()) {
+      if (!kept) {
+        TProtocolUtil.skip(prot, field.type);
+      } else if (field.id == 1 && field.type == TType.I32) {
+        metaData.setType(Type.findByValue(prot.readI32()));
+      } else if (field.id == 2 && field.type == TType.LIST) {
+        TList list = prot.readListBegin();
+        List<Encoding> encodings = new ArrayList<Encoding>(list.size);
+        for (int i = 0; i < list.size; i++) {
+          encodings.add(Encoding.findByValue(prot.readI32()));
+        }
+        prot.readListEnd();
+        metaData.setEncodings(encodings);
+      } else if (field.id == 3 && field.type == TType.LIST) {
+        TList list = prot.readListBegin();
+        String[] path = new String[list.size];
+        for (int i = 0; i < path.length; i++) {
+          path[i] = prot.readString();
+        }
+        prot.readListEnd();
+        kept = keep || filter.keepColumn(ColumnPath.get(path));
+        List<String> pathInSchema = new ArrayList<String>(path.length);
+        for (String element : path) {
+          pathInSchema.add(element);
+        }
+        metaData.setPath_in_schema(pathInSchema);
+      } else if (field.id == 4 && field.type == TType.I32) {
+        metaData.setCodec(CompressionCodec.findByValue(prot.readI32()));
+      } else if (field.id == 5 && field.type == TType.I64) {
+        metaData.setNum_values(prot.readI64());
+      } else if (field.id == 6 && field.type == TType.I64) {
+        metaData.setTotal_uncompressed_size(prot.readI64());
+      } else if (field.id == 7 && field.type == TType.I64) {
+        metaData.setTotal_compressed_size(prot.readI64());
+      } else if (field.id == 9 && field.type == TType.I64) {
+        metaData.setData_page_offset(prot.readI64());
+      } else if (field.id == 10 && field.type == TType.I64) {
+        metaData.setIndex_page_offset(prot.readI64());
+      } else if (field.id == 11 && field.type == TType.I64) {
+        metaData.setDictionary_page_offset(prot.readI64());
+      } else {
+        TProtocolUtil.skip(prot, field.type);
+      }
+      prot.readFieldEnd();
+    }
+    prot.readStructEnd();
+    return kept ? metaData : null;
+  }
+
+  /**
+   * @return the key/value or null if it is filtered out
+   */
+  private KeyValue readKeyValue(TProtocol prot) throws TException {
+    KeyValue keyValue = new KeyValue();
+    prot.readStructBegin();
+    for (TField field = prot.readFieldBegin(); field.type != TType.STOP; field = prot.readFieldBegin()) {
+      if (field.id == 1 && field.type == TType.STRING) {
+        keyValue.setKey(prot.readString());
+      } else if (field.id == 2 && field.type == TType.STRING && keyValue.key != null && filter.keepKey(keyValue.key)) {
+        keyValue.setValue(prot.readString());
+      } else {
+        TProtocolUtil.skip(prot, field.type);
+      }
+      prot.readFieldEnd();
+    }
+    prot.readStructEnd();
+    return keyValue.key != null && filter.keepKey(keyValue.key) ? keyValue : null;
+  }
+
+}
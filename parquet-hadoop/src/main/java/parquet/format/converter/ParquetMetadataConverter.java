@@ -23,12 +23,15 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeSet;
 
 import parquet.Log;
 import parquet.format.ColumnChunk;
@@ -45,6 +48,7 @@ import parquet.format.SchemaElement;
 import parquet.format.Type;
 import parquet.hadoop.metadata.BlockMetaData;
 import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.ColumnPath;
 import parquet.hadoop.metadata.CompressionCodecName;
 import parquet.hadoop.metadata.ParquetMetadata;
 import parquet.io.ParquetDecodingException;
@@ -58,6 +62,67 @@ import parquet.schema.TypeVisitor;
 public class ParquetMetadataConverter {
   private static final Log LOG = Log.getLog(ParquetMetadataConverter.class);
 
+  /**
+   * Selects the parts of a footer to convert.
+   * Column chunks of the other columns and the other key/value metadata are skipped.
+   *
+   */
+  public static final class MetadataFilter {
+
+    /**
+     * converts the whole footer
+     */
+    public static final MetadataFilter NO_FILTER = new MetadataFilter(null, null);
+
+    private final Set<ColumnPath> columns;
+    private final Set<String> keys;
+
+    /**
+     * @param columns the paths of the columns to keep, null for all of them
+     * @param keys the key/value metadata keys to keep, null for all of them
+     */
+    public MetadataFilter(Collection<String[]> columns, Collection<String> keys) {
+      if (columns == null) {
+        this.columns = null;
+      } else {
+        this.columns = new HashSet<ColumnPath>();
+        for (String[] column : columns) {
+          this.columns.add(ColumnPath.get(column));
+        }
+      }
+      this.keys = keys == null ? null : new TreeSet<String>(keys);
+    }
+
+    boolean keepColumn(ColumnPath path) {
+      return columns == null || columns.contains(path);
+    }
+
+    boolean keepKey(String key) {
+      return keys == null || keys.contains(key);
+    }
+
+    /**
+     * @return true if the whole footer is converted
+     */
+    public boolean isNoFilter() {
+      return columns == null && keys == null;
+    }
+
+    @Override
+    public String toString() {
+      // sorted so that equal filters have the same representation
+      return "MetadataFilter{columns: " + (columns == null ? null : new TreeSet<String>(toStrings(columns))) + ", keys: " + keys + "}";
+    }
+
+    private static List<String> toStrings(Set<ColumnPath> columns) {
+      List<String> result = new ArrayList<String>(columns.size());
+      for (ColumnPath column : columns) {
+        result.add(column.toString());
+      }
+      return result;
+    }
+  }
+
   public FileMetaData toParquetMetadata(int currentVersion, ParquetMetadata parquetMetadata) {
     List<BlockMetaData> blocks = parquetMetadata.getBlocks();
     List<RowGroup> rowGroups = new ArrayList<RowGroup>();
@@ -227,15 +292,41 @@ public class ParquetMetadataConverter {
   }
 
   public ParquetMetadata readParquetMetadata(InputStream from) throws IOException {
-    FileMetaData fileMetaData = readFileMetaData(from);
+    return readParquetMetadata(from, MetadataFilter.NO_FILTER);
+  }
+
+  /**
+   * The parts filtered out are skipped while the footer is decoded.
+   * @param from the stream to read the footer from
+   * @param filter the parts of the footer to convert
+   * @return the converted footer
+   * @throws IOException
+   */
+  public ParquetMetadata readParquetMetadata(InputStream from, MetadataFilter filter) throws IOException {
+    FileMetaData fileMetaData = filter.isNoFilter()
+        ? readFileMetaData(from)
+        : new FilteredFileMetaDataReader(filter).read(from);
     if (Log.DEBUG) LOG.debug(fileMetaData);
-    ParquetMetadata parquetMetadata = fromParquetMetadata(fileMetaData);
+    ParquetMetadata parquetMetadata = fromParquetMetadata(fileMetaData, filter);
     if (Log.DEBUG) LOG.debug(ParquetMetadata.toPrettyJSON(parquetMetadata));
     return parquetMetadata;
   }
 
   public ParquetMetadata fromParquetMetadata(FileMetaData parquetMetadata) throws IOException {
+    return fromParquetMetadata(parquetMetadata, MetadataFilter.NO_FILTER);
+  }
+
+  /**
+   * The first column chunk of each row group is always kept as it locates the row group in the file.
+   * @param parquetMetadata the footer
+   * @param filter the parts of the footer to convert
+   * @return the converted footer
+   * @throws IOException
+   */
+  public ParquetMetadata fromParquetMetadata(FileMetaData parquetMetadata, MetadataFilter filter) throws IOException {
     MessageType messageType = fromParquetSchema(parquetMetadata.getSchema());
+    // columns are looked up in the schema once
+    Map<ColumnPath, PrimitiveTypeName> types = new HashMap<ColumnPath, PrimitiveTypeName>();
     List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
     List<RowGroup> row_groups = parquetMetadata.getRow_groups();
     for (RowGroup rowGroup : row_groups) {
@@ -244,23 +335,34 @@ public class ParquetMetadataConverter {
       blockMetaData.setTotalByteSize(rowGroup.getTotal_byte_size());
       List<ColumnChunk> columns = rowGroup.getColumns();
       String filePath = columns.get(0).getFile_path();
+      boolean first = true;
       for (ColumnChunk columnChunk : columns) {
         if ((filePath == null && columnChunk.getFile_path() != null)
             || (filePath !=null && !filePath.equals(columnChunk.getFile_path()))) {
           throw new ParquetDecodingException("all column chunks of the same row group must be in the same file for now");
         }
         parquet.format.ColumnMetaData metaData = columnChunk.meta_data;
-        String[] path = metaData.path_in_schema.toArray(new String[metaData.path_in_schema.size()]);
-        ColumnChunkMetaData column = new ColumnChunkMetaData(
+        ColumnPath path = ColumnPath.get(metaData.path_in_schema.toArray(new String[metaData.path_in_schema.size()]));
+        boolean keep = first || filter.keepColumn(path);
+        first = false;
+        if (!keep) {
+          continue;
+        }
+        PrimitiveTypeName type = types.get(path);
+        if (type == null) {
+          type = messageType.getType(path.toArray()).asPrimitiveType().getPrimitiveTypeName();
+          types.put(path, type);
+        }
+        ColumnChunkMetaData column = ColumnChunkMetaData.get(
             path,
-            messageType.getType(path).asPrimitiveType().getPrimitiveTypeName(),
+            type,
             CompressionCodecName.fromParquet(metaData.codec),
-            fromFormatEncodings(metaData.encodings));
-        column.setFirstDataPageOffset(metaData.data_page_offset);
-        column.setDictionaryPageOffset(metaData.dictionary_page_offset);
-        column.setValueCount(metaData.num_values);
-        column.setTotalUncompressedSize(metaData.total_uncompressed_size);
-        column.setTotalSize(metaData.total_compressed_size);
+            fromFormatEncodings(metaData.encodings),
+            metaData.data_page_offset,
+            metaData.dictionary_page_offset,
+            metaData.num_values,
+            metaData.total_compressed_size,
+            metaData.total_uncompressed_size);
         // TODO
         // index_page_offset
         // key_value_metadata
@@ -273,7 +375,9 @@ public class ParquetMetadataConverter {
     List<KeyValue> key_value_metadata = parquetMetadata.getKey_value_metadata();
     if (key_value_metadata != null) {
       for (KeyValue keyValue : key_value_metadata) {
-        keyValueMetaData.put(keyValue.key, keyValue.value);
+        if (filter.keepKey(keyValue.key)) {
+          keyValueMetaData.put(keyValue.key, keyValue.value);
+        }
       }
     }
     return new ParquetMetadata(
@@ -15,7 +15,6 @@
  */
 package parquet.hadoop;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -36,37 +35,35 @@ import parquet.hadoop.metadata.CompressionCodecName;
 
 class CodecFactory {
 
+  /**
+   * Decompresses pages.
+   * It can be used by several threads concurrently: a decompressor is borrowed from the pool for each page.
+   */
   public class BytesDecompressor {
 
     private final CompressionCodec codec;
-    private final Decompressor decompressor;
 
     public BytesDecompressor(CompressionCodec codec) {
       this.codec = codec;
-      if (codec != null) {
-        decompressor = CodecPool.getDecompressor(codec);
-      } else {
-        decompressor = null;
-      }
     }
 
     public BytesInput decompress(BytesInput bytes, int uncompressedSize) throws IOException {
-      final BytesInput decompressed;
-      if (codec != null) {
-        decompressor.reset();
-        InputStream is = codec.createInputStream(new ByteArrayInputStream(bytes.toByteArray()), decompressor);
-        decompressed = BytesInput.from(is, uncompressedSize);
-      } else {
-        decompressed = bytes;
+      if (codec == null) {
+        return bytes;
       }
-      return decompressed;
-    }
-
-    private void release() {
-      if (decompressor != null) {
+      Decompressor decompressor = CodecPool.getDecompressor(codec);
+      try {
+        if (decompressor != null) {
+          decompressor.reset();
+        }
+        InputStream is = codec.createInputStream(bytes.toInputStream(), decompressor);
+        // decompress now as the decompressor goes back to the pool
+        return BytesInput.from(BytesInput.from(is, uncompressedSize).toByteArray());
+      } finally {
         CodecPool.returnDecompressor(decompressor);
       }
     }
+
   }
 
   /**
@@ -169,7 +166,7 @@ class CodecFactory {
     return comp;
   }
 
-  public BytesDecompressor getDecompressor(CompressionCodecName codecName) {
+  public synchronized BytesDecompressor getDecompressor(CompressionCodecName codecName) {
     BytesDecompressor decomp = decompressors.get(codecName);
     if (decomp == null) {
       CompressionCodec codec = getCodec(codecName);
@@ -179,14 +176,11 @@ class CodecFactory {
     return decomp;
   }
 
-  public void release() {
+  public synchronized void release() {
     for (BytesCompressor compressor : compressors.values()) {
       compressor.release();
     }
     compressors.clear();
-    for (BytesDecompressor decompressor : decompressors.values()) {
-      decompressor.release();
-    }
     decompressors.clear();
   }
 }
@@ -0,0 +1,205 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.nio.ByteBuffer;
+
+import parquet.column.ColumnDescriptor;
+import parquet.io.api.Binary;
+import parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+/**
+ * Aggregates of the values of a column: count, null count, min, max and sum.
+ *
+ * @see ParquetAggregator
+ *
+ */
+public class ColumnAggregate {
+
+  private final ColumnDescriptor column;
+  private long valueCount = 0;
+  private long nullCount = 0;
+  // INT32, INT64 and BOOLEAN (as 0 or 1)
+  private long longMin = Long.MAX_VALUE;
+  private long longMax = Long.MIN_VALUE;
+  private long longSum = 0;
+  // FLOAT and DOUBLE
+  private double doubleMin = Double.POSITIVE_INFINITY;
+  private double doubleMax = Double.NEGATIVE_INFINITY;
+  private double doubleSum = 0;
+  // BINARY
+  private Binary binaryMin;
+  private Binary binaryMax;
+
+  ColumnAggregate(ColumnDescriptor column) {
+    this.column = column;
+  }
+
+  void addNulls(long count) {
+    nullCount += count;
+  }
+
+  void add(long value, long count) {
+    valueCount += count;
+    longMin = Math.min(longMin, value);
+    longMax = Math.max(longMax, value);
+    longSum = addExact(longSum, multiplyExact(value, count));
+  }
+
+  void add(double value, long count) {
+    valueCount += count;
+    doubleMin = Math.min(doubleMin, value);
+    doubleMax = Math.max(doubleMax, value);
+    doubleSum += value * count;
+  }
+
+  void add(Binary value, long count) {
+    valueCount += count;
+    // values are compared in place and copied only when they become the min or the max
+    boolean isMin = binaryMin == null || compare(value, binaryMin) < 0;
+    boolean isMax = binaryMax == null || compare(value, binaryMax) > 0;
+    if (isMin || isMax) {
+      Binary copy = copy(value);
+      if (isMin) {
+        binaryMin = copy;
+      }
+      if (isMax) {
+        binaryMax = copy;
+      }
+    }
+  }
+
+  private static Binary copy(Binary value) {
+    // the value may point to a page buffer
+    ByteBuffer buffer = value.toByteBuffer();
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return Binary.fromByteArray(bytes);
+  }
+
+  /**
+   * unsigned lexicographic order
+   */
+  private static int compare(Binary b1, Binary b2) {
+    ByteBuffer buffer1 = b1.toByteBuffer();
+    ByteBuffer buffer2 = b2.toByteBuffer();
+    int start1 = buffer1.position();
+    int start2 = buffer2.position();
+    int length1 = buffer1.remaining();
+    int length2 = buffer2.remaining();
+    int length = Math.min(length1, length2);
+    for (int i = 0; i < length; i++) {
+      int c = (buffer1.get(start1 + i) & 0xFF) - (buffer2.get(start2 + i) & 0xFF);
+      if (c != 0) {
+        return c;
+      }
+    }
+    return length1 - length2;
+  }
+
+  private static long addExact(long a, long b) {
+    long result = a + b;
+    if (((a ^ result) & (b ^ result)) < 0) {
+      throw new ArithmeticException("the sum overflows a long");
+    }
+    return result;
+  }
+
+  private static long multiplyExact(long value, long count) {
+    long result = value * count;
+    if (count != 0 && (result / count != value || (value == Long.MIN_VALUE && count == -1))) {
+      throw new ArithmeticException("the sum overflows a long");
+    }
+    return result;
+  }
+
+  /**
+   * @return the column aggregated
+   */
+  public ColumnDescriptor getColumn() {
+    return column;
+  }
+
+  /**
+   * @return the number of non null values
+   */
+  public long getValueCount() {
+    return valueCount;
+  }
+
+  /**
+   * @return the number of null values (or empty lists for repeated columns)
+   */
+  public long getNullCount() {
+    return nullCount;
+  }
+
+  /**
+   * @return the minimum value (Integer, Long, Boolean, Float, Double or Binary) or null if there are no values
+   */
+  public Object getMin() {
+    return valueCount == 0 ? null : box(longMin, doubleMin, binaryMin);
+  }
+
+  /**
+   * @return the maximum value (Integer, Long, Boolean, Float, Double or Binary) or null if there are no values
+   */
+  public Object getMax() {
+    return valueCount == 0 ? null : box(longMax, doubleMax, binaryMax);
+  }
+
+  /**
+   * @return the sum of the values: a Long for INT32 and INT64 columns, a Double for FLOAT and DOUBLE columns, null otherwise
+   * @throws ArithmeticException if the sum of an INT32 or INT64 column overflows a long
+   */
+  public Number getSum() {
+    switch (column.getType()) {
+    case INT32:
+    case INT64:
+      return longSum;
+    case FLOAT:
+    case DOUBLE:
+      return doubleSum;
+    default:
+      return null;
+    }
+  }
+
+  private Object box(long longValue, double doubleValue, Binary binaryValue) {
+    PrimitiveTypeName type = column.getType();
+    switch (type) {
+    case INT32:
+      return (int)longValue;
+    case INT64:
+      return longValue;
+    case BOOLEAN:
+      return longValue != 0;
+    case FLOAT:
+      return (float)doubleValue;
+    case DOUBLE:
+      return doubleValue;
+    case BINARY:
+      return binaryValue;
+    default:
+      throw new IllegalArgumentException("can not aggregate " + type);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return column + " {count: " + valueCount + ", nulls: " + nullCount + ", min: " + getMin() + ", max: " + getMax() + ", sum: " + getSum() + "}";
+  }
+}
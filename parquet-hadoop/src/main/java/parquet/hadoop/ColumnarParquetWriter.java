@@ -0,0 +1,281 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static java.lang.Math.max;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+
+import parquet.Log;
+import parquet.column.ColumnDescriptor;
+import parquet.column.impl.ColumnWriteStoreImpl;
+import parquet.hadoop.CodecFactory.BytesCompressor;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.io.ParquetEncodingException;
+import parquet.io.api.Binary;
+import parquet.schema.MessageType;
+
+/**
+ * Writes a Parquet file from columns of (value, repetition level, definition level) triplets
+ * without going through a RecordConsumer.
+ *
+ * The caller decides where row groups end by calling {@link #endRowGroup()}.
+ * All the columns of the schema must contain the same number of records when a row group ends.
+ * Arrays of values contain only the defined values:
+ * one for each definition level equal to the maximum definition level of the column.
+ * Arrays of levels may be null when the corresponding maximum level is 0.
+ *
+ */
+public class ColumnarParquetWriter implements Closeable {
+  private static final Log LOG = Log.getLog(ColumnarParquetWriter.class);
+
+  private static final int MINIMUM_BUFFER_SIZE = 64 * 1024;
+
+  private final ParquetFileWriter w;
+  private final MessageType schema;
+  private final Map<String, String> extraMetaData;
+  private final int pageSize;
+  private final int initialBufferSize;
+  private final BytesCompressor compressor;
+  private final boolean enableDictionary;
+
+  private ColumnWriteStoreImpl store;
+  private ColumnChunkPageWriteStore pageStore;
+  // number of records written to each column in the current row group
+  private final Map<ColumnDescriptor, Long> recordCounts = new HashMap<ColumnDescriptor, Long>();
+
+  /**
+   * @param file the file to create
+   * @param schema the schema of the file
+   * @param extraMetaData extra meta data to write in the footer of the file
+   * @param compressionCodecName the compression codec to use
+   * @param rowGroupSize the expected size of a row group, used to size the buffers
+   * @param pageSize the page size threshold
+   * @param enableDictionary to turn dictionary encoding on
+   * @throws IOException
+   */
+  public ColumnarParquetWriter(
+      Path file,
+      MessageType schema,
+      Map<String, String> extraMetaData,
+      CompressionCodecName compressionCodecName,
+      int rowGroupSize,
+      int pageSize,
+      boolean enableDictionary) throws IOException {
+    this(new Configuration(), file, schema, extraMetaData, compressionCodecName, rowGroupSize, pageSize, enableDictionary);
+  }
+
+  /**
+   * @param conf the configuration to access the file system and the compression codecs
+   * @param file the file to create
+   * @param schema the schema of the file
+   * @param extraMetaData extra meta data to write in the footer of the file
+   * @param compressionCodecName the compression codec to use
+   * @param rowGroupSize the expected size of a row group, used to size the buffers
+   * @param pageSize the page size threshold
+   * @param enableDictionary to turn dictionary encoding on
+   * @throws IOException
+   */
+  public ColumnarParquetWriter(
+      Configuration conf,
+      Path file,
+      MessageType schema,
+      Map<String, String> extraMetaData,
+      CompressionCodecName compressionCodecName,
+      int rowGroupSize,
+      int pageSize,
+      boolean enableDictionary) throws IOException {
+    this.w = new ParquetFileWriter(conf, schema, file);
+    this.schema = schema;
+    this.extraMetaData = extraMetaData;
+    this.pageSize = pageSize;
+    this.initialBufferSize = max(MINIMUM_BUFFER_SIZE, rowGroupSize / schema.getColumns().size() / 5);
+    this.compressor = new CodecFactory(conf).getCompressor(compressionCodecName, pageSize);
+    this.enableDictionary = enableDictionary;
+    resetRecordCounts();
+    w.start();
+  }
+
+  private ColumnWriteStoreImpl getStore() {
+    if (store == null) {
+      pageStore = new ColumnChunkPageWriteStore(compressor, schema, initialBufferSize);
+      store = new ColumnWriteStoreImpl(pageStore, pageSize, initialBufferSize, enableDictionary);
+      for (ColumnDescriptor column : schema.getColumns()) {
+        // every column chunk must exist in the row group
+        store.getColumnWriter(column);
+      }
+    }
+    return store;
+  }
+
+  /**
+   * @return the number of records starting in the batch
+   */
+  private long countRecords(int[] repetitionLevels, int count) {
+    if (repetitionLevels == null) {
+      return count;
+    }
+    long records = 0;
+    for (int i = 0; i < count; i++) {
+      if (repetitionLevels[i] == 0) {
+        ++ records;
+      }
+    }
+    return records;
+  }
+
+  private void checkColumn(ColumnDescriptor path) {
+    if (!recordCounts.containsKey(path)) {
+      throw new ParquetEncodingException(path + " is not in schema " + schema);
+    }
+  }
+
+  /**
+   * counts the records of a batch once it is written: a rejected batch is not counted
+   */
+  private void addRecords(ColumnDescriptor path, int[] repetitionLevels, int count) {
+    recordCounts.put(path, recordCounts.get(path) + countRecords(repetitionLevels, count));
+  }
+
+  /**
+   * Writes a batch of triplets to a column of the current row group.
+   * The values array holds only the defined values:
+   * one for each definition level equal to the maximum definition level of the column.
+   * @param path the column, of type INT32
+   * @param values the defined values
+   * @param repetitionLevels the repetition levels or null if the column is not repeated
+   * @param definitionLevels the definition levels or null if the column is required
+   * @param count the number of triplets
+   * @throws ParquetEncodingException if the column is not in the schema or the batch does not match it
+   */
+  public void writeBatch(ColumnDescriptor path, int[] values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    checkColumn(path);
+    getStore().writeBatch(path, values, repetitionLevels, definitionLevels, count);
+    addRecords(path, repetitionLevels, count);
+  }
+
+  /**
+   * @param path the column, of type INT64
+   * @see #writeBatch(ColumnDescriptor, int[], int[], int[], int)
+   */
+  public void writeBatch(ColumnDescriptor path, long[] values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    checkColumn(path);
+    getStore().writeBatch(path, values, repetitionLevels, definitionLevels, count);
+    addRecords(path, repetitionLevels, count);
+  }
+
+  /**
+   * @param path the column, of type BOOLEAN
+   * @see #writeBatch(ColumnDescriptor, int[], int[], int[], int)
+   */
+  public void writeBatch(ColumnDescriptor path, boolean[] values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    checkColumn(path);
+    getStore().writeBatch(path, values, repetitionLevels, definitionLevels, count);
+    addRecords(path, repetitionLevels, count);
+  }
+
+  /**
+   * @param path the column, of type BINARY or FIXED_LEN_BYTE_ARRAY
+   * @see #writeBatch(ColumnDescriptor, int[], int[], int[], int)
+   */
+  public void writeBatch(ColumnDescriptor path, Binary[] values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    checkColumn(path);
+    getStore().writeBatch(path, values, repetitionLevels, definitionLevels, count);
+    addRecords(path, repetitionLevels, count);
+  }
+
+  /**
+   * @param path the column, of type FLOAT
+   * @see #writeBatch(ColumnDescriptor, int[], int[], int[], int)
+   */
+  public void writeBatch(ColumnDescriptor path, float[] values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    checkColumn(path);
+    getStore().writeBatch(path, values, repetitionLevels, definitionLevels, count);
+    addRecords(path, repetitionLevels, count);
+  }
+
+  /**
+   * @param path the column, of type DOUBLE
+   * @see #writeBatch(ColumnDescriptor, int[], int[], int[], int)
+   */
+  public void writeBatch(ColumnDescriptor path, double[] values, int[] repetitionLevels, int[] definitionLevels, int count) {
+    checkColumn(path);
+    getStore().writeBatch(path, values, repetitionLevels, definitionLevels, count);
+    addRecords(path, repetitionLevels, count);
+  }
+
+  /**
+   * @return the memory used to buffer the current row group, to decide when to end it
+   */
+  public long getBufferedSize() {
+    return store == null ? 0 : store.memSize();
+  }
+
+  /**
+   * writes the current row group to the file. Does nothing if no record was written since the last one
+   * @throws IOException
+   */
+  public void endRowGroup() throws IOException {
+    if (store == null) {
+      return;
+    }
+    List<ColumnDescriptor> columns = schema.getColumns();
+    long recordCount = recordCounts.get(columns.get(0));
+    for (ColumnDescriptor column : columns) {
+      if (recordCounts.get(column) != recordCount) {
+        throw new ParquetEncodingException(
+            "all columns must have the same number of records in a row group: "
+            + recordCounts.get(column) + " in " + column + " and " + recordCount + " in " + columns.get(0));
+      }
+    }
+    if (recordCount > 0) {
+      LOG.info("Flushing row group of " + recordCount + " records. allocated memory: " + store.allocatedSize());
+      store.flush();
+      w.startBlock(recordCount);
+      pageStore.flushToFileWriter(w);
+      w.endBlock();
+    } else {
+      // empty row groups can not be read back
+      if (Log.DEBUG) LOG.debug("no record written: not flushing the row group");
+    }
+    store = null;
+    pageStore = null;
+    resetRecordCounts();
+  }
+
+  private void resetRecordCounts() {
+    for (ColumnDescriptor column : schema.getColumns()) {
+      recordCounts.put(column, 0l);
+    }
+  }
+
+  /**
+   * ends the current row group and writes the footer
+   * @throws IOException
+   */
+  @Override
+  public void close() throws IOException {
+    endRowGroup();
+    w.end(extraMetaData);
+  }
+}
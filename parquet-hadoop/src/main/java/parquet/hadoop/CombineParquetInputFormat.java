@@ -0,0 +1,220 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+
+import parquet.Log;
+import parquet.hadoop.api.ReadSupport;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.util.ContextUtil;
+
+/**
+ * Packs the splits of many small files into fewer tasks.
+ * The splits planned by {@link ParquetInputFormat} are grouped up to a target size,
+ * first among the splits stored on the same host, then regardless of locality for the remaining ones.
+ *
+ * @param <T> the type of the materialized records
+ */
+public class CombineParquetInputFormat<T> extends ParquetInputFormat<T> {
+
+  private static final Log LOG = Log.getLog(CombineParquetInputFormat.class);
+
+  /**
+   * target size in bytes of the row groups read by a task
+   */
+  public static final String SPLIT_SIZE = "parquet.combine.split.size";
+
+  public static final long DEFAULT_SPLIT_SIZE = 128 * 1024 * 1024;
+
+  public static void setSplitSize(Job job, long splitSize) {
+    ContextUtil.getConfiguration(job).setLong(SPLIT_SIZE, splitSize);
+  }
+
+  public static long getSplitSize(Configuration configuration) {
+    return configuration.getLong(SPLIT_SIZE, DEFAULT_SPLIT_SIZE);
+  }
+
+  /**
+   * Hadoop will instantiate using this constructor
+   */
+  public CombineParquetInputFormat() {
+  }
+
+  /**
+   * constructor used when this InputFormat in wrapped in another one
+   * @param readSupportClass the class to materialize records
+   */
+  public <S extends ReadSupport<T>> CombineParquetInputFormat(Class<S> readSupportClass) {
+    super(readSupportClass);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public RecordReader<Void, T> createRecordReader(
+      InputSplit inputSplit,
+      TaskAttemptContext taskAttemptContext) throws IOException, InterruptedException {
+    return new CombineParquetRecordReader<T>(this);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<InputSplit> getSplits(JobContext jobContext) throws IOException {
+    List<ParquetInputSplit> splits = new ArrayList<ParquetInputSplit>();
+    for (InputSplit split : super.getSplits(jobContext)) {
+      splits.add((ParquetInputSplit)split);
+    }
+    List<InputSplit> combinedSplits = new ArrayList<InputSplit>();
+    combinedSplits.addAll(combineSplits(splits, getSplitSize(ContextUtil.getConfiguration(jobContext))));
+    LOG.info("combined " + splits.size() + " splits into " + combinedSplits.size());
+    return combinedSplits;
+  }
+
+  /**
+   * groups splits up to the given size, favoring splits stored on the same host
+   * @param splits the splits to group
+   * @param splitSize the target size of a group in bytes
+   * @return the combined splits, containing each split exactly once
+   * @throws IOException if the locations of the splits can't be retrieved
+   */
+  static List<CombineParquetInputSplit> combineSplits(List<ParquetInputSplit> splits, long splitSize) throws IOException {
+    Map<String, List<ParquetInputSplit>> splitsByHost = new LinkedHashMap<String, List<ParquetInputSplit>>();
+    for (ParquetInputSplit split : splits) {
+      for (String host : getLocations(split)) {
+        List<ParquetInputSplit> hostSplits = splitsByHost.get(host);
+        if (hostSplits == null) {
+          hostSplits = new ArrayList<ParquetInputSplit>();
+          splitsByHost.put(host, hostSplits);
+        }
+        hostSplits.add(split);
+      }
+    }
+    List<CombineParquetInputSplit> combinedSplits = new ArrayList<CombineParquetInputSplit>();
+    // splits are identified by reference
+    Set<ParquetInputSplit> assigned = Collections.newSetFromMap(new IdentityHashMap<ParquetInputSplit, Boolean>());
+    // first, full groups of splits local to a single host
+    for (Entry<String, List<ParquetInputSplit>> entry : splitsByHost.entrySet()) {
+      List<ParquetInputSplit> group = new ArrayList<ParquetInputSplit>();
+      long groupSize = 0;
+      for (ParquetInputSplit split : entry.getValue()) {
+        if (assigned.contains(split)) {
+          continue;
+        }
+        group.add(split);
+        groupSize += getSize(split);
+        if (groupSize >= splitSize) {
+          combinedSplits.add(new CombineParquetInputSplit(group, new String[] { entry.getKey() }));
+          assigned.addAll(group);
+          group = new ArrayList<ParquetInputSplit>();
+          groupSize = 0;
+        }
+      }
+    }
+    // then, the remaining splits in their original order
+    List<ParquetInputSplit> group = new ArrayList<ParquetInputSplit>();
+    long groupSize = 0;
+    for (ParquetInputSplit split : splits) {
+      if (assigned.contains(split)) {
+        continue;
+      }
+      group.add(split);
+      groupSize += getSize(split);
+      if (groupSize >= splitSize) {
+        combinedSplits.add(new CombineParquetInputSplit(group, getHosts(group)));
+        group = new ArrayList<ParquetInputSplit>();
+        groupSize = 0;
+      }
+    }
+    if (!group.isEmpty()) {
+      combinedSplits.add(new CombineParquetInputSplit(group, getHosts(group)));
+    }
+    return combinedSplits;
+  }
+
+  /**
+   * @param split a split
+   * @return the bytes of row groups in the split or its length if they are not known yet
+   */
+  private static long getSize(ParquetInputSplit split) throws IOException {
+    if (split.isTaskSideMetadata()) {
+      try {
+        return split.getLength();
+      } catch (InterruptedException e) {
+        Thread.interrupted();
+        throw new IOException(e);
+      }
+    }
+    long size = 0;
+    for (BlockMetaData block : split.getBlocks()) {
+      size += block.getCompressedSize();
+    }
+    return size;
+  }
+
+  private static String[] getLocations(ParquetInputSplit split) throws IOException {
+    try {
+      return split.getLocations();
+    } catch (InterruptedException e) {
+      Thread.interrupted();
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * @param group splits
+   * @return the hosts of the splits, those storing the most bytes first
+   */
+  private static String[] getHosts(List<ParquetInputSplit> group) throws IOException {
+    final Map<String, Long> bytesByHost = new HashMap<String, Long>();
+    for (ParquetInputSplit split : group) {
+      long size = getSize(split);
+      for (String host : getLocations(split)) {
+        Long bytes = bytesByHost.get(host);
+        bytesByHost.put(host, bytes == null ? size : bytes + size);
+      }
+    }
+    List<String> hosts = new ArrayList<String>(bytesByHost.keySet());
+    Collections.sort(hosts, new Comparator<String>() {
+      @Override
+      public int compare(String h1, String h2) {
+        return bytesByHost.get(h2).compareTo(bytesByHost.get(h1));
+      }
+    });
+    return hosts.toArray(new String[hosts.size()]);
+  }
+
+}
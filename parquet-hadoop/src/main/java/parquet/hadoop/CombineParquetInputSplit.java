@@ -0,0 +1,126 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+import org.apache.hadoop.mapreduce.InputSplit;
+
+/**
+ * An input split made of several Parquet splits, possibly of different files,
+ * read one after the other by the same task.
+ *
+ * @see CombineParquetInputFormat
+ */
+public class CombineParquetInputSplit extends InputSplit implements Serializable, Writable {
+  private static final long serialVersionUID = 1L;
+
+  private List<ParquetInputSplit> splits;
+  private String[] hosts;
+
+  /**
+   * Writables must have a parameterless constructor
+   */
+  public CombineParquetInputSplit() {
+  }
+
+  /**
+   * @param splits the splits to read in this task
+   * @param hosts the hosts where most of the data can be found
+   */
+  public CombineParquetInputSplit(List<ParquetInputSplit> splits, String[] hosts) {
+    this.splits = splits;
+    this.hosts = hosts;
+  }
+
+  /**
+   * @return the splits to read in order
+   */
+  public List<ParquetInputSplit> getSplits() {
+    return splits;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getLength() throws IOException, InterruptedException {
+    long length = 0;
+    for (ParquetInputSplit split : splits) {
+      length += split.getLength();
+    }
+    return length;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String[] getLocations() throws IOException, InterruptedException {
+    return hosts;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void readFields(DataInput in) throws IOException {
+    int splitCount = WritableUtils.readVInt(in);
+    this.splits = new ArrayList<ParquetInputSplit>(splitCount);
+    for (int i = 0; i < splitCount; i++) {
+      ParquetInputSplit split = new ParquetInputSplit();
+      split.readFields(in);
+      splits.add(split);
+    }
+    this.hosts = new String[WritableUtils.readVInt(in)];
+    for (int i = 0; i < hosts.length; i++) {
+      hosts[i] = Text.readString(in);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void write(DataOutput out) throws IOException {
+    WritableUtils.writeVInt(out, splits.size());
+    for (ParquetInputSplit split : splits) {
+      split.write(out);
+    }
+    WritableUtils.writeVInt(out, hosts.length);
+    for (String host : hosts) {
+      Text.writeString(out, host);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "{"
+        + "hosts: " + Arrays.toString(hosts)
+        + " splits: " + splits
+        + "}";
+  }
+
+}
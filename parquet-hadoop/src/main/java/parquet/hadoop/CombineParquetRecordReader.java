@@ -0,0 +1,138 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+
+import parquet.hadoop.util.ContextUtil;
+
+/**
+ * Reads the records of all the Parquet splits of a {@link CombineParquetInputSplit} in sequence
+ *
+ * @see CombineParquetInputFormat
+ *
+ * @param <T> type of the materialized records
+ */
+public class CombineParquetRecordReader<T> extends RecordReader<Void, T> {
+
+  private final ParquetInputFormat<T> inputFormat;
+
+  private Configuration configuration;
+  private List<ParquetInputSplit> splits;
+  private int currentSplit = -1;
+  private ParquetRecordReader<T> currentReader;
+
+  /**
+   * @param inputFormat provides the read support for each of the splits
+   */
+  public CombineParquetRecordReader(ParquetInputFormat<T> inputFormat) {
+    this.inputFormat = inputFormat;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void initialize(InputSplit inputSplit, TaskAttemptContext context)
+      throws IOException, InterruptedException {
+    initialize(inputSplit, ContextUtil.getConfiguration(context));
+  }
+
+  public void initialize(InputSplit inputSplit, Configuration configuration) {
+    this.configuration = configuration;
+    this.splits = ((CombineParquetInputSplit)inputSplit).getSplits();
+  }
+
+  /**
+   * closes the current reader and opens the one of the next split
+   * @return false if there are no more splits
+   * @throws IOException
+   */
+  private boolean nextReader() throws IOException {
+    if (currentReader != null) {
+      currentReader.close();
+      currentReader = null;
+    }
+    ++ currentSplit;
+    if (currentSplit >= splits.size()) {
+      return false;
+    }
+    currentReader = new ParquetRecordReader<T>(inputFormat.getReadSupport(configuration), ParquetInputFormat.getUnboundRecordFilter(configuration));
+    currentReader.initialize(splits.get(currentSplit), configuration);
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean nextKeyValue() throws IOException, InterruptedException {
+    while (currentReader == null || !currentReader.nextKeyValue()) {
+      if (!nextReader()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * always returns null
+   */
+  @Override
+  public Void getCurrentKey() throws IOException, InterruptedException {
+    return null;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public T getCurrentValue() throws IOException, InterruptedException {
+    return currentReader.getCurrentValue();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public float getProgress() throws IOException, InterruptedException {
+    if (splits.isEmpty() || currentSplit >= splits.size()) {
+      return 1.0f;
+    }
+    if (currentReader == null) {
+      return 0.0f;
+    }
+    return (currentSplit + currentReader.getProgress()) / splits.size();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void close() throws IOException {
+    if (currentReader != null) {
+      currentReader.close();
+      currentReader = null;
+    }
+  }
+
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.hadoop.fs.FileStatus;
+
+import parquet.Log;
+import parquet.format.converter.ParquetMetadataConverter.MetadataFilter;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.FileMetaData;
+import parquet.hadoop.metadata.ParquetMetadata;
+
+/**
+ * Least recently used cache of file footers.
+ * An entry is valid as long as the length and modification time of the file did not change.
+ * The cache is bounded by the estimated heap size of the footers it contains.
+ * Footers are mutable: the cache keeps its own copy and hands out copies.
+ *
+ */
+class FooterCache {
+  private static final Log LOG = Log.getLog(FooterCache.class);
+
+  private static final class CachedFooter {
+    private final long length;
+    private final long modificationTime;
+    private final ParquetMetadata footer;
+    private final long estimatedSize;
+
+    CachedFooter(long length, long modificationTime, ParquetMetadata footer, long estimatedSize) {
+      this.length = length;
+      this.modificationTime = modificationTime;
+      this.footer = footer;
+      this.estimatedSize = estimatedSize;
+    }
+
+    boolean isValidFor(FileStatus status) {
+      return length == status.getLen() && modificationTime == status.getModificationTime();
+    }
+  }
+
+  // access ordered: iteration starts with the least recently used
+  private final Map<String, CachedFooter> footers = new LinkedHashMap<String, CachedFooter>(16, 0.75f, true);
+  private long maxSize;
+  private long size = 0;
+
+  /**
+   * @param maxSize the maximum estimated size in bytes of the footers cached
+   */
+  FooterCache(long maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * @param status the status of the file
+   * @param filter the filter the footer was decoded with
+   * @return the footer of the file or null if it is not cached or the file changed
+   */
+  synchronized ParquetMetadata get(FileStatus status, MetadataFilter filter) {
+    String key = key(status, filter);
+    CachedFooter cached = footers.get(key);
+    if (cached == null) {
+      return null;
+    }
+    if (!cached.isValidFor(status)) {
+      if (Log.DEBUG) LOG.debug("footer of " + key + " is stale");
+      remove(key);
+      return null;
+    }
+    return copy(cached.footer);
+  }
+
+  /**
+   * @param status the status of the file the footer was read from
+   * @param filter the filter the footer was decoded with
+   * @param footer the footer to cache
+   */
+  synchronized void put(FileStatus status, MetadataFilter filter, ParquetMetadata footer) {
+    long estimatedSize = estimateSize(footer);
+    if (estimatedSize > maxSize) {
+      return;
+    }
+    String key = key(status, filter);
+    remove(key);
+    footers.put(key, new CachedFooter(status.getLen(), status.getModificationTime(), copy(footer), estimatedSize));
+    size += estimatedSize;
+    evict();
+  }
+
+  /**
+   * @param maxSize the new maximum estimated size in bytes. Entries are evicted as needed
+   */
+  synchronized void setMaxSize(long maxSize) {
+    this.maxSize = maxSize;
+    evict();
+  }
+
+  synchronized long getMaxSize() {
+    return maxSize;
+  }
+
+  synchronized int getCount() {
+    return footers.size();
+  }
+
+  synchronized void clear() {
+    footers.clear();
+    size = 0;
+  }
+
+  private void remove(String key) {
+    CachedFooter removed = footers.remove(key);
+    if (removed != null) {
+      size -= removed.estimatedSize;
+    }
+  }
+
+  private void evict() {
+    Iterator<CachedFooter> lru = footers.values().iterator();
+    while (size > maxSize && lru.hasNext()) {
+      size -= lru.next().estimatedSize;
+      lru.remove();
+    }
+  }
+
+  private static String key(FileStatus status, MetadataFilter filter) {
+    // footers decoded with different filters are cached separately
+    return filter.isNoFilter() ? status.getPath().toString() : status.getPath() + " " + filter;
+  }
+
+  /**
+   * copies the mutable parts of a footer. The column chunks and the schema are immutable and shared
+   * @param footer the footer to copy
+   * @return a copy that can be modified without changing the original
+   */
+  static ParquetMetadata copy(ParquetMetadata footer) {
+    FileMetaData fileMetaData = footer.getFileMetaData();
+    List<BlockMetaData> blocks = new ArrayList<BlockMetaData>(footer.getBlocks().size());
+    for (BlockMetaData block : footer.getBlocks()) {
+      BlockMetaData blockCopy = new BlockMetaData();
+      blockCopy.setPath(block.getPath());
+      blockCopy.setRowCount(block.getRowCount());
+      blockCopy.setTotalByteSize(block.getTotalByteSize());
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        blockCopy.addColumn(column);
+      }
+      blocks.add(blockCopy);
+    }
+    return new ParquetMetadata(
+        new FileMetaData(fileMetaData.getSchema(), new HashMap<String, String>(fileMetaData.getKeyValueMetaData()), fileMetaData.getCreatedBy()),
+        blocks);
+  }
+
+  /**
+   * a rough estimate of the heap used by a footer
+   * @param footer the footer
+   * @return the estimated size in bytes
+   */
+  static long estimateSize(ParquetMetadata footer) {
+    long size = 256 + footer.getFileMetaData().getSchema().getPaths().size() * 128;
+    for (Entry<String, String> entry : footer.getFileMetaData().getKeyValueMetaData().entrySet()) {
+      size += 64 + 2 * (entry.getKey().length() + (entry.getValue() == null ? 0 : entry.getValue().length()));
+    }
+    for (BlockMetaData block : footer.getBlocks()) {
+      // a column chunk holds its path, encodings and a few longs
+      size += 64 + block.getColumns().size() * 200;
+    }
+    return size;
+  }
+
+}
@@ -0,0 +1,258 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+
+import parquet.Log;
+import parquet.column.page.PageReadStore;
+import parquet.hadoop.api.ReadSupport;
+import parquet.hadoop.api.ReadSupport.ReadContext;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.FileMetaData;
+import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.io.ColumnIOFactory;
+import parquet.io.MessageColumnIO;
+import parquet.io.ParquetDecodingException;
+import parquet.io.RecordReader;
+import parquet.io.api.RecordMaterializer;
+import parquet.schema.MessageType;
+
+/**
+ * Reads records from a Parquet file, assembling several row groups concurrently on a pool of threads.
+ *
+ * Each row group is read and assembled by a single worker with its own materializer.
+ * The workers share one {@link ParquetFileReader} which uses positional reads.
+ * The records are returned in file order or, if not ordered, in the order the row groups complete.
+ * At most 2 row groups per thread are held in memory at a time.
+ * The records materialized by the read support must not be reused from one record to the next.
+ *
+ * @param <T> type of the materialized records
+ */
+public class ParallelParquetReader<T> implements Closeable {
+  private static final Log LOG = Log.getLog(ParallelParquetReader.class);
+
+  private final Configuration configuration;
+  private final Path file;
+  private final ReadSupport<T> readSupport;
+  private final Map<String, String> extraMetadata;
+  private final MessageType fileSchema;
+  private final ReadContext readContext;
+  private final List<BlockMetaData> blocks;
+  private final boolean ordered;
+  private final ParquetFileReader reader;
+  private final int maxInFlight;
+
+  private final ExecutorService executor;
+  // only used when not ordered
+  private final CompletionService<List<T>> completionService;
+  // in file order
+  private final LinkedList<Future<List<T>>> inFlight = new LinkedList<Future<List<T>>>();
+
+  private int submitted = 0;
+  private int pending = 0;
+  private Iterator<T> current = Collections.<T>emptyList().iterator();
+  // once a row group fails the following ones are not returned
+  private IOException failure;
+
+  /**
+   * reads the records in file order
+   * @param configuration the configuration to access the file system
+   * @param file the file to read
+   * @param readSupport to materialize the records
+   * @param threads the number of row groups assembled concurrently
+   * @throws IOException if the footer can not be read
+   */
+  public ParallelParquetReader(Configuration configuration, Path file, ReadSupport<T> readSupport, int threads) throws IOException {
+    this(configuration, file, readSupport, threads, true);
+  }
+
+  /**
+   * @param configuration the configuration to access the file system
+   * @param file the file to read
+   * @param readSupport to materialize the records
+   * @param threads the number of row groups assembled concurrently
+   * @param ordered if false the records of a row group are returned as soon as it is assembled
+   * @throws IOException if the footer can not be read
+   */
+  public ParallelParquetReader(Configuration configuration, Path file, ReadSupport<T> readSupport, int threads, boolean ordered) throws IOException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("thread count must be at least 1: " + threads);
+    }
+    this.configuration = configuration;
+    this.file = file;
+    this.readSupport = readSupport;
+    this.ordered = ordered;
+    this.maxInFlight = 2 * threads;
+    ParquetMetadata footer = ParquetFileReader.readFooter(configuration, file);
+    FileMetaData fileMetaData = footer.getFileMetaData();
+    this.fileSchema = fileMetaData.getSchema();
+    this.extraMetadata = fileMetaData.getKeyValueMetaData();
+    this.readContext = readSupport.init(configuration, extraMetadata, fileSchema);
+    this.blocks = footer.getBlocks();
+    this.reader = new ParquetFileReader(configuration, file, blocks, readContext.getRequestedSchema().getColumns());
+    final String threadName = "parquet-reader-" + file.getName() + "-";
+    this.executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger();
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread t = new Thread(r, threadName + count.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+      }
+    });
+    // the completion queue holds on to the results until taken: only use it when taking results from it
+    this.completionService = ordered ? null : new ExecutorCompletionService<List<T>>(executor);
+    if (Log.INFO) LOG.info("reading " + blocks.size() + " row groups of " + file + " with " + threads + " threads");
+    fill();
+  }
+
+  private void fill() {
+    while (pending < maxInFlight && submitted < blocks.size()) {
+      RowGroupAssembler assembler = new RowGroupAssembler(submitted);
+      inFlight.add(ordered ? executor.submit(assembler) : completionService.submit(assembler));
+      ++ submitted;
+      ++ pending;
+    }
+  }
+
+  /**
+   * @return the next record or null if there are no more records
+   * @throws IOException if a row group could not be read, then on every following call
+   */
+  public T read() throws IOException {
+    if (failure != null) {
+      throw new IOException("a previous row group of " + file + " could not be read", failure);
+    }
+    while (!current.hasNext()) {
+      if (pending == 0) {
+        return null;
+      }
+      try {
+        current = nextRowGroup().iterator();
+      } catch (IOException e) {
+        failure = e;
+        throw e;
+      }
+    }
+    return current.next();
+  }
+
+  /**
+   * @return the number of row groups submitted and not returned yet
+   */
+  int getRowGroupsInFlight() {
+    return inFlight.size();
+  }
+
+  private List<T> nextRowGroup() throws IOException {
+    try {
+      Future<List<T>> next;
+      if (ordered) {
+        next = inFlight.removeFirst();
+      } else {
+        next = completionService.take();
+        inFlight.remove(next);
+      }
+      List<T> records = next.get();
+      -- pending;
+      fill();
+      return records;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("interrupted while waiting for the next row group", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException)cause;
+      }
+      throw new IOException("could not read row group of " + file, cause);
+    }
+  }
+
+  /**
+   * stops assembling row groups
+   */
+  @Override
+  public void close() throws IOException {
+    for (Future<List<T>> future : inFlight) {
+      future.cancel(false);
+    }
+    inFlight.clear();
+    pending = 0;
+    current = Collections.<T>emptyList().iterator();
+    executor.shutdown();
+    try {
+      // the file can not be closed while a row group is being read
+      while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+        if (Log.INFO) LOG.info("waiting for the row groups being assembled");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    reader.close();
+  }
+
+  /**
+   * reads one row group and assembles all its records
+   */
+  private final class RowGroupAssembler implements Callable<List<T>> {
+    private final int index;
+
+    RowGroupAssembler(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public List<T> call() throws IOException {
+      // the reader is shared but each worker has its own materializer and record reader
+      PageReadStore pages = reader.readRowGroup(index);
+      MessageColumnIO columnIO = new ColumnIOFactory().getColumnIO(readContext.getRequestedSchema(), fileSchema);
+      RecordMaterializer<T> materializer = readSupport.prepareForRead(configuration, extraMetadata, fileSchema, readContext);
+      RecordReader<T> recordReader = columnIO.getRecordReader(pages, materializer);
+      long rowCount = pages.getRowCount();
+      List<T> records = new ArrayList<T>((int)rowCount);
+      for (long i = 0; i < rowCount; i++) {
+        try {
+          records.add(recordReader.read());
+        } catch (RuntimeException e) {
+          throw new ParquetDecodingException("Can not read value at " + i + " in row group " + index + " of " + file, e);
+        }
+      }
+      return records;
+    }
+  }
+}
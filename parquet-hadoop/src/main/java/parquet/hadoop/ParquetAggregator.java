@@ -0,0 +1,261 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+
+import parquet.column.ColumnDescriptor;
+import parquet.column.Dictionary;
+import parquet.column.impl.ColumnReadStoreImpl;
+import parquet.column.impl.ColumnReaderImpl;
+import parquet.column.page.PageReadStore;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.io.api.Binary;
+import parquet.io.api.Converter;
+import parquet.io.api.GroupConverter;
+import parquet.io.api.PrimitiveConverter;
+import parquet.schema.MessageType;
+
+/**
+ * Computes aggregates over a Parquet file without assembling records.
+ *
+ * The record count comes from the footer alone.
+ * Column aggregates read only the pages of the aggregated column.
+ * Values of dictionary encoded pages are counted per dictionary id and each distinct value is decoded once.
+ *
+ */
+public class ParquetAggregator {
+
+  private final Configuration configuration;
+  private final Path file;
+  private final ParquetMetadata footer;
+
+  /**
+   * @param configuration the configuration to access the file
+   * @param file the file to aggregate
+   * @throws IOException if the footer can not be read
+   */
+  public ParquetAggregator(Configuration configuration, Path file) throws IOException {
+    this(configuration, file, ParquetFileReader.readFooter(configuration, file));
+  }
+
+  /**
+   * @param configuration the configuration to access the file
+   * @param file the file to aggregate
+   * @param footer the footer of the file
+   */
+  public ParquetAggregator(Configuration configuration, Path file, ParquetMetadata footer) {
+    this.configuration = configuration;
+    this.file = file;
+    this.footer = footer;
+  }
+
+  /**
+   * @return the number of records in the file
+   */
+  public long count() {
+    long count = 0;
+    for (BlockMetaData block : footer.getBlocks()) {
+      count += block.getRowCount();
+    }
+    return count;
+  }
+
+  /**
+   * scans the given column
+   * @param path the path of the column in the schema of the file
+   * @return the aggregates of the column
+   * @throws IOException if the column can not be read
+   */
+  public ColumnAggregate aggregate(String... path) throws IOException {
+    MessageType schema = footer.getFileMetaData().getSchema();
+    ColumnDescriptor column = schema.getColumnDescription(path);
+    switch (column.getType()) {
+    case INT96:
+    case FIXED_LEN_BYTE_ARRAY:
+      throw new UnsupportedOperationException("can not aggregate " + column);
+    default:
+      break;
+    }
+    ColumnAggregate aggregate = new ColumnAggregate(column);
+    AggregatingConverter converter = new AggregatingConverter(column, aggregate);
+    int maxDefinitionLevel = column.getMaxDefinitionLevel();
+    List<BlockMetaData> blocks = footer.getBlocks();
+    ParquetFileReader reader = new ParquetFileReader(configuration, file, blocks, Arrays.asList(column));
+    try {
+      ColumnReadStoreImpl columnReadStore = null;
+      ColumnReaderImpl columnReader = null;
+      PageReadStore pages;
+      while ((pages = reader.readNextRowGroup()) != null) {
+        if (columnReadStore == null) {
+          columnReadStore = new ColumnReadStoreImpl(pages, new PathConverter(path.length, converter), schema);
+          columnReader = (ColumnReaderImpl)columnReadStore.getColumnReader(column);
+        } else {
+          columnReadStore.setPageReadStore(pages);
+        }
+        long nulls = 0;
+        while (!columnReader.isFullyConsumed()) {
+          int nullPage = columnReader.skipNullPage();
+          if (nullPage > 0) {
+            // the pages holding only nulls are counted without walking their values
+            nulls += nullPage;
+          } else if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+            columnReader.writeCurrentValueToConverter();
+          } else {
+            ++ nulls;
+          }
+          columnReader.consume();
+        }
+        aggregate.addNulls(nulls);
+      }
+      converter.aggregateDictionaryValues();
+    } finally {
+      reader.close();
+    }
+    return aggregate;
+  }
+
+  /**
+   * routes the path of the column to the aggregating converter
+   */
+  private static final class PathConverter extends GroupConverter {
+    private final int depth;
+    private final AggregatingConverter leaf;
+
+    PathConverter(int depth, AggregatingConverter leaf) {
+      this.depth = depth;
+      this.leaf = leaf;
+    }
+
+    @Override
+    public Converter getConverter(int fieldIndex) {
+      return depth == 1 ? leaf : new PathConverter(depth - 1, leaf);
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void end() {
+    }
+  }
+
+  /**
+   * adds the values to the aggregate. Dictionary ids are counted and decoded once
+   */
+  private static final class AggregatingConverter extends PrimitiveConverter {
+    private final ColumnDescriptor column;
+    private final ColumnAggregate aggregate;
+    private Dictionary dictionary;
+    private long[] dictionaryIdCounts;
+
+    AggregatingConverter(ColumnDescriptor column, ColumnAggregate aggregate) {
+      this.column = column;
+      this.aggregate = aggregate;
+    }
+
+    @Override
+    public boolean hasDictionarySupport() {
+      return true;
+    }
+
+    @Override
+    public void setDictionary(Dictionary dictionary) {
+      // each row group has its own dictionary
+      aggregateDictionaryValues();
+      this.dictionary = dictionary;
+      this.dictionaryIdCounts = new long[dictionary.getMaxId() + 1];
+    }
+
+    @Override
+    public void addValueFromDictionary(int dictionaryId) {
+      ++ dictionaryIdCounts[dictionaryId];
+    }
+
+    void aggregateDictionaryValues() {
+      if (dictionary == null) {
+        return;
+      }
+      for (int id = 0; id < dictionaryIdCounts.length; id++) {
+        long count = dictionaryIdCounts[id];
+        if (count == 0) {
+          continue;
+        }
+        switch (column.getType()) {
+        case INT32:
+          aggregate.add(dictionary.decodeToInt(id), count);
+          break;
+        case INT64:
+          aggregate.add(dictionary.decodeToLong(id), count);
+          break;
+        case BOOLEAN:
+          aggregate.add(dictionary.decodeToBoolean(id) ? 1 : 0, count);
+          break;
+        case FLOAT:
+          aggregate.add((double)dictionary.decodeToFloat(id), count);
+          break;
+        case DOUBLE:
+          aggregate.add(dictionary.decodeToDouble(id), count);
+          break;
+        case BINARY:
+          aggregate.add(dictionary.decodeToBinary(id), count);
+          break;
+        default:
+          throw new UnsupportedOperationException("can not aggregate " + column);
+        }
+      }
+      dictionary = null;
+      dictionaryIdCounts = null;
+    }
+
+    @Override
+    public void addInt(int value) {
+      aggregate.add((long)value, 1);
+    }
+
+    @Override
+    public void addLong(long value) {
+      aggregate.add(value, 1);
+    }
+
+    @Override
+    public void addBoolean(boolean value) {
+      aggregate.add(value ? 1l : 0l, 1);
+    }
+
+    @Override
+    public void addFloat(float value) {
+      aggregate.add((double)value, 1);
+    }
+
+    @Override
+    public void addDouble(double value) {
+      aggregate.add(value, 1);
+    }
+
+    @Override
+    public void addBinary(Binary value) {
+      aggregate.add(value, 1);
+    }
+  }
+}
@@ -21,10 +21,20 @@ import static parquet.format.Util.readPageHeader;
 import static parquet.hadoop.ParquetFileWriter.MAGIC;
 import static parquet.hadoop.ParquetFileWriter.PARQUET_METADATA_FILE;
 
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -32,15 +42,21 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.mapred.Utils;
 
@@ -52,16 +68,22 @@ import parquet.column.page.Page;
 import parquet.column.page.PageReadStore;
 import parquet.format.PageHeader;
 import parquet.format.converter.ParquetMetadataConverter;
+import parquet.format.converter.ParquetMetadataConverter.MetadataFilter;
 import parquet.hadoop.CodecFactory.BytesDecompressor;
 import parquet.hadoop.ColumnChunkPageReadStore.ColumnChunkPageReader;
 import parquet.hadoop.metadata.BlockMetaData;
 import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.ColumnPath;
 import parquet.hadoop.metadata.ParquetMetadata;
 import parquet.io.ParquetDecodingException;
 
 /**
  * Reads a Parquet file
  *
+ * The file is accessed with positional reads only so that {@link #readRowGroup(int)}
+ * can be called by several threads sharing the same reader.
+ * {@link #readNextRowGroup()} keeps track of the current row group and is not thread safe.
+ *
  * @author Julien Le Dem
  *
  */
@@ -69,17 +91,38 @@ public class ParquetFileReader implements Closeable {
 
   private static final Log LOG = Log.getLog(ParquetFileReader.class);
 
+  // the minimum read past the end of a column chunk, not to read the missing bytes one at a time
+  private static final int MIN_READ_PAST_CHUNK = 64 * 1024;
+
   private static ParquetMetadataConverter parquetMetadataConverter = new ParquetMetadataConverter();
 
+  private static volatile Executor footerReadExecutor;
+
+  // shared by all the readers in the process, created by the first one enabling it
+  private static FooterCache footerCache;
+
+  /**
+   * for files provided, check if there's a summary file.
+   * If a summary file is found it is used otherwise the file footer is used.
+   * @param configuration the hadoop conf to connect to the file system;
+   * @param partFiles the part files to read
+   * @return the footers for those files using the summary file if possible.
+   * @throws IOException
+   */
+  public static List<Footer> readAllFootersInParallelUsingSummaryFiles(Configuration configuration, List<FileStatus> partFiles) throws IOException {
+    return readAllFootersInParallelUsingSummaryFiles(configuration, partFiles, MetadataFilter.NO_FILTER);
+  }
+
   /**
    * for files provided, check if there's a summary file.
    * If a summary file is found it is used otherwise the file footer is used.
    * @param configuration the hadoop conf to connect to the file system;
    * @param partFiles the part files to read
+   * @param filter the parts of the footers to decode
    * @return the footers for those files using the summary file if possible.
    * @throws IOException
    */
-  public static List<Footer> readAllFootersInParallelUsingSummaryFiles(final Configuration configuration, List<FileStatus> partFiles) throws IOException {
+  public static List<Footer> readAllFootersInParallelUsingSummaryFiles(final Configuration configuration, List<FileStatus> partFiles, MetadataFilter filter) throws IOException {
 
     // figure out list of all parents to part files
     Set<Path> parents = new HashSet<Path>();
@@ -94,7 +137,7 @@ public class ParquetFileReader implements Closeable {
       Path summaryFile = new Path(path, PARQUET_METADATA_FILE);
       if (fileSystem.exists(summaryFile)) {
         if (Log.INFO) LOG.info("reading summary file: " + summaryFile);
-        List<Footer> footers = readSummaryFile(configuration, fileSystem.getFileStatus(summaryFile));
+        List<Footer> footers = readSummaryFile(configuration, fileSystem.getFileStatus(summaryFile), filter);
         for (Footer footer : footers) {
           // the folder may have been moved
           footer = new Footer(new Path(path, footer.getFile().getName()), footer.getParquetMetadata());
@@ -118,52 +161,144 @@ public class ParquetFileReader implements Closeable {
     if (toRead.size() > 0) {
       // read the footers of the files that did not have a summary file
       if (Log.INFO) LOG.info("reading another " + toRead.size() + " footers");
-      result.addAll(readAllFootersInParallel(configuration, toRead));
+      result.addAll(readAllFootersInParallel(configuration, toRead, filter));
     }
 
     return result;
   }
 
-  public static List<Footer> readAllFootersInParallel(final Configuration configuration, List<FileStatus> partFiles) throws IOException {
-    ExecutorService threadPool = Executors.newFixedThreadPool(5);
+  public static List<Footer> readAllFootersInParallel(Configuration configuration, List<FileStatus> partFiles) throws IOException {
+    return readAllFootersInParallel(configuration, partFiles, MetadataFilter.NO_FILTER);
+  }
+
+  /**
+   * reads the footers of the files provided with a thread pool
+   * @param configuration the hadoop conf to connect to the file system;
+   * @param partFiles the part files to read
+   * @param filter the parts of the footers to decode
+   * @return the footers for those files
+   * @throws IOException
+   */
+  public static List<Footer> readAllFootersInParallel(Configuration configuration, List<FileStatus> partFiles, MetadataFilter filter) throws IOException {
+    int parallelism = getFooterReadParallelism(configuration, partFiles);
+    Footer[] result = new Footer[partFiles.size()];
+    if (parallelism <= 1) {
+      for (int i = 0; i < result.length; i++) {
+        result[i] = new FooterReader(configuration, partFiles.get(i), filter, i).call().footer;
+      }
+      return Arrays.asList(result);
+    }
+    if (Log.DEBUG) LOG.debug("reading " + partFiles.size() + " footers with " + parallelism + " threads");
+    CompletionService<IndexedFooter> completionService = new ExecutorCompletionService<IndexedFooter>(getFooterReadExecutor());
+    List<Future<IndexedFooter>> pending = new ArrayList<Future<IndexedFooter>>(partFiles.size());
     try {
-      List<Future<Footer>> footers = new ArrayList<Future<Footer>>();
-      for (final FileStatus currentFile : partFiles) {
-        footers.add(threadPool.submit(new Callable<Footer>() {
-          @Override
-          public Footer call() throws Exception {
-            try {
-              FileSystem fs = currentFile.getPath().getFileSystem(configuration);
-              return readFooter(fs, currentFile);
-            } catch (IOException e) {
-              throw new IOException("Could not read footer for file " + currentFile, e);
-            }
-          }
-
-          private Footer readFooter(final FileSystem fs,
-              final FileStatus currentFile) throws IOException {
-            ParquetMetadata parquetMetadata = ParquetFileReader.readFooter(configuration, currentFile);
-            return new Footer(currentFile.getPath(), parquetMetadata);
-          }
-        }));
+      int submitted = 0;
+      for (; submitted < parallelism; submitted++) {
+        pending.add(completionService.submit(new FooterReader(configuration, partFiles.get(submitted), filter, submitted)));
       }
-      List<Footer> result = new ArrayList<Footer>(footers.size());
-      for (Future<Footer> futureFooter : footers) {
-        try {
-          result.add(futureFooter.get());
-        } catch (InterruptedException e) {
-          Thread.interrupted();
-          throw new RuntimeException("The thread was interrupted", e);
-        } catch (ExecutionException e) {
-          throw new IOException("Could not read footer: " + e.getMessage(), e.getCause());
+      // consume the footers as they complete and keep parallelism reads in flight
+      for (int completed = 0; completed < result.length; completed++) {
+        IndexedFooter footer = completionService.take().get();
+        result[footer.index] = footer.footer;
+        if (submitted < result.length) {
+          pending.add(completionService.submit(new FooterReader(configuration, partFiles.get(submitted), filter, submitted)));
+          ++submitted;
         }
       }
-      return result;
+      return Arrays.asList(result);
+    } catch (InterruptedException e) {
+      Thread.interrupted();
+      throw new RuntimeException("The thread was interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IOException("Could not read footer: " + e.getMessage(), e.getCause());
     } finally {
-      threadPool.shutdownNow();
+      for (Future<IndexedFooter> future : pending) {
+        future.cancel(true);
+      }
     }
   }
 
+  private static final class IndexedFooter {
+    private final int index;
+    private final Footer footer;
+
+    IndexedFooter(int index, Footer footer) {
+      this.index = index;
+      this.footer = footer;
+    }
+  }
+
+  private static final class FooterReader implements Callable<IndexedFooter> {
+    private final Configuration configuration;
+    private final FileStatus currentFile;
+    private final MetadataFilter filter;
+    private final int index;
+
+    FooterReader(Configuration configuration, FileStatus currentFile, MetadataFilter filter, int index) {
+      this.configuration = configuration;
+      this.currentFile = currentFile;
+      this.filter = filter;
+      this.index = index;
+    }
+
+    @Override
+    public IndexedFooter call() throws IOException {
+      try {
+        ParquetMetadata parquetMetadata = ParquetFileReader.readFooter(configuration, currentFile, filter);
+        return new IndexedFooter(index, new Footer(currentFile.getPath(), parquetMetadata));
+      } catch (IOException e) {
+        throw new IOException("Could not read footer for file " + currentFile, e);
+      }
+    }
+  }
+
+  /**
+   * The number of footers read concurrently is the number of files
+   * bounded by the setting for the file system (ex: parquet.footer.read.threads.hdfs) if any
+   * or parquet.footer.read.threads otherwise
+   * @param configuration the configuration
+   * @param partFiles the files to read the footers of
+   * @return the number of footers to read concurrently
+   * @throws IOException if the file system can not be determined
+   */
+  static int getFooterReadParallelism(Configuration configuration, List<FileStatus> partFiles) throws IOException {
+    if (partFiles.size() <= 1) {
+      return partFiles.size();
+    }
+    String scheme = partFiles.get(0).getPath().getFileSystem(configuration).getUri().getScheme();
+    int maxThreads = configuration.getInt(
+        ParquetInputFormat.FOOTER_READ_THREADS + "." + scheme,
+        ParquetInputFormat.getFooterReadThreads(configuration));
+    return Math.max(1, Math.min(maxThreads, partFiles.size()));
+  }
+
+  /**
+   * Replaces the executor used to read footers in parallel.
+   * The number of footers read at once is still bounded by the configuration.
+   * @param executor the executor to use or null to use the default one
+   */
+  public static void setFooterReadExecutor(Executor executor) {
+    footerReadExecutor = executor;
+  }
+
+  private static Executor getFooterReadExecutor() {
+    Executor executor = footerReadExecutor;
+    return executor == null ? DefaultFooterReadExecutor.EXECUTOR : executor;
+  }
+
+  // shared threads, created on demand and released when idle
+  private static final class DefaultFooterReadExecutor {
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger();
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread t = new Thread(r, "parquet-footer-reader-" + count.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+      }
+    });
+  }
+
   public static List<Footer> readAllFootersInParallel(Configuration configuration, FileStatus fileStatus) throws IOException {
     final FileSystem fs = fileStatus.getPath().getFileSystem(configuration);
     List<FileStatus> statuses;
@@ -194,8 +329,19 @@ public class ParquetFileReader implements Closeable {
   }
 
   public static List<Footer> readSummaryFile(Configuration configuration, FileStatus summaryStatus) throws IOException {
+    return readSummaryFile(configuration, summaryStatus, MetadataFilter.NO_FILTER);
+  }
+
+  /**
+   * @param configuration the hadoop conf to connect to the file system;
+   * @param summaryStatus the summary file
+   * @param filter the parts of the footers to decode
+   * @return the footers of the files referenced in the summary
+   * @throws IOException
+   */
+  public static List<Footer> readSummaryFile(Configuration configuration, FileStatus summaryStatus, MetadataFilter filter) throws IOException {
     final Path parent = summaryStatus.getPath().getParent();
-    ParquetMetadata mergedFooters = readFooter(configuration, summaryStatus);
+    ParquetMetadata mergedFooters = readFooter(configuration, summaryStatus, filter);
     Map<Path, ParquetMetadata> footers = new HashMap<Path, ParquetMetadata>();
     List<BlockMetaData> blocks = mergedFooters.getBlocks();
     for (BlockMetaData block : blocks) {
@@ -241,40 +387,101 @@ public class ParquetFileReader implements Closeable {
    * @throws IOException if an error occurs while reading the file
    */
   public static final ParquetMetadata readFooter(Configuration configuration, FileStatus file) throws IOException {
+    return readFooter(configuration, file, MetadataFilter.NO_FILTER);
+  }
+
+  /**
+   * Reads the meta data block in the footer of the file
+   * @param configuration
+   * @param file the parquet File
+   * @param filter the parts of the footer to decode
+   * @return the metadata blocks in the footer
+   * @throws IOException if an error occurs while reading the file
+   */
+  public static final ParquetMetadata readFooter(Configuration configuration, FileStatus file, MetadataFilter filter) throws IOException {
+    long cacheSize = ParquetInputFormat.getFooterCacheSize(configuration);
+    if (cacheSize <= 0) {
+      return readFooterFromFile(configuration, file, filter);
+    }
+    FooterCache cache = getFooterCache(cacheSize);
+    ParquetMetadata footer = cache.get(file, filter);
+    if (footer == null) {
+      footer = readFooterFromFile(configuration, file, filter);
+      cache.put(file, filter, footer);
+    } else if (Log.DEBUG) {
+      LOG.debug("footer of " + file.getPath() + " found in cache");
+    }
+    return footer;
+  }
+
+  /**
+   * the size of the cache is set once, by the first configuration enabling it,
+   * so that concurrent jobs do not resize it for each other
+   * @param cacheSize the size requested by the current configuration
+   * @return the footer cache of the process
+   */
+  private static synchronized FooterCache getFooterCache(long cacheSize) {
+    if (footerCache == null) {
+      if (Log.INFO) LOG.info("caching footers up to " + cacheSize + " bytes");
+      footerCache = new FooterCache(cacheSize);
+    } else if (Log.DEBUG && footerCache.getMaxSize() != cacheSize) {
+      LOG.debug("footer cache already created with a size of " + footerCache.getMaxSize() + " bytes, ignoring " + cacheSize);
+    }
+    return footerCache;
+  }
+
+  private static ParquetMetadata readFooterFromFile(Configuration configuration, FileStatus file, MetadataFilter filter) throws IOException {
     FileSystem fileSystem = file.getPath().getFileSystem(configuration);
-    FSDataInputStream f = fileSystem.open(file.getPath());
     long l = file.getLen();
     if (Log.DEBUG) LOG.debug("File length " + l);
     int FOOTER_LENGTH_SIZE = 4;
     if (l < MAGIC.length + FOOTER_LENGTH_SIZE + MAGIC.length) { // MAGIC + data + footer + footerIndex + MAGIC
       throw new RuntimeException(file.getPath() + " is not a Parquet file (too small)");
     }
-    long footerLengthIndex = l - FOOTER_LENGTH_SIZE - MAGIC.length;
-    if (Log.DEBUG) LOG.debug("reading footer index at " + footerLengthIndex);
+    FSDataInputStream f = fileSystem.open(file.getPath());
+    try {
+      // read the end of the file in one go, it usually contains the whole footer
+      int tailLength = (int)Math.min(l, Math.max(ParquetInputFormat.getFooterReadSize(configuration), FOOTER_LENGTH_SIZE + MAGIC.length));
+      long tailIndex = l - tailLength;
+      byte[] tail = new byte[tailLength];
+      if (Log.DEBUG) LOG.debug("reading " + tailLength + " bytes of footer at " + tailIndex);
+      f.readFully(tailIndex, tail, 0, tailLength);
 
-    f.seek(footerLengthIndex);
-    int footerLength = readIntLittleEndian(f);
-    byte[] magic = new byte[MAGIC.length];
-    f.readFully(magic);
-    if (!Arrays.equals(MAGIC, magic)) {
-      throw new RuntimeException(file.getPath() + " is not a Parquet file. expected magic number at tail " + Arrays.toString(MAGIC) + " but found " + Arrays.toString(magic));
-    }
-    long footerIndex = footerLengthIndex - footerLength;
-    if (Log.DEBUG) LOG.debug("read footer length: " + footerLength + ", footer index: " + footerIndex);
-    if (footerIndex < MAGIC.length || footerIndex >= footerLengthIndex) {
-      throw new RuntimeException("corrupted file: the footer index is not within the file");
+      int footerLengthOffset = tailLength - FOOTER_LENGTH_SIZE - MAGIC.length;
+      int footerLength = readIntLittleEndian(tail, footerLengthOffset);
+      byte[] magic = Arrays.copyOfRange(tail, tailLength - MAGIC.length, tailLength);
+      if (!Arrays.equals(MAGIC, magic)) {
+        throw new RuntimeException(file.getPath() + " is not a Parquet file. expected magic number at tail " + Arrays.toString(MAGIC) + " but found " + Arrays.toString(magic));
+      }
+      long footerLengthIndex = tailIndex + footerLengthOffset;
+      long footerIndex = footerLengthIndex - footerLength;
+      if (Log.DEBUG) LOG.debug("read footer length: " + footerLength + ", footer index: " + footerIndex);
+      if (footerIndex < MAGIC.length || footerIndex >= footerLengthIndex) {
+        throw new RuntimeException("corrupted file: the footer index is not within the file");
+      }
+      if (footerIndex >= tailIndex) {
+        return parquetMetadataConverter.readParquetMetadata(
+            new ByteArrayInputStream(tail, (int)(footerIndex - tailIndex), footerLength), filter);
+      }
+      if (Log.DEBUG) LOG.debug("footer larger than the tail read, reading " + footerLength + " bytes at " + footerIndex);
+      byte[] footer = new byte[footerLength];
+      f.readFully(footerIndex, footer, 0, footerLength);
+      return parquetMetadataConverter.readParquetMetadata(new ByteArrayInputStream(footer), filter);
+    } finally {
+      f.close();
     }
-    f.seek(footerIndex);
-    return parquetMetadataConverter.readParquetMetadata(f);
-
   }
+
   private CodecFactory codecFactory;
 
   private final List<BlockMetaData> blocks;
+  // exactly one of f and channel is set
   private final FSDataInputStream f;
+  private final FileChannel channel;
   private final Path filePath;
+  private final long maxReadGap;
   private int currentBlock = 0;
-  private Map<String, ColumnDescriptor> paths = new HashMap<String, ColumnDescriptor>();
+  private Map<ColumnPath, ColumnDescriptor> paths = new HashMap<ColumnPath, ColumnDescriptor>();
 
   /**
    *
@@ -287,12 +494,28 @@ public class ParquetFileReader implements Closeable {
   public ParquetFileReader(Configuration configuration, Path filePath, List<BlockMetaData> blocks, List<ColumnDescriptor> columns) throws IOException {
     this.filePath = filePath;
     FileSystem fs = filePath.getFileSystem(configuration);
-    this.f = fs.open(filePath);
+    if (ParquetInputFormat.getMemoryMap(configuration) && fs instanceof LocalFileSystem) {
+      File file = ((LocalFileSystem)fs).pathToFile(filePath);
+      if (Log.INFO) LOG.info("memory mapping " + file);
+      this.f = null;
+      this.channel = new RandomAccessFile(file, "r").getChannel();
+    } else {
+      this.f = fs.open(filePath);
+      this.channel = null;
+    }
     this.blocks = blocks;
     for (ColumnDescriptor col : columns) {
-      paths.put(Arrays.toString(col.getPath()), col);
+      paths.put(ColumnPath.get(col.getPath()), col);
     }
     this.codecFactory = new CodecFactory(configuration);
+    this.maxReadGap = ParquetInputFormat.getMaxReadGap(configuration);
+  }
+
+  /**
+   * @return the row groups this reader reads
+   */
+  public List<BlockMetaData> getRowGroups() {
+    return blocks;
   }
 
   /**
@@ -304,91 +527,342 @@ public class ParquetFileReader implements Closeable {
     if (currentBlock == blocks.size()) {
       return null;
     }
-    BlockMetaData block = blocks.get(currentBlock);
+    PageReadStore rowGroup = readRowGroup(currentBlock);
+    ++currentBlock;
+    return rowGroup;
+  }
+
+  /**
+   * Reads all the columns requested from a row group.
+   * All reads are positional: this can be called concurrently by several threads.
+   * It does not change the position used by {@link #readNextRowGroup()}.
+   * @param blockIndex the index of the row group in {@link #getRowGroups()}
+   * @return the PageReadStore which can provide PageReaders for each column.
+   * @throws IOException if an error occurs while reading
+   */
+  public PageReadStore readRowGroup(int blockIndex) throws IOException {
+    BlockMetaData block = blocks.get(blockIndex);
     if (block.getRowCount() == 0) {
       throw new RuntimeException("Illegal row group of 0 rows");
     }
     ColumnChunkPageReadStore columnChunkPageReadStore = new ColumnChunkPageReadStore(block.getRowCount());
+    for (ConsecutiveChunkList consecutiveChunks : planReads(block)) {
+      for (Chunk chunk : consecutiveChunks.readAll()) {
+        columnChunkPageReadStore.addColumn(chunk.descriptor.col, chunk.readAllPages());
+      }
+    }
+    return columnChunkPageReadStore;
+  }
+
+  /**
+   * groups the requested column chunks of a row group into ranges of the file that are read in one go.
+   * Chunks separated by no more than maxReadGap bytes end up in the same range.
+   * @param block the row group
+   * @return the ranges to read in file order
+   */
+  private List<ConsecutiveChunkList> planReads(BlockMetaData block) {
+    List<ChunkDescriptor> requested = new ArrayList<ChunkDescriptor>();
     for (ColumnChunkMetaData mc : block.getColumns()) {
-      String pathKey = Arrays.toString(mc.getPath());
-      ColumnDescriptor columnDescriptor = paths.get(pathKey);
+      ColumnDescriptor columnDescriptor = paths.get(mc.getColumnPath());
       if (columnDescriptor != null) {
-        List<Page> pagesInChunk = new ArrayList<Page>();
-        List<DictionaryPage> dictionaryPagesInChunk = new ArrayList<DictionaryPage>();
-        readColumnChunkPages(columnDescriptor, mc, pagesInChunk, dictionaryPagesInChunk);
-        if (dictionaryPagesInChunk.size() > 1) {
-          throw new ParquetDecodingException("more than one dictionary page: " + dictionaryPagesInChunk);
+        long startingPos = mc.getFirstDataPageOffset();
+        if (mc.getDictionaryPageOffset() > 0 && mc.getDictionaryPageOffset() < startingPos) {
+          // if there's a dictionary and it's before the first data page, start from there
+          startingPos = mc.getDictionaryPageOffset();
         }
-        BytesDecompressor decompressor = codecFactory.getDecompressor(mc.getCodec());
-        ColumnChunkPageReader columnChunkPageReader = new ColumnChunkPageReader(decompressor, pagesInChunk, dictionaryPagesInChunk.size() == 0 ? null : dictionaryPagesInChunk.get(0));
-        columnChunkPageReadStore.addColumn(columnDescriptor, columnChunkPageReader);
+        requested.add(new ChunkDescriptor(columnDescriptor, mc, startingPos, (int)mc.getTotalSize()));
       }
     }
-    ++currentBlock;
-    return columnChunkPageReadStore;
+    Collections.sort(requested, new Comparator<ChunkDescriptor>() {
+      @Override
+      public int compare(ChunkDescriptor c1, ChunkDescriptor c2) {
+        return Long.signum(c1.fileOffset - c2.fileOffset);
+      }
+    });
+    List<ConsecutiveChunkList> result = new ArrayList<ConsecutiveChunkList>();
+    ConsecutiveChunkList current = null;
+    for (ChunkDescriptor chunk : requested) {
+      if (current == null || !current.canAppend(chunk, maxReadGap)) {
+        current = new ConsecutiveChunkList(chunk.fileOffset);
+        result.add(current);
+      }
+      current.addChunk(chunk);
+    }
+    if (DEBUG) LOG.debug(requested.size() + " column chunks in " + result.size() + " reads");
+    return result;
   }
 
   /**
-   * Read all of the pages in a given column chunk.
-   * @return the list of pages
+   * reads a range of the file using a positional read: there is no shared file position.
+   * Local files opened with memory mapping are mapped rather than copied
+   * @param offset where the range starts in the file
+   * @param length the length of the range
+   * @return the content of the range
+   * @throws IOException
    */
-  private void readColumnChunkPages(ColumnDescriptor columnDescriptor, ColumnChunkMetaData metadata, List<Page> pagesInChunk, List<DictionaryPage> dictionaryPagesInChunk)
-      throws IOException {
-    long startingPos = metadata.getFirstDataPageOffset();
-    if (metadata.getDictionaryPageOffset() > 0 && metadata.getDictionaryPageOffset() < startingPos) {
-      // if there's a dictionary and it's before the first data page, start from there
-      startingPos = metadata.getDictionaryPageOffset();
-    }
-    f.seek(startingPos);
-    if (DEBUG) {
-      LOG.debug(f.getPos() + ": start column chunk " + Arrays.toString(metadata.getPath()) +
-        " " + metadata.getType() + " count=" + metadata.getValueCount());
-    }
-    long valuesCountReadSoFar = 0;
-    while (valuesCountReadSoFar < metadata.getValueCount()) {
-      PageHeader pageHeader = readPageHeader(f);
-      switch (pageHeader.type) {
-        case DICTIONARY_PAGE:
-          dictionaryPagesInChunk.add(
-              new DictionaryPage(
-                  BytesInput.copy(BytesInput.from(f, pageHeader.compressed_page_size)),
-                  pageHeader.uncompressed_page_size,
-                  pageHeader.dictionary_page_header.num_values,
-                  parquetMetadataConverter.getEncoding(pageHeader.dictionary_page_header.encoding)
-                  ));
-          break;
-        case DATA_PAGE:
-          pagesInChunk.add(
-              new Page(
-                  BytesInput.copy(BytesInput.from(f, pageHeader.compressed_page_size)),
-                  pageHeader.data_page_header.num_values,
-                  pageHeader.uncompressed_page_size,
-                  parquetMetadataConverter.getEncoding(pageHeader.data_page_header.repetition_level_encoding),
-                  parquetMetadataConverter.getEncoding(pageHeader.data_page_header.definition_level_encoding),
-                  parquetMetadataConverter.getEncoding(pageHeader.data_page_header.encoding)
-                  ));
-          valuesCountReadSoFar += pageHeader.data_page_header.num_values;
-          break;
-        default:
-          if (DEBUG) LOG.debug("skipping page of type " + pageHeader.type + " of size " + pageHeader.compressed_page_size);
-          f.skip(pageHeader.compressed_page_size);
-          break;
+  private ByteBuffer readRange(long offset, int length) throws IOException {
+    if (channel != null) {
+      if (offset + length > channel.size()) {
+        throw new IOException("can not read " + length + " bytes at " + offset + " past the end of " + filePath);
       }
+      return channel.map(MapMode.READ_ONLY, offset, length);
     }
-    if (valuesCountReadSoFar != metadata.getValueCount()) {
-      // Would be nice to have a CorruptParquetFileException or something as a subclass?
-      throw new IOException(
-          "Expected " + metadata.getValueCount() + " values in column chunk at " +
-          filePath + " offset " + metadata.getFirstDataPageOffset() +
-          " but got " + valuesCountReadSoFar + " values instead over " + pagesInChunk.size()
-          + " pages ending at file offset " + f.getPos());
+    byte[] bytes = new byte[length];
+    f.readFully(offset, bytes);
+    return ByteBuffer.wrap(bytes);
+  }
+
+  /**
+   * reads at least minLength bytes and up to maxLength bytes of the file with a positional read.
+   * Fewer than maxLength bytes are read when the end of the file is reached first
+   * @param offset where the range starts in the file
+   * @param minLength the number of bytes needed
+   * @param maxLength the number of bytes to read if the file is long enough
+   * @return the content of the range
+   * @throws IOException if the file ends before minLength bytes
+   */
+  private ByteBuffer readRange(long offset, int minLength, int maxLength) throws IOException {
+    if (channel != null) {
+      long length = Math.max(minLength, Math.min(maxLength, channel.size() - offset));
+      return readRange(offset, (int)length);
+    }
+    byte[] bytes = new byte[maxLength];
+    int read = 0;
+    while (read < maxLength) {
+      int n = f.read(offset + read, bytes, read, maxLength - read);
+      if (n < 0) {
+        break;
+      }
+      read += n;
     }
+    if (read < minLength) {
+      throw new EOFException("can not read " + minLength + " bytes at " + offset + " past the end of " + filePath);
+    }
+    return ByteBuffer.wrap(bytes, 0, read);
   }
 
   @Override
   public void close() throws IOException {
-    f.close();
+    if (channel != null) {
+      channel.close();
+    } else {
+      f.close();
+    }
     this.codecFactory.release();
   }
 
+  /**
+   * The location of a column chunk in the file
+   */
+  private static class ChunkDescriptor {
+
+    private final ColumnDescriptor col;
+    private final ColumnChunkMetaData metadata;
+    private final long fileOffset;
+    private final int size;
+
+    /**
+     * @param col column this chunk is part of
+     * @param metadata metadata for the column
+     * @param fileOffset offset in the file where this chunk starts
+     * @param size size of the chunk
+     */
+    private ChunkDescriptor(
+        ColumnDescriptor col,
+        ColumnChunkMetaData metadata,
+        long fileOffset,
+        int size) {
+      this.col = col;
+      this.metadata = metadata;
+      this.fileOffset = fileOffset;
+      this.size = size;
+    }
+  }
+
+  /**
+   * Column chunks that are close to each other in the file, read with a single IO
+   */
+  private class ConsecutiveChunkList {
+
+    private final long offset;
+    private int length;
+    private final List<ChunkDescriptor> chunks = new ArrayList<ChunkDescriptor>();
+
+    /**
+     * @param offset where the first chunk starts
+     */
+    ConsecutiveChunkList(long offset) {
+      this.offset = offset;
+    }
+
+    /**
+     * @param chunk a chunk starting after the ones already added
+     * @param maxGap the maximum number of bytes to read in between chunks
+     * @return true if the chunk can be read as part of this range
+     */
+    public boolean canAppend(ChunkDescriptor chunk, long maxGap) {
+      long end = offset + length;
+      long newLength = chunk.fileOffset + chunk.size - offset;
+      return chunk.fileOffset - end <= maxGap && newLength <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * adds a chunk to the list.
+     * It must be consecutive to the previous chunk (within the allowed gap)
+     * @param descriptor
+     */
+    public void addChunk(ChunkDescriptor descriptor) {
+      chunks.add(descriptor);
+      length = (int)(Math.max(offset + length, descriptor.fileOffset + descriptor.size) - offset);
+    }
+
+    /**
+     * @return the chunks read from the file, each pointing to its part of the buffer
+     * @throws IOException
+     */
+    public List<Chunk> readAll() throws IOException {
+      List<Chunk> result = new ArrayList<Chunk>(chunks.size());
+      ByteBuffer chunksBytes = readRange(offset, length);
+      for (ChunkDescriptor descriptor : chunks) {
+        int chunkOffset = (int)(descriptor.fileOffset - offset);
+        // the chunk may read past its declared size up to the end of what was read
+        ByteBuffer chunkBytes = chunksBytes.duplicate();
+        chunkBytes.position(chunkOffset);
+        result.add(new Chunk(descriptor, chunkBytes.slice(), descriptor.fileOffset));
+      }
+      return result;
+    }
+
+  }
+
+  /**
+   * The data for a column chunk.
+   * Pages are slices of the underlying buffer.
+   */
+  private class Chunk extends InputStream {
+
+    private final ChunkDescriptor descriptor;
+    // the position of the buffer is the current read position
+    private ByteBuffer data;
+    // the position in the file of data[0]
+    private long dataFileOffset;
+
+    /**
+     * @param descriptor descriptor for the chunk
+     * @param data contains the chunk data starting at index 0
+     * @param dataFileOffset the position of data in the file
+     */
+    Chunk(ChunkDescriptor descriptor, ByteBuffer data, long dataFileOffset) {
+      this.descriptor = descriptor;
+      this.data = data;
+      this.dataFileOffset = dataFileOffset;
+    }
+
+    /**
+     * @return the page reader for all the pages in this chunk
+     * @throws IOException if a page can not be read
+     */
+    public ColumnChunkPageReader readAllPages() throws IOException {
+      ColumnChunkMetaData metadata = descriptor.metadata;
+      if (DEBUG) {
+        LOG.debug(getFilePos() + ": start column chunk " + metadata.getColumnPath() +
+          " " + metadata.getType() + " count=" + metadata.getValueCount());
+      }
+      List<Page> pagesInChunk = new ArrayList<Page>();
+      DictionaryPage dictionaryPage = null;
+      long valuesCountReadSoFar = 0;
+      while (valuesCountReadSoFar < metadata.getValueCount()) {
+        PageHeader pageHeader = readPageHeader(this);
+        switch (pageHeader.type) {
+          case DICTIONARY_PAGE:
+            if (dictionaryPage != null) {
+              throw new ParquetDecodingException("more than one dictionary page in column " + descriptor.col);
+            }
+            dictionaryPage =
+                new DictionaryPage(
+                    readAsBytesInput(pageHeader.compressed_page_size),
+                    pageHeader.uncompressed_page_size,
+                    pageHeader.dictionary_page_header.num_values,
+                    parquetMetadataConverter.getEncoding(pageHeader.dictionary_page_header.encoding)
+                    );
+            break;
+          case DATA_PAGE:
+            pagesInChunk.add(
+                new Page(
+                    readAsBytesInput(pageHeader.compressed_page_size),
+                    pageHeader.data_page_header.num_values,
+                    pageHeader.uncompressed_page_size,
+                    parquetMetadataConverter.getEncoding(pageHeader.data_page_header.repetition_level_encoding),
+                    parquetMetadataConverter.getEncoding(pageHeader.data_page_header.definition_level_encoding),
+                    parquetMetadataConverter.getEncoding(pageHeader.data_page_header.encoding)
+                    ));
+            valuesCountReadSoFar += pageHeader.data_page_header.num_values;
+            break;
+          default:
+            if (DEBUG) LOG.debug("skipping page of type " + pageHeader.type + " of size " + pageHeader.compressed_page_size);
+            readAsBytesInput(pageHeader.compressed_page_size);
+            break;
+        }
+      }
+      if (valuesCountReadSoFar != metadata.getValueCount()) {
+        // Would be nice to have a CorruptParquetFileException or something as a subclass?
+        throw new IOException(
+            "Expected " + metadata.getValueCount() + " values in column chunk at " +
+            filePath + " offset " + metadata.getFirstDataPageOffset() +
+            " but got " + valuesCountReadSoFar + " values instead over " + pagesInChunk.size()
+            + " pages ending at file offset " + getFilePos());
+      }
+      BytesDecompressor decompressor = codecFactory.getDecompressor(metadata.getCodec());
+      return new ColumnChunkPageReader(decompressor, pagesInChunk, dictionaryPage);
+    }
+
+    private long getFilePos() {
+      return dataFileOffset + data.position();
+    }
+
+    /**
+     * @param size the size of the page
+     * @return the page, sliced from the buffer
+     * @throws IOException
+     */
+    private BytesInput readAsBytesInput(int size) throws IOException {
+      ensureAvailable(size);
+      ByteBuffer page = data.slice();
+      page.limit(size);
+      data.position(data.position() + size);
+      return BytesInput.from(page);
+    }
+
+    @Override
+    public int read() throws IOException {
+      ensureAvailable(1);
+      return data.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      ensureAvailable(len);
+      data.get(b, off, len);
+      return len;
+    }
+
+    /**
+     * The size of the chunk in the metadata may be smaller than the actual chunk
+     * (older writers did not count the dictionary page header).
+     * In that case the missing bytes are read from the file, with a window large enough
+     * for the following small reads of the page headers not to go back to the file.
+     * @param size the number of bytes needed from the current position
+     * @throws IOException
+     */
+    private void ensureAvailable(int size) throws IOException {
+      int available = data.remaining();
+      if (available < size) {
+        if (DEBUG) LOG.debug("reading " + (size - available) + " bytes past the end of column chunk " + descriptor.col);
+        dataFileOffset = getFilePos();
+        data = readRange(dataFileOffset, size, Math.max(size, MIN_READ_PAST_CHUNK));
+      }
+    }
+
+  }
+
 }
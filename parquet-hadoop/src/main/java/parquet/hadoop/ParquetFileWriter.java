@@ -43,6 +43,7 @@ import parquet.column.page.DictionaryPage;
 import parquet.format.converter.ParquetMetadataConverter;
 import parquet.hadoop.metadata.BlockMetaData;
 import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.ColumnPath;
 import parquet.hadoop.metadata.CompressionCodecName;
 import parquet.hadoop.metadata.FileMetaData;
 import parquet.hadoop.metadata.ParquetMetadata;
@@ -66,7 +67,12 @@ public class ParquetFileWriter {
   private final MessageType schema;
   private final FSDataOutputStream out;
   private BlockMetaData currentBlock;
-  private ColumnChunkMetaData currentColumn;
+  // the column chunk being written
+  private ColumnDescriptor currentColumn;
+  private CompressionCodecName currentCodec;
+  private long currentValueCount;
+  private long currentFirstDataPageOffset;
+  private long currentDictionaryPageOffset;
   private long currentRecordCount;
   private List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
   private long uncompressedLength;
@@ -170,9 +176,11 @@ public class ParquetFileWriter {
     state = state.startColumn();
     if (DEBUG) LOG.debug(out.getPos() + ": start column: " + descriptor + " count=" + valueCount);
     currentEncodings = new HashSet<parquet.column.Encoding>();
-    currentColumn = new ColumnChunkMetaData(descriptor.getPath(), descriptor.getType(), compressionCodecName, new ArrayList<parquet.column.Encoding>());
-    currentColumn.setValueCount(valueCount);
-    currentColumn.setFirstDataPageOffset(out.getPos());
+    currentColumn = descriptor;
+    currentCodec = compressionCodecName;
+    currentValueCount = valueCount;
+    currentFirstDataPageOffset = out.getPos();
+    currentDictionaryPageOffset = 0;
     compressedLength = 0;
     uncompressedLength = 0;
   }
@@ -183,8 +191,9 @@ public class ParquetFileWriter {
    */
   public void writeDictionaryPage(DictionaryPage dictionaryPage) throws IOException {
     state = state.write();
-    if (DEBUG) LOG.debug(out.getPos() + ": write dictionary page: " + dictionaryPage.getDictionarySize() + " values");
-    currentColumn.setDictionaryPageOffset(out.getPos());
+    long beforeHeader = out.getPos();
+    if (DEBUG) LOG.debug(beforeHeader + ": write dictionary page: " + dictionaryPage.getDictionarySize() + " values");
+    currentDictionaryPageOffset = beforeHeader;
     int uncompressedSize = dictionaryPage.getUncompressedSize();
     int compressedPageSize = (int)dictionaryPage.getBytes().size(); // TODO: fix casts
     metadataConverter.writeDictionaryPageHeader(
@@ -193,8 +202,9 @@ public class ParquetFileWriter {
         dictionaryPage.getDictionarySize(),
         dictionaryPage.getEncoding(),
         out);
-    this.uncompressedLength += uncompressedSize;
-    this.compressedLength += compressedPageSize;
+    long headerSize = out.getPos() - beforeHeader;
+    this.uncompressedLength += uncompressedSize + headerSize;
+    this.compressedLength += compressedPageSize + headerSize;
     if (DEBUG) LOG.debug(out.getPos() + ": write dictionary page content " + compressedPageSize);
     dictionaryPage.getBytes().writeAllTo(out);
     currentEncodings.add(dictionaryPage.getEncoding());
@@ -261,11 +271,18 @@ public class ParquetFileWriter {
   public void endColumn() throws IOException {
     state = state.endColumn();
     if (DEBUG) LOG.debug(out.getPos() + ": end column");
-    currentColumn.setTotalUncompressedSize(uncompressedLength);
-    currentColumn.setTotalSize(compressedLength);
-    currentColumn.getEncodings().addAll(currentEncodings);
-    currentBlock.addColumn(currentColumn);
-    if (DEBUG) LOG.info("ended Column chumk: " + currentColumn);
+    ColumnChunkMetaData column = ColumnChunkMetaData.get(
+        ColumnPath.get(currentColumn.getPath()),
+        currentColumn.getType(),
+        currentCodec,
+        currentEncodings,
+        currentFirstDataPageOffset,
+        currentDictionaryPageOffset,
+        currentValueCount,
+        compressedLength,
+        uncompressedLength);
+    currentBlock.addColumn(column);
+    if (DEBUG) LOG.info("ended Column chumk: " + column);
     currentColumn = null;
     this.uncompressedLength = 0;
     this.compressedLength = 0;
@@ -20,9 +20,13 @@ import static parquet.hadoop.ParquetFileWriter.mergeInto;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.BlockLocation;
@@ -38,9 +42,13 @@ import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 
 import parquet.Log;
+import parquet.filter.UnboundRecordFilter;
+import parquet.format.converter.ParquetMetadataConverter.MetadataFilter;
 import parquet.hadoop.api.ReadSupport;
 import parquet.hadoop.api.ReadSupport.ReadContext;
 import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.ColumnPath;
 import parquet.hadoop.metadata.FileMetaData;
 import parquet.hadoop.metadata.ParquetMetadata;
 import parquet.hadoop.util.ContextUtil;
@@ -65,6 +73,78 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
 
   public static final String READ_SUPPORT_CLASS = "parquet.read.support.class";
 
+  /**
+   * class of the {@link UnboundRecordFilter} applied to the records.
+   * The columns of the filter are decoded first and the other columns only for the matching records
+   */
+  public static final String UNBOUND_RECORD_FILTER = "parquet.read.filter";
+
+  /**
+   * number of row groups to read ahead in a background thread while records are assembled.
+   * 0 (the default) reads row groups synchronously
+   */
+  public static final String PREFETCH_DEPTH = "parquet.read.prefetch.depth";
+
+  /**
+   * requested column chunks of a row group separated by at most that many bytes are fetched with a single read.
+   * The default (0) merges only adjacent chunks. A negative value reads each chunk separately
+   */
+  public static final String MAX_READ_GAP = "parquet.read.max.gap";
+
+  /**
+   * set to true to memory map local files instead of copying column chunks to the heap
+   */
+  public static final String MEMORY_MAP = "parquet.read.mmap";
+
+  /**
+   * maximum estimated heap size in bytes of the footers cached by the process.
+   * Cached footers are reused as long as the length and modification time of their file do not change.
+   * The cache is shared by the process and sized by the first configuration enabling it.
+   * 0 (the default) disables the cache
+   */
+  public static final String FOOTER_CACHE_SIZE = "parquet.footer.cache.size";
+
+  public static final long DEFAULT_FOOTER_CACHE_SIZE = 0;
+
+  /**
+   * number of bytes read at the end of a file to get its footer.
+   * Footers that do not fit require a second read
+   */
+  public static final String FOOTER_READ_SIZE = "parquet.footer.read.size";
+
+  public static final int DEFAULT_FOOTER_READ_SIZE = 64 * 1024;
+
+  /**
+   * maximum number of footers read concurrently.
+   * Can be set per file system by appending the scheme (ex: parquet.footer.read.threads.s3n)
+   */
+  public static final String FOOTER_READ_THREADS = "parquet.footer.read.threads";
+
+  /**
+   * schema of the columns whose metadata is decoded from the footers when planning splits.
+   * Unset to decode all of them
+   */
+  public static final String FOOTER_COLUMNS = "parquet.footer.columns";
+
+  /**
+   * comma separated key/value metadata keys decoded from the footers when planning splits.
+   * Unset to decode all of them
+   */
+  public static final String FOOTER_METADATA_KEYS = "parquet.footer.metadata.keys";
+
+  /**
+   * set to true to plan splits from the HDFS blocks of the files without reading their footers.
+   * Each task then reads the footer of its file and the row groups whose midpoint falls in its split
+   */
+  public static final String TASK_SIDE_METADATA = "parquet.task.side.metadata";
+
+  /**
+   * target size in bytes of the requested columns read by a split.
+   * Consecutive row groups are grouped until the size of their projected column chunks reaches it.
+   * The default (0) creates one split per HDFS block
+   */
+  public static final String PROJECTED_SPLIT_SIZE = "parquet.split.projected.size";
+
   public static void setReadSupportClass(Job job,  Class<?> readSupportClass) {
     ContextUtil.getConfiguration(job).set(READ_SUPPORT_CLASS, readSupportClass.getName());
   }
@@ -89,6 +169,140 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
     }
   }
 
+  public static void setUnboundRecordFilter(Job job, Class<? extends UnboundRecordFilter> filterClass) {
+    ContextUtil.getConfiguration(job).set(UNBOUND_RECORD_FILTER, filterClass.getName());
+  }
+
+  /**
+   * @param configuration the job configuration
+   * @return a new instance of the configured filter or null if there is none
+   */
+  public static UnboundRecordFilter getUnboundRecordFilter(Configuration configuration) {
+    final String className = configuration.get(UNBOUND_RECORD_FILTER);
+    if (className == null) {
+      return null;
+    }
+    try {
+      final Class<?> filterClass = Class.forName(className);
+      if (!UnboundRecordFilter.class.isAssignableFrom(filterClass)) {
+        throw new BadConfigurationException("class " + className + " set in job conf at " + UNBOUND_RECORD_FILTER + " is not a subclass of UnboundRecordFilter");
+      }
+      return (UnboundRecordFilter)filterClass.newInstance();
+    } catch (ClassNotFoundException e) {
+      throw new BadConfigurationException("could not instanciate class " + className + " set in job conf at " + UNBOUND_RECORD_FILTER, e);
+    } catch (InstantiationException e) {
+      throw new BadConfigurationException("could not instanciate filter class " + className, e);
+    } catch (IllegalAccessException e) {
+      throw new BadConfigurationException("could not instanciate filter class " + className, e);
+    }
+  }
+
+  public static void setPrefetchDepth(Job job, int depth) {
+    ContextUtil.getConfiguration(job).setInt(PREFETCH_DEPTH, depth);
+  }
+
+  public static int getPrefetchDepth(Configuration configuration) {
+    return configuration.getInt(PREFETCH_DEPTH, 0);
+  }
+
+  public static void setMaxReadGap(Job job, long maxReadGap) {
+    ContextUtil.getConfiguration(job).setLong(MAX_READ_GAP, maxReadGap);
+  }
+
+  public static long getMaxReadGap(Configuration configuration) {
+    return configuration.getLong(MAX_READ_GAP, 0);
+  }
+
+  public static void setMemoryMap(Job job, boolean memoryMap) {
+    ContextUtil.getConfiguration(job).setBoolean(MEMORY_MAP, memoryMap);
+  }
+
+  public static boolean getMemoryMap(Configuration configuration) {
+    return configuration.getBoolean(MEMORY_MAP, false);
+  }
+
+  public static void setFooterCacheSize(Job job, long footerCacheSize) {
+    ContextUtil.getConfiguration(job).setLong(FOOTER_CACHE_SIZE, footerCacheSize);
+  }
+
+  public static long getFooterCacheSize(Configuration configuration) {
+    return configuration.getLong(FOOTER_CACHE_SIZE, DEFAULT_FOOTER_CACHE_SIZE);
+  }
+
+  public static void setFooterReadSize(Job job, int footerReadSize) {
+    ContextUtil.getConfiguration(job).setInt(FOOTER_READ_SIZE, footerReadSize);
+  }
+
+  public static int getFooterReadSize(Configuration configuration) {
+    return configuration.getInt(FOOTER_READ_SIZE, DEFAULT_FOOTER_READ_SIZE);
+  }
+
+  public static void setFooterReadThreads(Job job, int footerReadThreads) {
+    ContextUtil.getConfiguration(job).setInt(FOOTER_READ_THREADS, footerReadThreads);
+  }
+
+  public static int getFooterReadThreads(Configuration configuration) {
+    return configuration.getInt(FOOTER_READ_THREADS, 5);
+  }
+
+  /**
+   * Only the metadata of the projected columns is decoded from the footers when planning splits.
+   * It must contain the requested schema
+   * @param job the job
+   * @param projection the columns to decode
+   */
+  public static void setFooterColumns(Job job, MessageType projection) {
+    ContextUtil.getConfiguration(job).set(FOOTER_COLUMNS, projection.toString());
+  }
+
+  /**
+   * Only the key/value metadata provided is decoded from the footers when planning splits.
+   * It must contain the keys the ReadSupport needs
+   * @param job the job
+   * @param keys the keys to decode
+   */
+  public static void setFooterMetadataKeys(Job job, String... keys) {
+    ContextUtil.getConfiguration(job).setStrings(FOOTER_METADATA_KEYS, keys);
+  }
+
+  /**
+   * @param configuration the job configuration
+   * @return the parts of the footers to decode when planning splits
+   */
+  public static MetadataFilter getFooterFilter(Configuration configuration) {
+    String columns = configuration.get(FOOTER_COLUMNS);
+    String[] keys = configuration.getStrings(FOOTER_METADATA_KEYS);
+    if (columns == null && keys == null) {
+      return MetadataFilter.NO_FILTER;
+    }
+    return new MetadataFilter(
+        columns == null ? null : MessageTypeParser.parseMessageType(columns).getPaths(),
+        keys == null ? null : Arrays.asList(keys));
+  }
+
+  public static void setTaskSideMetadata(Job job, boolean taskSideMetadata) {
+    ContextUtil.getConfiguration(job).setBoolean(TASK_SIDE_METADATA, taskSideMetadata);
+  }
+
+  public static boolean isTaskSideMetadata(Configuration configuration) {
+    return configuration.getBoolean(TASK_SIDE_METADATA, false);
+  }
+
+  public static void setProjectedSplitSize(Job job, long projectedSplitSize) {
+    ContextUtil.getConfiguration(job).setLong(PROJECTED_SPLIT_SIZE, projectedSplitSize);
+  }
+
+  public static long getProjectedSplitSize(Configuration configuration) {
+    return configuration.getLong(PROJECTED_SPLIT_SIZE, 0);
+  }
+
+  private static final Comparator<BlockLocation> HDFS_BLOCK_COMPARATOR = new Comparator<BlockLocation>() {
+    @Override
+    public int compare(BlockLocation b1, BlockLocation b2) {
+      return Long.signum(b1.getOffset() - b2.getOffset());
+    }
+  };
+
   private Class<?> readSupportClass;
 
   private List<Footer> footers;
@@ -114,7 +328,8 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
   public RecordReader<Void, T> createRecordReader(
       InputSplit inputSplit,
       TaskAttemptContext taskAttemptContext) throws IOException, InterruptedException {
-    return new ParquetRecordReader<T>(getReadSupport(ContextUtil.getConfiguration(taskAttemptContext)));
+    Configuration configuration = ContextUtil.getConfiguration(taskAttemptContext);
+    return new ParquetRecordReader<T>(getReadSupport(configuration), getUnboundRecordFilter(configuration));
   }
 
   public ReadSupport<T> getReadSupport(Configuration configuration){
@@ -150,6 +365,7 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
    * @param fileMetaData file level meta data
    * @param readSupportClass the class used to materialize records
    * @param requestedSchema the schema requested by the user
+   * @param projectedColumns the paths of the columns in the requested schema
    * @param readSupportMetadata the metadata provided by the readSupport implementation in init
    * @return the splits (one per HDFS block)
    * @throws IOException If hosts can't be retrieved for the HDFS block
@@ -161,14 +377,9 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
       FileMetaData fileMetaData,
       Class<?> readSupportClass,
       String requestedSchema,
+      Set<ColumnPath> projectedColumns,
       Map<String, String> readSupportMetadata) throws IOException {
-    Comparator<BlockLocation> comparator = new Comparator<BlockLocation>() {
-      @Override
-      public int compare(BlockLocation b1, BlockLocation b2) {
-        return Long.signum(b1.getOffset() - b2.getOffset());
-      }
-    };
-    Arrays.sort(hdfsBlocks, comparator);
+    Arrays.sort(hdfsBlocks, HDFS_BLOCK_COMPARATOR);
     List<List<BlockMetaData>> splitGroups = new ArrayList<List<BlockMetaData>>(hdfsBlocks.length);
     for (int i = 0; i < hdfsBlocks.length; i++) {
       splitGroups.add(new ArrayList<BlockMetaData>());
@@ -178,7 +389,7 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
       int index = Arrays.binarySearch(hdfsBlocks, new BlockLocation() {@Override
         public long getOffset() {
         return firstDataPage;
-      }}, comparator);
+      }}, HDFS_BLOCK_COMPARATOR);
       if (index >= 0) {
         splitGroups.get(index).add(block);
       } else {
@@ -203,7 +414,7 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
           fileStatus.getPath(),
           hdfsBlock.getOffset(),
           hdfsBlock.getLength(),
-          hdfsBlock.getHosts(),
+          getHosts(blocksForCurrentSplit, projectedColumns, hdfsBlocks, hdfsBlock.getHosts()),
           blocksForCurrentSplit,
           fileMetaData.getSchema().toString(),
           requestedSchema,
@@ -216,13 +427,219 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
     return splits;
   }
 
+  /**
+   * groups consecutive row groups until the size of their requested columns reaches the target
+   * @param blocks data blocks (row groups)
+   * @param hdfsBlocks hdfs blocks
+   * @param fileStatus the containing file
+   * @param fileMetaData file level meta data
+   * @param requestedSchema the schema requested by the user
+   * @param projectedColumns the paths of the columns in the requested schema
+   * @param readSupportMetadata the metadata provided by the readSupport implementation in init
+   * @param projectedSplitSize the target size in bytes of the requested columns in a split
+   * @return the splits
+   */
+  static List<ParquetInputSplit> generateProjectedSplits(
+      List<BlockMetaData> blocks,
+      BlockLocation[] hdfsBlocks,
+      FileStatus fileStatus,
+      FileMetaData fileMetaData,
+      String requestedSchema,
+      Set<ColumnPath> projectedColumns,
+      Map<String, String> readSupportMetadata,
+      long projectedSplitSize) throws IOException {
+    Arrays.sort(hdfsBlocks, HDFS_BLOCK_COMPARATOR);
+    List<ParquetInputSplit> splits = new ArrayList<ParquetInputSplit>();
+    List<BlockMetaData> blocksForCurrentSplit = new ArrayList<BlockMetaData>();
+    long projectedSize = 0;
+    for (int i = 0; i < blocks.size(); i++) {
+      BlockMetaData block = blocks.get(i);
+      blocksForCurrentSplit.add(block);
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        if (projectedColumns.contains(column.getColumnPath())) {
+          projectedSize += column.getTotalSize();
+        }
+      }
+      if (projectedSize >= projectedSplitSize || i == blocks.size() - 1) {
+        splits.add(newSplit(blocksForCurrentSplit, getEndingPos(blocks, i, fileStatus), hdfsBlocks, fileStatus, fileMetaData, requestedSchema, projectedColumns, readSupportMetadata));
+        blocksForCurrentSplit = new ArrayList<BlockMetaData>();
+        projectedSize = 0;
+      }
+    }
+    return splits;
+  }
+
+  /**
+   * The column chunks of a filtered footer do not cover the whole row group:
+   * a row group ends where the next one starts and the last one before the end of the file.
+   * @param blocks all the row groups of the file
+   * @param index the index of the row group
+   * @param fileStatus the containing file
+   * @return the offset following the row group
+   */
+  private static long getEndingPos(List<BlockMetaData> blocks, int index, FileStatus fileStatus) {
+    BlockMetaData block = blocks.get(index);
+    long end = getStartingPos(block) + block.getCompressedSize();
+    long next = index + 1 < blocks.size() ? getStartingPos(blocks.get(index + 1)) : fileStatus.getLen();
+    return Math.max(end, next);
+  }
+
+  private static ParquetInputSplit newSplit(
+      List<BlockMetaData> blocks,
+      long end,
+      BlockLocation[] hdfsBlocks,
+      FileStatus fileStatus,
+      FileMetaData fileMetaData,
+      String requestedSchema,
+      Set<ColumnPath> projectedColumns,
+      Map<String, String> readSupportMetadata) throws IOException {
+    long start = getStartingPos(blocks.get(0));
+    return new ParquetInputSplit(
+        fileStatus.getPath(),
+        start,
+        end - start,
+        getHosts(blocks, projectedColumns, hdfsBlocks, getHosts(hdfsBlocks, start)),
+        blocks,
+        fileMetaData.getSchema().toString(),
+        requestedSchema,
+        fileMetaData.getSchema().toString(),
+        fileMetaData.getKeyValueMetaData(),
+        readSupportMetadata);
+  }
+
+  /**
+   * @param hdfsBlocks hdfs blocks
+   * @param offset an offset in the file
+   * @return the hosts of the HDFS block containing the offset
+   */
+  private static String[] getHosts(BlockLocation[] hdfsBlocks, long offset) throws IOException {
+    for (BlockLocation hdfsBlock : hdfsBlocks) {
+      if (offset >= hdfsBlock.getOffset() && offset < hdfsBlock.getOffset() + hdfsBlock.getLength()) {
+        return hdfsBlock.getHosts();
+      }
+    }
+    return new String[0];
+  }
+
+  /**
+   * weights each host by the bytes of the requested column chunks it stores locally
+   * @param blocks the row groups of a split
+   * @param projectedColumns the paths of the columns in the requested schema
+   * @param hdfsBlocks hdfs blocks sorted by offset
+   * @param defaultHosts the hosts returned when the requested column chunks are empty
+   * @return the hosts storing the most bytes first, hosts storing as many bytes in the order of the hdfs blocks
+   * @throws IOException If hosts can't be retrieved for the HDFS block
+   */
+  static String[] getHosts(
+      List<BlockMetaData> blocks,
+      Set<ColumnPath> projectedColumns,
+      BlockLocation[] hdfsBlocks,
+      String[] defaultHosts) throws IOException {
+    // hosts are kept in the order they are found for the stable sort below to break ties
+    final Map<String, Long> bytesByHost = new LinkedHashMap<String, Long>();
+    for (BlockMetaData block : blocks) {
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        if (!projectedColumns.contains(column.getColumnPath())) {
+          continue;
+        }
+        long start = getStartingPos(column);
+        long end = start + column.getTotalSize();
+        for (BlockLocation hdfsBlock : hdfsBlocks) {
+          if (hdfsBlock.getOffset() >= end) {
+            break;
+          }
+          long overlap = Math.min(end, hdfsBlock.getOffset() + hdfsBlock.getLength()) - Math.max(start, hdfsBlock.getOffset());
+          if (overlap > 0) {
+            for (String host : hdfsBlock.getHosts()) {
+              Long bytes = bytesByHost.get(host);
+              bytesByHost.put(host, bytes == null ? overlap : bytes + overlap);
+            }
+          }
+        }
+      }
+    }
+    if (bytesByHost.isEmpty()) {
+      return defaultHosts;
+    }
+    List<String> hosts = new ArrayList<String>(bytesByHost.keySet());
+    Collections.sort(hosts, new Comparator<String>() {
+      @Override
+      public int compare(String h1, String h2) {
+        return bytesByHost.get(h2).compareTo(bytesByHost.get(h1));
+      }
+    });
+    return hosts.toArray(new String[hosts.size()]);
+  }
+
+  /**
+   * selects the row groups of a split planned in task side metadata mode.
+   * A row group belongs to the split containing its midpoint so that it is read exactly once
+   * @param blocks all the row groups of the file
+   * @param start the offset of the split in the file
+   * @param length the length of the split
+   * @return the row groups whose midpoint is in [start, start + length)
+   */
+  static List<BlockMetaData> selectBlocks(List<BlockMetaData> blocks, long start, long length) {
+    List<BlockMetaData> selected = new ArrayList<BlockMetaData>();
+    for (BlockMetaData block : blocks) {
+      long midpoint = getStartingPos(block) + block.getCompressedSize() / 2;
+      if (midpoint >= start && midpoint < start + length) {
+        selected.add(block);
+      }
+    }
+    return selected;
+  }
+
+  private static long getStartingPos(BlockMetaData block) {
+    return getStartingPos(block.getColumns().get(0));
+  }
+
+  private static long getStartingPos(ColumnChunkMetaData column) {
+    long dictionaryPageOffset = column.getDictionaryPageOffset();
+    if (dictionaryPageOffset > 0 && dictionaryPageOffset < column.getFirstDataPageOffset()) {
+      return dictionaryPageOffset;
+    }
+    return column.getFirstDataPageOffset();
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   public List<InputSplit> getSplits(JobContext jobContext) throws IOException {
     List<InputSplit> splits = new ArrayList<InputSplit>();
-    splits.addAll(getSplits(ContextUtil.getConfiguration(jobContext), getFooters(jobContext)));
+    Configuration configuration = ContextUtil.getConfiguration(jobContext);
+    if (isTaskSideMetadata(configuration)) {
+      splits.addAll(getTaskSideSplits(configuration, super.listStatus(jobContext)));
+    } else {
+      splits.addAll(getSplits(configuration, getFooters(jobContext)));
+    }
+    return splits;
+  }
+
+  /**
+   * plans one split per HDFS block without reading the footers
+   * @param configuration the job configuration
+   * @param statuses the files to read
+   * @return the splits
+   * @throws IOException if the block locations can't be retrieved
+   */
+  public List<ParquetInputSplit> getTaskSideSplits(Configuration configuration, List<FileStatus> statuses) throws IOException {
+    List<ParquetInputSplit> splits = new ArrayList<ParquetInputSplit>();
+    for (FileStatus fileStatus : statuses) {
+      if (fileStatus.getLen() == 0) {
+        continue;
+      }
+      FileSystem fs = fileStatus.getPath().getFileSystem(configuration);
+      for (BlockLocation hdfsBlock : fs.getFileBlockLocations(fileStatus, 0, fileStatus.getLen())) {
+        splits.add(new ParquetInputSplit(
+            fileStatus.getPath(),
+            hdfsBlock.getOffset(),
+            hdfsBlock.getLength(),
+            hdfsBlock.getHosts()));
+      }
+    }
+    LOG.info("planned " + splits.size() + " splits for " + statuses.size() + " files without reading the footers");
     return splits;
   }
 
@@ -233,6 +650,11 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
         configuration,
         globalMetaData.getKeyValueMetaData(),
         globalMetaData.getSchema());
+    long projectedSplitSize = getProjectedSplitSize(configuration);
+    Set<ColumnPath> projectedColumns = new HashSet<ColumnPath>();
+    for (String[] path : readContext.getRequestedSchema().getPaths()) {
+      projectedColumns.add(ColumnPath.get(path));
+    }
     for (Footer footer : footers) {
       final Path file = footer.getFile();
       LOG.debug(file);
@@ -241,16 +663,31 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
       ParquetMetadata parquetMetaData = footer.getParquetMetadata();
       List<BlockMetaData> blocks = parquetMetaData.getBlocks();
       BlockLocation[] fileBlockLocations = fs.getFileBlockLocations(fileStatus, 0, fileStatus.getLen());
-      splits.addAll(
-          generateSplits(
-              blocks,
-              fileBlockLocations,
-              fileStatus,
-              parquetMetaData.getFileMetaData(),
-              readSupportClass,
-              readContext.getRequestedSchema().toString(),
-              readContext.getReadSupportMetadata())
-          );
+      if (projectedSplitSize > 0) {
+        splits.addAll(
+            generateProjectedSplits(
+                blocks,
+                fileBlockLocations,
+                fileStatus,
+                parquetMetaData.getFileMetaData(),
+                readContext.getRequestedSchema().toString(),
+                projectedColumns,
+                readContext.getReadSupportMetadata(),
+                projectedSplitSize)
+            );
+      } else {
+        splits.addAll(
+            generateSplits(
+                blocks,
+                fileBlockLocations,
+                fileStatus,
+                parquetMetaData.getFileMetaData(),
+                readSupportClass,
+                readContext.getRequestedSchema().toString(),
+                projectedColumns,
+                readContext.getReadSupportMetadata())
+            );
+      }
     }
     return splits;
   }
@@ -270,7 +707,7 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
 
   public List<Footer> getFooters(Configuration configuration, List<FileStatus> statuses) throws IOException {
       LOG.debug("reading " + statuses.size() + " files");
-      return ParquetFileReader.readAllFootersInParallelUsingSummaryFiles(configuration, statuses);
+      return ParquetFileReader.readAllFootersInParallelUsingSummaryFiles(configuration, statuses, getFooterFilter(configuration));
   }
 
   /**
@@ -15,29 +15,39 @@
  */
 package parquet.hadoop;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.WeakHashMap;
 
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
 import org.apache.hadoop.mapreduce.InputSplit;
 
+import parquet.column.Encoding;
 import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.ColumnPath;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.schema.PrimitiveType.PrimitiveTypeName;
 
 /**
  * An input split for the Parquet format
  * It contains the information to read one block of the file.
+ * It is serialized with a compact binary encoding.
  *
  * @author Julien Le Dem
  */
@@ -99,6 +109,25 @@ public class ParquetInputSplit extends InputSplit implements Serializable, Writa
     this.readSupportMetadata = readSupportMetadata;
   }
 
+  /**
+   * Used by {@link ParquetInputFormat#getSplits(org.apache.hadoop.mapreduce.JobContext)} in task side metadata mode.
+   * The record reader reads the footer and selects the row groups of the split itself.
+   * @param path the path to the file
+   * @param start the offset of the block in the file
+   * @param length the size of the block in the file
+   * @param hosts the hosts where this block can be found
+   */
+  public ParquetInputSplit(Path path, long start, long length, String[] hosts) {
+    this(path, start, length, hosts, new ArrayList<BlockMetaData>(), null, null, null, null, null);
+  }
+
+  /**
+   * @return true if the metadata of this split is not known yet and must be read from the footer by the task
+   */
+  public boolean isTaskSideMetadata() {
+    return fileSchema == null;
+  }
+
   /**
    * @return the block meta data
    */
@@ -180,23 +209,48 @@ public class ParquetInputSplit extends InputSplit implements Serializable, Writa
    */
   @Override
   public void readFields(DataInput in) throws IOException {
-    int l = in.readInt();
-    byte[] b = new byte[l];
-    in.readFully(b);
-    try {
-      ParquetInputSplit other = (ParquetInputSplit)new ObjectInputStream(new ByteArrayInputStream(b)).readObject();
-      this.path = other.path;
-      this.start = other.start;
-      this.length = other.length;
-      this.hosts = other.hosts;
-      this.blocks = other.blocks;
-      this.schema = other.schema;
-      this.requestedSchema = other.requestedSchema;
-      this.fileSchema = other.fileSchema;
-      this.extraMetadata = other.extraMetadata;
-      this.readSupportMetadata = other.readSupportMetadata;
-    } catch (ClassNotFoundException e) {
-      throw new IOException("wrong class serialized", e);
+    this.path = Text.readString(in);
+    this.start = in.readLong();
+    this.length = in.readLong();
+    this.hosts = new String[WritableUtils.readVInt(in)];
+    for (int i = 0; i < hosts.length; i++) {
+      hosts[i] = Text.readString(in);
+    }
+    List<String> schemas = new ArrayList<String>();
+    this.schema = readSchema(in, schemas);
+    this.requestedSchema = readSchema(in, schemas);
+    this.fileSchema = readSchema(in, schemas);
+    this.extraMetadata = readMap(in);
+    this.readSupportMetadata = readMap(in);
+    ColumnPath[] columnPaths = new ColumnPath[WritableUtils.readVInt(in)];
+    for (int i = 0; i < columnPaths.length; i++) {
+      String[] columnPath = new String[WritableUtils.readVInt(in)];
+      for (int j = 0; j < columnPath.length; j++) {
+        columnPath[j] = Text.readString(in);
+      }
+      columnPaths[i] = ColumnPath.get(columnPath);
+    }
+    int blockCount = WritableUtils.readVInt(in);
+    this.blocks = new ArrayList<BlockMetaData>(blockCount);
+    for (int i = 0; i < blockCount; i++) {
+      BlockMetaData block = new BlockMetaData();
+      block.setRowCount(WritableUtils.readVLong(in));
+      block.setTotalByteSize(WritableUtils.readVLong(in));
+      block.setPath(readNullableString(in));
+      int columnCount = WritableUtils.readVInt(in);
+      for (int j = 0; j < columnCount; j++) {
+        block.addColumn(ColumnChunkMetaData.get(
+            columnPaths[WritableUtils.readVInt(in)],
+            PRIMITIVE_TYPES[in.readByte()],
+            CODECS[in.readByte()],
+            readEncodings(in),
+            WritableUtils.readVLong(in),
+            WritableUtils.readVLong(in),
+            WritableUtils.readVLong(in),
+            WritableUtils.readVLong(in),
+            WritableUtils.readVLong(in)));
+      }
+      blocks.add(block);
     }
   }
 
@@ -205,11 +259,156 @@ public class ParquetInputSplit extends InputSplit implements Serializable, Writa
    */
   @Override
   public void write(DataOutput out) throws IOException {
-    ByteArrayOutputStream baos = new ByteArrayOutputStream();
-    new ObjectOutputStream(baos).writeObject(this);
-    byte[] b = baos.toByteArray();
-    out.writeInt(b.length);
-    out.write(b);
+    Text.writeString(out, path);
+    out.writeLong(start);
+    out.writeLong(length);
+    WritableUtils.writeVInt(out, hosts.length);
+    for (String host : hosts) {
+      Text.writeString(out, host);
+    }
+    // the schemas are usually the same, each distinct one is written once
+    List<String> schemas = new ArrayList<String>();
+    writeSchema(out, schema, schemas);
+    writeSchema(out, requestedSchema, schemas);
+    writeSchema(out, fileSchema, schemas);
+    writeMap(out, extraMetadata);
+    writeMap(out, readSupportMetadata);
+    // the column paths are written once and referenced by index in the column chunks
+    Map<ColumnPath, Integer> columnPaths = new LinkedHashMap<ColumnPath, Integer>();
+    for (BlockMetaData block : blocks) {
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        if (!columnPaths.containsKey(column.getColumnPath())) {
+          columnPaths.put(column.getColumnPath(), columnPaths.size());
+        }
+      }
+    }
+    WritableUtils.writeVInt(out, columnPaths.size());
+    for (ColumnPath columnPath : columnPaths.keySet()) {
+      String[] names = columnPath.toArray();
+      WritableUtils.writeVInt(out, names.length);
+      for (String name : names) {
+        Text.writeString(out, name);
+      }
+    }
+    WritableUtils.writeVInt(out, blocks.size());
+    for (BlockMetaData block : blocks) {
+      WritableUtils.writeVLong(out, block.getRowCount());
+      WritableUtils.writeVLong(out, block.getTotalByteSize());
+      writeNullableString(out, block.getPath());
+      WritableUtils.writeVInt(out, block.getColumns().size());
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        WritableUtils.writeVInt(out, columnPaths.get(column.getColumnPath()));
+        out.writeByte(column.getType().ordinal());
+        out.writeByte(column.getCodec().ordinal());
+        writeEncodings(out, column.getEncodings());
+        WritableUtils.writeVLong(out, column.getFirstDataPageOffset());
+        WritableUtils.writeVLong(out, column.getDictionaryPageOffset());
+        WritableUtils.writeVLong(out, column.getValueCount());
+        WritableUtils.writeVLong(out, column.getTotalSize());
+        WritableUtils.writeVLong(out, column.getTotalUncompressedSize());
+      }
+    }
+  }
+
+  private static final PrimitiveTypeName[] PRIMITIVE_TYPES = PrimitiveTypeName.values();
+  private static final CompressionCodecName[] CODECS = CompressionCodecName.values();
+  private static final Encoding[] ENCODINGS = Encoding.values();
+
+  // schemas are shared by all the splits read in the same JVM, as long as one of them is in use
+  private static final Map<String, WeakReference<String>> SCHEMAS = new WeakHashMap<String, WeakReference<String>>();
+
+  private static String canonicalSchema(String schema) {
+    synchronized (SCHEMAS) {
+      WeakReference<String> ref = SCHEMAS.get(schema);
+      String canonical = ref == null ? null : ref.get();
+      if (canonical == null) {
+        SCHEMAS.put(schema, new WeakReference<String>(schema));
+        canonical = schema;
+      }
+      return canonical;
+    }
+  }
+
+  private static String readSchema(DataInput in, List<String> schemas) throws IOException {
+    int index = WritableUtils.readVInt(in);
+    if (index == -1) {
+      return null;
+    }
+    if (index < schemas.size()) {
+      return schemas.get(index);
+    }
+    String schema = canonicalSchema(Text.readString(in));
+    schemas.add(schema);
+    return schema;
+  }
+
+  private static void writeSchema(DataOutput out, String schema, List<String> schemas) throws IOException {
+    if (schema == null) {
+      WritableUtils.writeVInt(out, -1);
+      return;
+    }
+    int index = schemas.indexOf(schema);
+    if (index >= 0) {
+      WritableUtils.writeVInt(out, index);
+    } else {
+      WritableUtils.writeVInt(out, schemas.size());
+      Text.writeString(out, schema);
+      schemas.add(schema);
+    }
+  }
+
+  private static Map<String, String> readMap(DataInput in) throws IOException {
+    int size = WritableUtils.readVInt(in);
+    if (size == -1) {
+      return null;
+    }
+    Map<String, String> map = new HashMap<String, String>(size);
+    for (int i = 0; i < size; i++) {
+      map.put(Text.readString(in), readNullableString(in));
+    }
+    return map;
+  }
+
+  private static void writeMap(DataOutput out, Map<String, String> map) throws IOException {
+    if (map == null) {
+      WritableUtils.writeVInt(out, -1);
+      return;
+    }
+    WritableUtils.writeVInt(out, map.size());
+    for (Entry<String, String> entry : map.entrySet()) {
+      Text.writeString(out, entry.getKey());
+      writeNullableString(out, entry.getValue());
+    }
+  }
+
+  private static String readNullableString(DataInput in) throws IOException {
+    return in.readBoolean() ? Text.readString(in) : null;
+  }
+
+  private static void writeNullableString(DataOutput out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      Text.writeString(out, value);
+    }
+  }
+
+  private static List<Encoding> readEncodings(DataInput in) throws IOException {
+    int bits = WritableUtils.readVInt(in);
+    List<Encoding> encodings = new ArrayList<Encoding>();
+    for (Encoding encoding : ENCODINGS) {
+      if ((bits & (1 << encoding.ordinal())) != 0) {
+        encodings.add(encoding);
+      }
+    }
+    return encodings;
+  }
+
+  private static void writeEncodings(DataOutput out, List<Encoding> encodings) throws IOException {
+    int bits = 0;
+    for (Encoding encoding : encodings) {
+      bits |= 1 << encoding.ordinal();
+    }
+    WritableUtils.writeVInt(out, bits);
   }
 
   @Override
@@ -67,6 +67,10 @@ import parquet.hadoop.metadata.CompressionCodecName;
  *
  * # To enable dictionary encoding
  * parquet.enable.dictionary=false # true to enable dictionary encoding
+ *
+ * # To write full row groups to the file in a background thread while the next one is being buffered
+ * # This can use up to twice the block size in memory
+ * parquet.flush.async=false # true to enable asynchronous flushing
  * </pre>
  *
  * If parquet.compression is not set, the following properties are checked (FileOutputFormat behavior).
@@ -91,6 +95,7 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
   public static final String WRITE_SUPPORT_CLASS = "parquet.write.support.class";
   public static final String ENABLE_DICTIONARY   = "parquet.enable.dictionary";
   public static final String VALIDATION          = "parquet.validation";
+  public static final String ASYNC_FLUSH         = "parquet.flush.async";
 
   public static void setWriteSupportClass(Job job,  Class<?> writeSupportClass) {
     getConfiguration(job).set(WRITE_SUPPORT_CLASS, writeSupportClass.getName());
@@ -156,6 +161,14 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
     return getConfiguration(jobContext).getBoolean(VALIDATION, false);
   }
 
+  public static void setAsyncFlush(JobContext jobContext, boolean asyncFlush) {
+    getConfiguration(jobContext).setBoolean(ASYNC_FLUSH, asyncFlush);
+  }
+
+  public static boolean getAsyncFlush(JobContext jobContext) {
+    return getConfiguration(jobContext).getBoolean(ASYNC_FLUSH, false);
+  }
+
   private WriteSupport<T> writeSupport;
   private ParquetOutputCommitter committer;
 
@@ -230,6 +243,8 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
     w.start();
     boolean validating = getValidation(taskAttemptContext);
     if (INFO) LOG.info("Validation is " + (validating ? "on" : "off"));
+    boolean asyncFlush = getAsyncFlush(taskAttemptContext);
+    if (INFO) LOG.info("Asynchronous flush is " + (asyncFlush ? "on" : "off"));
     return new ParquetRecordWriter<T>(
         w,
         writeSupport,
@@ -238,7 +253,8 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
         blockSize, pageSize,
         codecFactory.getCompressor(codec, pageSize),
         enableDictionary,
-        validating);
+        validating,
+        asyncFlush);
   }
 
   @Override
@@ -26,6 +26,7 @@ import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 
+import parquet.filter.UnboundRecordFilter;
 import parquet.hadoop.api.ReadSupport;
 import parquet.hadoop.api.ReadSupport.ReadContext;
 import parquet.hadoop.metadata.BlockMetaData;
@@ -40,6 +41,16 @@ public class ParquetReader<T> implements Closeable {
   private ParquetRecordReader<T> reader;
 
   public ParquetReader(Path file, ReadSupport<T> readSupport) throws IOException {
+    this(file, readSupport, null);
+  }
+
+  /**
+   * @param file the file to read
+   * @param readSupport to materialize the records
+   * @param filter applied to the records before they are materialized (null for no filter)
+   * @throws IOException
+   */
+  public ParquetReader(Path file, ReadSupport<T> readSupport, UnboundRecordFilter filter) throws IOException {
     Configuration conf = new Configuration();
 
     FileSystem fs = FileSystem.get(conf);
@@ -53,7 +64,7 @@ public class ParquetReader<T> implements Closeable {
     MessageType schema = fileMetaData.getSchema();
     Map<String, String> extraMetadata = fileMetaData.getKeyValueMetaData();
     final ReadContext readContext = readSupport.init(conf, extraMetadata, schema);
-    reader = new ParquetRecordReader<T>(readSupport);
+    reader = new ParquetRecordReader<T>(readSupport, filter);
     ParquetInputSplit inputSplit =
         new ParquetInputSplit(
             file, 0, 0, null, blocks,
@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.util.List;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.mapreduce.InputSplit;
 import org.apache.hadoop.mapreduce.RecordReader;
@@ -30,8 +31,11 @@ import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import parquet.Log;
 import parquet.column.ColumnDescriptor;
 import parquet.column.page.PageReadStore;
+import parquet.filter.UnboundRecordFilter;
 import parquet.hadoop.api.ReadSupport;
 import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.FileMetaData;
+import parquet.hadoop.metadata.ParquetMetadata;
 import parquet.hadoop.util.ContextUtil;
 import parquet.io.ColumnIOFactory;
 import parquet.io.MessageColumnIO;
@@ -58,8 +62,10 @@ public class ParquetRecordReader<T> extends RecordReader<Void, T> {
 
   private MessageType requestedSchema;
   private MessageType fileSchema;
+  private MessageColumnIO columnIO;
   private int columnCount;
   private final ReadSupport<T> readSupport;
+  private final UnboundRecordFilter filter;
 
   private RecordMaterializer<T> recordConverter;
 
@@ -68,8 +74,9 @@ public class ParquetRecordReader<T> extends RecordReader<Void, T> {
   private int current = 0;
   private int currentBlock = -1;
   private ParquetFileReader reader;
+  private RowGroupPrefetcher prefetcher;
   private parquet.io.RecordReader<T> recordReader;
-
+  // false once the record reader turned out not to support being moved to other pages
   private long totalTimeSpentReadingBytes;
   private long totalTimeSpentProcessingRecords;
   private long startedAssemblingCurrentBlockAt;
@@ -81,7 +88,16 @@ public class ParquetRecordReader<T> extends RecordReader<Void, T> {
    * @param readSupportClass
    */
   public ParquetRecordReader(ReadSupport<T> readSupport) {
+    this(readSupport, null);
+  }
+
+  /**
+   * @param readSupport to materialize the records
+   * @param filter applied to the records before they are materialized (null for no filter)
+   */
+  public ParquetRecordReader(ReadSupport<T> readSupport, UnboundRecordFilter filter) {
     this.readSupport = readSupport;
+    this.filter = filter;
   }
 
   private void checkRead() throws IOException {
@@ -91,23 +107,34 @@ public class ParquetRecordReader<T> extends RecordReader<Void, T> {
         totalTimeSpentProcessingRecords += timeAssembling;
         LOG.info("Assembled and processed " + totalCountLoadedSoFar + " records from " + columnCount + " columns in " + totalTimeSpentProcessingRecords + " ms: "+((float)totalCountLoadedSoFar / totalTimeSpentProcessingRecords) + " rec/ms, " + ((float)totalCountLoadedSoFar * columnCount / totalTimeSpentProcessingRecords) + " cell/ms");
         long totalTime = totalTimeSpentProcessingRecords + totalTimeSpentReadingBytes;
-        long percentReading = 100 * totalTimeSpentReadingBytes / totalTime;
-        long percentProcessing = 100 * totalTimeSpentProcessingRecords / totalTime;
-        LOG.info("time spent so far " + percentReading + "% reading ("+totalTimeSpentReadingBytes+" ms) and " + percentProcessing + "% processing ("+totalTimeSpentProcessingRecords+" ms)");
+        if (totalTime != 0) {
+          long percentReading = 100 * totalTimeSpentReadingBytes / totalTime;
+          long percentProcessing = 100 * totalTimeSpentProcessingRecords / totalTime;
+          LOG.info("time spent so far " + percentReading + "% reading ("+totalTimeSpentReadingBytes+" ms) and " + percentProcessing + "% processing ("+totalTimeSpentProcessingRecords+" ms)");
+        }
+        if (prefetcher != null) {
+          LOG.info("prefetching: " + prefetcher.getTotalTimeSpentReading() + " ms spent reading in the background, of which " + totalTimeSpentReadingBytes + " ms waited for");
+        }
       }
 
       LOG.info("at row " + current + ". reading next block");
       long t0 = System.currentTimeMillis();
-      PageReadStore pages = reader.readNextRowGroup();
+      PageReadStore pages = prefetcher == null ? reader.readNextRowGroup() : prefetcher.readNextRowGroup();
       if (pages == null) {
         throw new IOException("expecting more rows but reached last block. Read " + current + " out of " + total);
       }
       long timeSpentReading = System.currentTimeMillis() - t0;
       totalTimeSpentReadingBytes += timeSpentReading;
-      LOG.info("block read in memory in " + timeSpentReading + " ms. row count = " + pages.getRowCount());
-      if (Log.DEBUG) LOG.debug("initializing Record assembly with requested schema " + requestedSchema);
-      MessageColumnIO columnIO = columnIOFactory.getColumnIO(requestedSchema, fileSchema);
-      recordReader = columnIO.getRecordReader(pages, recordConverter);
+      LOG.info("block " + (prefetcher == null ? "read in memory" : "available") + " in " + timeSpentReading + " ms. row count = " + pages.getRowCount());
+      if (recordReader != null) {
+        // the automaton only depends on the schemas: it is reused for all the row groups of the split
+        recordReader.setPageReadStore(pages);
+      } else {
+        if (Log.DEBUG) LOG.debug("initializing Record assembly with requested schema " + requestedSchema);
+        recordReader = filter == null
+            ? columnIO.getRecordReader(pages, recordConverter)
+            : columnIO.getRecordReader(pages, recordConverter, filter);
+      }
       startedAssemblingCurrentBlockAt = System.currentTimeMillis();
       totalCountLoadedSoFar += pages.getRowCount();
       ++ currentBlock;
@@ -119,7 +146,12 @@ public class ParquetRecordReader<T> extends RecordReader<Void, T> {
    */
   @Override
   public void close() throws IOException {
-    reader.close();
+    if (prefetcher != null) {
+      // also closes the reader
+      prefetcher.close();
+    } else {
+      reader.close();
+    }
   }
 
   /**
@@ -144,7 +176,7 @@ public class ParquetRecordReader<T> extends RecordReader<Void, T> {
    */
   @Override
   public float getProgress() throws IOException, InterruptedException {
-    return (float) current / total;
+    return total == 0 ? 1.0f : (float) current / total;
   }
 
   /**
@@ -159,19 +191,47 @@ public class ParquetRecordReader<T> extends RecordReader<Void, T> {
   public void initialize(InputSplit inputSplit, Configuration configuration)
       throws IOException {
     ParquetInputSplit parquetInputSplit = (ParquetInputSplit)inputSplit;
-    this.requestedSchema = MessageTypeParser.parseMessageType(parquetInputSplit.getRequestedSchema());
-    this.fileSchema = MessageTypeParser.parseMessageType(parquetInputSplit.getFileSchema());
+    Path path = parquetInputSplit.getPath();
+    List<BlockMetaData> blocks;
+    if (parquetInputSplit.isTaskSideMetadata()) {
+      // the split was planned without the footer: read it and select the row groups of this split
+      FileStatus fileStatus = path.getFileSystem(configuration).getFileStatus(path);
+      ParquetMetadata footer = ParquetFileReader.readFooter(configuration, fileStatus);
+      FileMetaData fileMetaData = footer.getFileMetaData();
+      this.fileSchema = fileMetaData.getSchema();
+      ReadSupport.ReadContext readContext = readSupport.init(configuration, fileMetaData.getKeyValueMetaData(), fileSchema);
+      this.requestedSchema = readContext.getRequestedSchema();
+      fileSchema.checkContains(requestedSchema);
+      this.recordConverter = readSupport.prepareForRead(configuration, fileMetaData.getKeyValueMetaData(), fileSchema, readContext);
+      long length;
+      try {
+        length = parquetInputSplit.getLength();
+      } catch (InterruptedException e) {
+        Thread.interrupted();
+        throw new IOException(e);
+      }
+      blocks = ParquetInputFormat.selectBlocks(footer.getBlocks(), parquetInputSplit.getStart(), length);
+      LOG.info("selected " + blocks.size() + " out of " + footer.getBlocks().size() + " row groups in " + path);
+    } else {
+      this.requestedSchema = MessageTypeParser.parseMessageType(parquetInputSplit.getRequestedSchema());
+      this.fileSchema = MessageTypeParser.parseMessageType(parquetInputSplit.getFileSchema());
+      this.recordConverter = readSupport.prepareForRead(
+          configuration,
+          parquetInputSplit.getExtraMetadata(),
+          MessageTypeParser.parseMessageType(parquetInputSplit.getSchema()),
+          new ReadSupport.ReadContext(requestedSchema, parquetInputSplit.getReadSupportMetadata()));
+      blocks = parquetInputSplit.getBlocks();
+    }
     this.columnCount = this.requestedSchema.getPaths().size();
-    this.recordConverter = readSupport.prepareForRead(
-        configuration,
-        parquetInputSplit.getExtraMetadata(),
-        MessageTypeParser.parseMessageType(parquetInputSplit.getSchema()),
-        new ReadSupport.ReadContext(requestedSchema, parquetInputSplit.getReadSupportMetadata()));
+    this.columnIO = columnIOFactory.getColumnIO(requestedSchema, fileSchema);
 
-    Path path = parquetInputSplit.getPath();
-    List<BlockMetaData> blocks = parquetInputSplit.getBlocks();
     List<ColumnDescriptor> columns = requestedSchema.getColumns();
     reader = new ParquetFileReader(configuration, path, blocks, columns);
+    int prefetchDepth = ParquetInputFormat.getPrefetchDepth(configuration);
+    if (prefetchDepth > 0) {
+      LOG.info("prefetching up to " + prefetchDepth + " row groups");
+      prefetcher = new RowGroupPrefetcher(reader, prefetchDepth);
+    }
     for (BlockMetaData block : blocks) {
       total += block.getRowCount();
     }
@@ -198,7 +258,7 @@ public class ParquetRecordReader<T> extends RecordReader<Void, T> {
    */
   @Override
   public boolean nextKeyValue() throws IOException, InterruptedException {
-    if (current < total) {
+    while (current < total) {
       try {
         checkRead();
         currentValue = recordReader.read();
@@ -207,7 +267,10 @@ public class ParquetRecordReader<T> extends RecordReader<Void, T> {
       } catch (RuntimeException e) {
         throw new ParquetDecodingException(format("Can not read value at %d in block %d", current, currentBlock), e);
       }
-      return true;
+      // a filtered reader returns null for the records that do not match
+      if (filter == null || currentValue != null) {
+        return true;
+      }
     }
     return false;
   }
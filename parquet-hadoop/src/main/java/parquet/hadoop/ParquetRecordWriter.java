@@ -20,7 +20,12 @@ import static java.lang.Math.min;
 
 import java.io.IOException;
 import java.util.Map;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import org.apache.hadoop.mapreduce.RecordWriter;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
@@ -56,6 +61,7 @@ public class ParquetRecordWriter<T> extends RecordWriter<Void, T> {
   private final BytesCompressor compressor;
   private final boolean enableDictionary;
   private final boolean validating;
+  private final ExecutorService flusher;
 
   private long recordCount = 0;
   private long recordCountForNextMemCheck = 100;
@@ -63,7 +69,8 @@ public class ParquetRecordWriter<T> extends RecordWriter<Void, T> {
   private ColumnWriteStoreImpl store;
   private ColumnChunkPageWriteStore pageStore;
 
-
+  // the row group currently being written to the file by the flusher thread (if any)
+  private Future<Void> pendingFlush;
 
   /**
    *
@@ -75,6 +82,21 @@ public class ParquetRecordWriter<T> extends RecordWriter<Void, T> {
    * @param codec the codec used to compress
    */
   public ParquetRecordWriter(ParquetFileWriter w, WriteSupport<T> writeSupport, MessageType schema,  Map<String, String> extraMetaData, int blockSize, int pageSize, BytesCompressor compressor, boolean enableDictionary, boolean validating) {
+    this(w, writeSupport, schema, extraMetaData, blockSize, pageSize, compressor, enableDictionary, validating, false);
+  }
+
+  /**
+   *
+   * @param w the file to write to
+   * @param writeSupport the class to convert incoming records
+   * @param schema the schema of the records
+   * @param extraMetaData extra meta data to write in the footer of the file
+   * @param blockSize the size of a block in the file (this will be approximate)
+   * @param codec the codec used to compress
+   * @param asyncFlush if true, full row groups are written to the file by a background thread
+   * while the next row group is being buffered. At most one row group is pending at any time.
+   */
+  public ParquetRecordWriter(ParquetFileWriter w, WriteSupport<T> writeSupport, MessageType schema,  Map<String, String> extraMetaData, int blockSize, int pageSize, BytesCompressor compressor, boolean enableDictionary, boolean validating, boolean asyncFlush) {
     if (writeSupport == null) {
       throw new NullPointerException("writeSupport");
     }
@@ -87,9 +109,22 @@ public class ParquetRecordWriter<T> extends RecordWriter<Void, T> {
     this.compressor = compressor;
     this.enableDictionary = enableDictionary;
     this.validating = validating;
+    this.flusher = asyncFlush ? newFlusher() : null;
     initStore();
   }
 
+  private static ExecutorService newFlusher() {
+    return Executors.newSingleThreadExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread t = new Thread(r, "parquet-flusher");
+        // a stuck flush must not keep the JVM alive
+        t.setDaemon(true);
+        return t;
+      }
+    });
+  }
+
   private void initStore() {
     // we don't want this number to be too small
     // ideally we divide the block equally across the columns
@@ -110,8 +145,16 @@ public class ParquetRecordWriter<T> extends RecordWriter<Void, T> {
   @Override
   public void close(TaskAttemptContext taskAttemptContext) throws IOException,
   InterruptedException {
-    flushStore();
-    w.end(extraMetaData);
+    try {
+      flushStore();
+      // the footer must reference every row group
+      waitForPendingFlush();
+      w.end(extraMetaData);
+    } finally {
+      if (flusher != null) {
+        flusher.shutdownNow();
+      }
+    }
   }
 
   /**
@@ -119,6 +162,7 @@ public class ParquetRecordWriter<T> extends RecordWriter<Void, T> {
    */
   @Override
   public void write(Void key, T value) throws IOException, InterruptedException {
+    checkPendingFlush();
     writeSupport.write(value);
     ++ recordCount;
     checkBlockSizeReached();
@@ -143,12 +187,58 @@ public class ParquetRecordWriter<T> extends RecordWriter<Void, T> {
   private void flushStore()
       throws IOException {
     LOG.info("Flushing mem store to file. allocated memory: " + store.allocatedSize());
-    w.startBlock(recordCount);
+    // writes the last pages and the dictionaries to the page store.
+    // this compresses and must stay on this thread as the compressor is shared
     store.flush();
-    pageStore.flushToFileWriter(w);
+    final long rowCount = recordCount;
+    final ColumnChunkPageWriteStore toFlush = pageStore;
     recordCount = 0;
-    w.endBlock();
     store = null;
     pageStore = null;
+    if (flusher == null) {
+      writeRowGroup(rowCount, toFlush);
+    } else {
+      // back pressure: only one row group can be in flight
+      waitForPendingFlush();
+      pendingFlush = flusher.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          writeRowGroup(rowCount, toFlush);
+          return null;
+        }
+      });
+    }
+  }
+
+  private void writeRowGroup(long rowCount, ColumnChunkPageWriteStore toFlush) throws IOException {
+    w.startBlock(rowCount);
+    toFlush.flushToFileWriter(w);
+    w.endBlock();
+  }
+
+  /**
+   * fails fast if the background flush failed
+   * @throws IOException if the last row group could not be written
+   */
+  private void checkPendingFlush() throws IOException {
+    if (pendingFlush != null && pendingFlush.isDone()) {
+      waitForPendingFlush();
+    }
+  }
+
+  private void waitForPendingFlush() throws IOException {
+    if (pendingFlush == null) {
+      return;
+    }
+    try {
+      pendingFlush.get();
+      pendingFlush = null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("interrupted while waiting for the row group to be written", e);
+    } catch (ExecutionException e) {
+      // the failed flush is kept so that any later call fails as well
+      throw new IOException("could not write row group", e.getCause());
+    }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import parquet.Log;
+import parquet.column.page.PageReadStore;
+
+/**
+ * Reads the row groups of a {@link ParquetFileReader} ahead of time in a background thread
+ * so that the IO for the next row groups overlaps with the assembly of the current one.
+ *
+ * At most depth row groups are buffered in memory on top of the one being consumed.
+ */
+class RowGroupPrefetcher implements Closeable {
+  private static final Log LOG = Log.getLog(RowGroupPrefetcher.class);
+
+  private final ParquetFileReader reader;
+  private final int depth;
+  private final int rowGroupCount;
+  private final ExecutorService executor;
+  private final LinkedList<Future<PageReadStore>> prefetched = new LinkedList<Future<PageReadStore>>();
+
+  private int submitted = 0;
+  // updated by the background thread
+  private volatile long totalTimeSpentReading = 0;
+
+  /**
+   * @param reader the reader to read row groups from. It must not be used by the caller any more.
+   * @param depth the maximum number of row groups read ahead
+   */
+  RowGroupPrefetcher(ParquetFileReader reader, int depth) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("prefetch depth must be at least 1: " + depth);
+    }
+    this.reader = reader;
+    this.depth = depth;
+    this.rowGroupCount = reader.getRowGroups().size();
+    this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread t = new Thread(r, "parquet-prefetcher");
+        t.setDaemon(true);
+        return t;
+      }
+    });
+    fill();
+  }
+
+  private void fill() {
+    while (prefetched.size() < depth && submitted < rowGroupCount) {
+      prefetched.add(executor.submit(new Callable<PageReadStore>() {
+        @Override
+        public PageReadStore call() throws Exception {
+          long t0 = System.currentTimeMillis();
+          PageReadStore pages = reader.readNextRowGroup();
+          totalTimeSpentReading += System.currentTimeMillis() - t0;
+          return pages;
+        }
+      }));
+      ++ submitted;
+    }
+  }
+
+  /**
+   * @return the next row group, waiting for it to be read if needed. null if after the last row group
+   * @throws IOException if the row group could not be read
+   */
+  public PageReadStore readNextRowGroup() throws IOException {
+    if (prefetched.isEmpty()) {
+      return null;
+    }
+    Future<PageReadStore> next = prefetched.removeFirst();
+    // start reading the following row group before waiting on this one
+    fill();
+    try {
+      return next.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("interrupted while waiting for the next row group", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException)cause;
+      }
+      throw new IOException("could not read the next row group", cause);
+    }
+  }
+
+  /**
+   * @return the time spent by the background thread reading row groups so far in ms
+   */
+  public long getTotalTimeSpentReading() {
+    return totalTimeSpentReading;
+  }
+
+  /**
+   * stops prefetching and closes the underlying reader
+   */
+  @Override
+  public void close() throws IOException {
+    for (Future<PageReadStore> future : prefetched) {
+      future.cancel(false);
+    }
+    prefetched.clear();
+    executor.shutdown();
+    try {
+      // the underlying stream can not be closed while a read is in progress
+      while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+        if (Log.INFO) LOG.info("waiting for the row group being prefetched");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    reader.close();
+  }
+
+}
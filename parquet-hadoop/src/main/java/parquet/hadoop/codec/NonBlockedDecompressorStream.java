@@ -0,0 +1,58 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.hadoop.io.compress.Decompressor;
+import org.apache.hadoop.io.compress.DecompressorStream;
+
+/**
+ * Snappy can only decompress a block as a whole, whereas {@link DecompressorStream}
+ * hands the compressed input to the decompressor in chunks of its buffer size.
+ * This stream sends all the compressed input to the decompressor before decompressing.
+ */
+public class NonBlockedDecompressorStream extends DecompressorStream {
+  private boolean inputHandled;
+
+  public NonBlockedDecompressorStream(InputStream stream, Decompressor decompressor, int bufferSize) throws IOException {
+    super(stream, decompressor, bufferSize);
+  }
+
+  @Override
+  protected int decompress(byte[] b, int off, int len) throws IOException {
+    if (!inputHandled) {
+      int compressedBytes;
+      while ((compressedBytes = getCompressedData()) != -1) {
+        decompressor.setInput(buffer, 0, compressedBytes);
+      }
+      inputHandled = true;
+    }
+    int decompressedBytes = decompressor.decompress(b, off, len);
+    if (decompressedBytes == 0 && decompressor.finished()) {
+      eof = true;
+      return -1;
+    }
+    return decompressedBytes;
+  }
+
+  @Override
+  public void resetState() throws IOException {
+    inputHandled = false;
+    super.resetState();
+  }
+}
@@ -12,7 +12,6 @@ import org.apache.hadoop.io.compress.CompressionOutputStream;
 import org.apache.hadoop.io.compress.Compressor;
 import org.apache.hadoop.io.compress.CompressorStream;
 import org.apache.hadoop.io.compress.Decompressor;
-import org.apache.hadoop.io.compress.DecompressorStream;
 
 /**
  * Snappy compression codec for Parquet.  We do not use the default hadoop
@@ -55,7 +54,7 @@ public class SnappyCodec implements Configurable, CompressionCodec {
   @Override
   public CompressionInputStream createInputStream(InputStream stream,
       Decompressor decompressor) throws IOException {
-    return new DecompressorStream(stream, decompressor,
+    return new NonBlockedDecompressorStream(stream, decompressor,
         conf.getInt(BUFFER_SIZE_CONFIG, 4*1024));
   }
 
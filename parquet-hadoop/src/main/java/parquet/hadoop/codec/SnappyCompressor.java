@@ -77,7 +77,8 @@ public class SnappyCompressor implements Compressor {
 
     if (inputBuffer.remaining() < len) {
       ByteBuffer tmp = ByteBuffer.allocateDirect(inputBuffer.capacity() + len);
-      inputBuffer.rewind();
+      // only keep the input received so far
+      inputBuffer.flip();
       tmp.put(inputBuffer);
       inputBuffer = tmp;
     }
@@ -33,12 +33,14 @@ public class SnappyDecompressor implements Decompressor {
   public synchronized int decompress(byte[] buffer, int off, int len) throws IOException {
     SnappyUtil.validateBuffer(buffer, off, len);
 
-    if (needsInput()) {    	
+    if (inputBuffer.position() == 0 && !outputBuffer.hasRemaining()) {
       // No buffered output bytes and no input to consume, need more input
       return 0;
     }
-    
+
     if (!outputBuffer.hasRemaining()) {
+      // The input is complete, decompress it from the start.
+      inputBuffer.flip();
       Preconditions.checkArgument(inputBuffer.position() == 0, "Invalid position of 0.");
       Preconditions.checkArgument(outputBuffer.position() == 0, "Invalid position of 0.");
       // There is compressed input, decompress it now.
@@ -65,7 +67,9 @@ public class SnappyDecompressor implements Decompressor {
   }
 
   /**
-   * Sets input data for decompression.
+   * Appends input data for decompression.
+   * The input is accumulated until {@link #decompress(byte[], int, int)} is called
+   * as snappy can only decompress a complete block.
    * This should be called if and only if {@link #needsInput()} returns
    * <code>true</code> indicating that more input data is required.
    * (Both native and non-native versions of various Decompressors require
@@ -82,15 +86,18 @@ public class SnappyDecompressor implements Decompressor {
   public synchronized void setInput(byte[] buffer, int off, int len) {
     SnappyUtil.validateBuffer(buffer, off, len);
 
-    if (inputBuffer.capacity() < len) {
-      inputBuffer = ByteBuffer.allocateDirect(len);
+    if (inputBuffer.capacity() - inputBuffer.position() < len) {
+      // grow the buffer, keeping the input received so far
+      ByteBuffer newBuffer = ByteBuffer.allocateDirect(inputBuffer.position() + len);
+      inputBuffer.flip();
+      newBuffer.put(inputBuffer);
+      inputBuffer = newBuffer;
+    } else {
+      inputBuffer.limit(inputBuffer.position() + len);
     }
 
-    // Clear the input direct buffer and put all the input data there.
-    inputBuffer.clear();
+    // Append the input data to the input direct buffer.
     inputBuffer.put(buffer, off, len);
-    inputBuffer.rewind();
-    inputBuffer.limit(len);
   }
 
   @Override
@@ -83,7 +83,7 @@ public class DeprecatedParquetInputFormat<V> extends org.apache.hadoop.mapred.Fi
       splitLen = oldSplit.getLength();
 
       try {
-        realReader = new ParquetRecordReader<V>(newInputFormat.getReadSupport(oldJobConf));
+        realReader = new ParquetRecordReader<V>(newInputFormat.getReadSupport(oldJobConf), ParquetInputFormat.getUnboundRecordFilter(oldJobConf));
         realReader.initialize(((ParquetInputSplitWrapper)oldSplit).realSplit, oldJobConf);
 
         // read once to gain access to key and value objects
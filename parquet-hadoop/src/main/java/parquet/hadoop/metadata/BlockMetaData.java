@@ -19,6 +19,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.codehaus.jackson.annotate.JsonIgnore;
 
 /**
  * Block metadata stored in the footer and passed in an InputSplit
@@ -96,6 +97,19 @@ public class BlockMetaData implements Serializable {
     return columns;
   }
 
+  /**
+   *
+   * @return the compressed size of all the columns of the block
+   */
+  @JsonIgnore
+  public long getCompressedSize() {
+    long compressedSize = 0;
+    for (ColumnChunkMetaData column : columns) {
+      compressedSize += column.getTotalSize();
+    }
+    return compressedSize;
+  }
+
   @Override
   public String toString() {
     return "BlockMetaData{" + rowCount + ", " + totalByteSize + " " + columns + "}";
@@ -16,50 +16,91 @@
 package parquet.hadoop.metadata;
 
 import java.io.Serializable;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
+import org.codehaus.jackson.annotate.JsonIgnore;
+
 import parquet.column.Encoding;
 import parquet.schema.PrimitiveType.PrimitiveTypeName;
 
 
 /**
- * Column meta data for a block stored in the file footer and passed in the InputSplit
+ * Column meta data for a block stored in the file footer and passed in the InputSplit.
+ * The properties shared by all the chunks of a column are interned
+ * and the offsets and sizes are stored as ints when they fit.
+ *
  * @author Julien Le Dem
  *
  */
 public class ColumnChunkMetaData implements Serializable {
   private static final long serialVersionUID = 1L;
 
-  private final CompressionCodecName codec;
-  private final String[] path;
-  private final PrimitiveTypeName type;
-  private final List<Encoding> encodings;
-
-  private long firstDataPage;
-  private long dictionaryPageOffset;
+  /**
+   * @param path column identifier
+   * @param type type of the column
+   * @param codec the codec used to compress the chunk
+   * @param encodings the encodings used in the chunk
+   * @param firstDataPage offset in the file of the first data page
+   * @param dictionaryPageOffset offset in the file of the dictionary page if any
+   * @param valueCount count of values in this chunk
+   * @param totalSize total size of the chunk in the file
+   * @param totalUncompressedSize total size of the chunk once uncompressed
+   * @return the column chunk metadata
+   */
+  public static ColumnChunkMetaData get(
+      ColumnPath path,
+      PrimitiveTypeName type,
+      CompressionCodecName codec,
+      Collection<Encoding> encodings,
+      long firstDataPage,
+      long dictionaryPageOffset,
+      long valueCount,
+      long totalSize,
+      long totalUncompressedSize) {
+    ColumnChunkProperties properties = ColumnChunkProperties.get(path, type, codec, encodings);
+    if (IntColumnChunkMetaData.fits(firstDataPage)
+        && IntColumnChunkMetaData.fits(dictionaryPageOffset)
+        && IntColumnChunkMetaData.fits(valueCount)
+        && IntColumnChunkMetaData.fits(totalSize)
+        && IntColumnChunkMetaData.fits(totalUncompressedSize)) {
+      return new IntColumnChunkMetaData(properties, firstDataPage, dictionaryPageOffset, valueCount, totalSize, totalUncompressedSize);
+    }
+    return new LongColumnChunkMetaData(properties, firstDataPage, dictionaryPageOffset, valueCount, totalSize, totalUncompressedSize);
+  }
 
-  // for info
-  private long valueCount;
-  private long totalSize;
+  private final ColumnChunkProperties properties;
 
-  private long totalUncompressedSize;
+  // only used by the deprecated mutable instances
+  private final LongColumnChunkMetaData mutable;
 
+  ColumnChunkMetaData(ColumnChunkProperties properties) {
+    this.properties = properties;
+    this.mutable = null;
+  }
 
   /**
    * @param path column identifier
    * @param type type of the column
-   * @param encodings
+   * @param codec the codec used to compress the chunk
+   * @param encodings the encodings used in the chunk
+   * @deprecated use {@link #get(ColumnPath, PrimitiveTypeName, CompressionCodecName, Collection, long, long, long, long, long)}
    */
+  @Deprecated
   public ColumnChunkMetaData(String[] path, PrimitiveTypeName type, CompressionCodecName codec, List<Encoding> encodings) {
-    this.path = path;
-    this.type = type;
-    this.codec = codec;
-    this.encodings = encodings;
+    this.properties = ColumnChunkProperties.get(ColumnPath.get(path), type, codec, encodings);
+    this.mutable = new LongColumnChunkMetaData(properties, 0, 0, 0, 0, 0);
+  }
+
+  private LongColumnChunkMetaData mutable() {
+    if (mutable == null) {
+      throw new IllegalStateException("column chunk metadata created with get() is immutable");
+    }
+    return mutable;
   }
 
   public CompressionCodecName getCodec() {
-    return codec;
+    return properties.getCodec();
   }
 
   /**
@@ -67,96 +108,230 @@ public class ColumnChunkMetaData implements Serializable {
    * @return column identifier
    */
   public String[] getPath() {
-    return path;
+    return properties.getPath().toArray();
+  }
+
+  /**
+   * @return column identifier
+   */
+  @JsonIgnore
+  public ColumnPath getColumnPath() {
+    return properties.getPath();
   }
 
   /**
    * @return type of the column
    */
   public PrimitiveTypeName getType() {
-    return type;
+    return properties.getType();
   }
 
   /**
-   * @param dataStart offset in the file where data starts
+   * @return start of the column data offset
    */
-  public void setFirstDataPageOffset(long firstDataPage) {
-    this.firstDataPage = firstDataPage;
+  public long getFirstDataPageOffset() {
+    return mutable().getFirstDataPageOffset();
   }
 
   /**
-   * @param dictionaryPageOffset offset in the file of the dictionary page
+   * @return the location of the dictionary page if any
    */
-  public void setDictionaryPageOffset(long dictionaryPageOffset) {
-    this.dictionaryPageOffset = dictionaryPageOffset;
+  public long getDictionaryPageOffset() {
+    return mutable().getDictionaryPageOffset();
   }
 
   /**
-   * @return start of the column data offset
+   * @return count of values in this block of the column
    */
-  public long getFirstDataPageOffset() {
-    return firstDataPage;
+  public long getValueCount() {
+    return mutable().getValueCount();
   }
 
   /**
-   * @return the location of the dictionary page if any
+   * @return the totalUncompressedSize
    */
-  public long getDictionaryPageOffset() {
-    return dictionaryPageOffset;
+  public long getTotalUncompressedSize() {
+    return mutable().getTotalUncompressedSize();
   }
 
   /**
-   * @param valueCount count of values in this block of the column
+   * @return the totalSize
    */
-  public void setValueCount(long valueCount) {
-    this.valueCount = valueCount;
+  public long getTotalSize() {
+    return mutable().getTotalSize();
   }
 
   /**
-   * @return count of values in this block of the column
+   * @return all the encodings used in this column
    */
-  public long getValueCount() {
-    return valueCount;
+  public List<Encoding> getEncodings() {
+    return properties.getEncodings();
   }
 
   /**
-   * @return the totalUncompressedSize
+   * @param firstDataPage offset in the file where data starts
+   * @deprecated the metadata created with get() is immutable
    */
-  public long getTotalUncompressedSize() {
-    return totalUncompressedSize;
+  @Deprecated
+  public void setFirstDataPageOffset(long firstDataPage) {
+    mutable().firstDataPage = firstDataPage;
   }
 
   /**
-   * @param totalUncompressedSize the totalUncompressedSize to set
+   * @param dictionaryPageOffset offset in the file of the dictionary page
+   * @deprecated the metadata created with get() is immutable
    */
-  public void setTotalUncompressedSize(long totalUncompressedSize) {
-    this.totalUncompressedSize = totalUncompressedSize;
+  @Deprecated
+  public void setDictionaryPageOffset(long dictionaryPageOffset) {
+    mutable().dictionaryPageOffset = dictionaryPageOffset;
   }
 
   /**
-   * @return the totalSize
+   * @param valueCount count of values in this block of the column
+   * @deprecated the metadata created with get() is immutable
    */
-  public long getTotalSize() {
-    return totalSize;
+  @Deprecated
+  public void setValueCount(long valueCount) {
+    mutable().valueCount = valueCount;
   }
 
   /**
-   * @param totalSize the totalSize to set
+   * @param totalUncompressedSize the totalUncompressedSize to set
+   * @deprecated the metadata created with get() is immutable
    */
-  public void setTotalSize(long totalSize) {
-    this.totalSize = totalSize;
+  @Deprecated
+  public void setTotalUncompressedSize(long totalUncompressedSize) {
+    mutable().totalUncompressedSize = totalUncompressedSize;
   }
 
   /**
-   * @return all the encodings used in this column
+   * @param totalSize the totalSize to set
+   * @deprecated the metadata created with get() is immutable
    */
-  public List<Encoding> getEncodings() {
-    return encodings;
+  @Deprecated
+  public void setTotalSize(long totalSize) {
+    mutable().totalSize = totalSize;
   }
 
   @Override
   public String toString() {
-    return "ColumnMetaData{" + codec + ", " + firstDataPage + ", " + Arrays.toString(path) + "}";
+    return "ColumnMetaData{" + getCodec() + ", " + getFirstDataPageOffset() + ", " + getColumnPath() + "}";
+  }
+
+  /**
+   * stores the values as ints shifted by Integer.MIN_VALUE
+   */
+  static final class IntColumnChunkMetaData extends ColumnChunkMetaData {
+    private static final long serialVersionUID = 1L;
+
+    private final int firstDataPage;
+    private final int dictionaryPageOffset;
+    private final int valueCount;
+    private final int totalSize;
+    private final int totalUncompressedSize;
+
+    static boolean fits(long value) {
+      return value >= 0 && value + Integer.MIN_VALUE <= Integer.MAX_VALUE;
+    }
+
+    private static int toInt(long value) {
+      return (int)(value + Integer.MIN_VALUE);
+    }
+
+    private static long toLong(int value) {
+      return (long)value - Integer.MIN_VALUE;
+    }
+
+    IntColumnChunkMetaData(
+        ColumnChunkProperties properties,
+        long firstDataPage,
+        long dictionaryPageOffset,
+        long valueCount,
+        long totalSize,
+        long totalUncompressedSize) {
+      super(properties);
+      this.firstDataPage = toInt(firstDataPage);
+      this.dictionaryPageOffset = toInt(dictionaryPageOffset);
+      this.valueCount = toInt(valueCount);
+      this.totalSize = toInt(totalSize);
+      this.totalUncompressedSize = toInt(totalUncompressedSize);
+    }
+
+    @Override
+    public long getFirstDataPageOffset() {
+      return toLong(firstDataPage);
+    }
+
+    @Override
+    public long getDictionaryPageOffset() {
+      return toLong(dictionaryPageOffset);
+    }
+
+    @Override
+    public long getValueCount() {
+      return toLong(valueCount);
+    }
+
+    @Override
+    public long getTotalUncompressedSize() {
+      return toLong(totalUncompressedSize);
+    }
+
+    @Override
+    public long getTotalSize() {
+      return toLong(totalSize);
+    }
+  }
+
+  static final class LongColumnChunkMetaData extends ColumnChunkMetaData {
+    private static final long serialVersionUID = 1L;
+
+    // not final for the deprecated setters of mutable instances
+    private long firstDataPage;
+    private long dictionaryPageOffset;
+    private long valueCount;
+    private long totalSize;
+    private long totalUncompressedSize;
+
+    LongColumnChunkMetaData(
+        ColumnChunkProperties properties,
+        long firstDataPage,
+        long dictionaryPageOffset,
+        long valueCount,
+        long totalSize,
+        long totalUncompressedSize) {
+      super(properties);
+      this.firstDataPage = firstDataPage;
+      this.dictionaryPageOffset = dictionaryPageOffset;
+      this.valueCount = valueCount;
+      this.totalSize = totalSize;
+      this.totalUncompressedSize = totalUncompressedSize;
+    }
+
+    @Override
+    public long getFirstDataPageOffset() {
+      return firstDataPage;
+    }
+
+    @Override
+    public long getDictionaryPageOffset() {
+      return dictionaryPageOffset;
+    }
+
+    @Override
+    public long getValueCount() {
+      return valueCount;
+    }
+
+    @Override
+    public long getTotalUncompressedSize() {
+      return totalUncompressedSize;
+    }
+
+    @Override
+    public long getTotalSize() {
+      return totalSize;
+    }
   }
 
 }
@@ -0,0 +1,117 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop.metadata;
+
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import parquet.column.Encoding;
+import parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+/**
+ * The properties of a column chunk that are usually the same for all the chunks of a column.
+ * Instances are interned and shared across row groups and files.
+ *
+ */
+final class ColumnChunkProperties implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  // weakly referenced: instances are shared as long as one of them is in use
+  private static final Map<ColumnChunkProperties, WeakReference<ColumnChunkProperties>> PROPERTIES = new WeakHashMap<ColumnChunkProperties, WeakReference<ColumnChunkProperties>>();
+
+  static ColumnChunkProperties get(ColumnPath path, PrimitiveTypeName type, CompressionCodecName codec, Collection<Encoding> encodings) {
+    EnumSet<Encoding> encodingSet = EnumSet.noneOf(Encoding.class);
+    encodingSet.addAll(encodings);
+    return canonicalize(new ColumnChunkProperties(codec, path, type, encodingSet));
+  }
+
+  private static ColumnChunkProperties canonicalize(ColumnChunkProperties properties) {
+    synchronized (PROPERTIES) {
+      WeakReference<ColumnChunkProperties> ref = PROPERTIES.get(properties);
+      ColumnChunkProperties canonical = ref == null ? null : ref.get();
+      if (canonical == null) {
+        PROPERTIES.put(properties, new WeakReference<ColumnChunkProperties>(properties));
+        canonical = properties;
+      }
+      return canonical;
+    }
+  }
+
+  private final CompressionCodecName codec;
+  private final ColumnPath path;
+  private final PrimitiveTypeName type;
+  // a bitset
+  private final EnumSet<Encoding> encodings;
+  private transient List<Encoding> encodingList;
+
+  private ColumnChunkProperties(CompressionCodecName codec, ColumnPath path, PrimitiveTypeName type, EnumSet<Encoding> encodings) {
+    this.codec = codec;
+    this.path = path;
+    this.type = type;
+    this.encodings = encodings;
+  }
+
+  CompressionCodecName getCodec() {
+    return codec;
+  }
+
+  ColumnPath getPath() {
+    return path;
+  }
+
+  PrimitiveTypeName getType() {
+    return type;
+  }
+
+  List<Encoding> getEncodings() {
+    if (encodingList == null) {
+      // races only create identical lists
+      encodingList = Collections.unmodifiableList(new ArrayList<Encoding>(encodings));
+    }
+    return encodingList;
+  }
+
+  private Object readResolve() {
+    return canonicalize(this);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof ColumnChunkProperties) {
+      ColumnChunkProperties other = (ColumnChunkProperties)obj;
+      return codec == other.codec && type == other.type && path.equals(other.path) && encodings.equals(other.encodings);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return ((codec.hashCode() * 31 + type.hashCode()) * 31 + path.hashCode()) * 31 + encodings.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return codec + " " + path + " " + type + " " + encodings;
+  }
+
+}
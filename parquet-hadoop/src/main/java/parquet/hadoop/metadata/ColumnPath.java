@@ -0,0 +1,94 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop.metadata;
+
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The path of a column in the schema.
+ * Instances are interned so that all the column chunks of a column share the same one.
+ *
+ */
+public final class ColumnPath implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  // weakly referenced: instances are shared as long as one of them is in use
+  private static final Map<ColumnPath, WeakReference<ColumnPath>> PATHS = new WeakHashMap<ColumnPath, WeakReference<ColumnPath>>();
+
+  /**
+   * @param path the names of the fields from the root to the column
+   * @return the canonical instance for this path
+   */
+  public static ColumnPath get(String... path) {
+    return canonicalize(new ColumnPath(path.clone()));
+  }
+
+  private static ColumnPath canonicalize(ColumnPath path) {
+    synchronized (PATHS) {
+      WeakReference<ColumnPath> ref = PATHS.get(path);
+      ColumnPath canonical = ref == null ? null : ref.get();
+      if (canonical == null) {
+        PATHS.put(path, new WeakReference<ColumnPath>(path));
+        canonical = path;
+      }
+      return canonical;
+    }
+  }
+
+  private final String[] p;
+
+  private ColumnPath(String[] path) {
+    for (int i = 0; i < path.length; i++) {
+      path[i] = path[i].intern();
+    }
+    this.p = path;
+  }
+
+  /**
+   * @return a copy of the names of the fields from the root to the column
+   */
+  public String[] toArray() {
+    // the array of an interned instance must not be modified
+    return p.clone();
+  }
+
+  private Object readResolve() {
+    return canonicalize(this);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof ColumnPath) {
+      return Arrays.equals(p, ((ColumnPath)obj).p);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(p);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(p);
+  }
+
+}
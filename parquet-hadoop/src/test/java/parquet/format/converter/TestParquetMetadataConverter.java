@@ -15,25 +15,43 @@
  */
 package parquet.format.converter;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static parquet.format.Util.readPageHeader;
+import static parquet.format.Util.writeFileMetaData;
 import static parquet.format.Util.writePageHeader;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 
 import parquet.column.Encoding;
 import parquet.example.Paper;
 import parquet.format.FieldRepetitionType;
+import parquet.format.KeyValue;
 import parquet.format.PageHeader;
 import parquet.format.PageType;
+import parquet.format.RowGroup;
 import parquet.format.SchemaElement;
 import parquet.format.Type;
+import parquet.format.converter.ParquetMetadataConverter.MetadataFilter;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.ColumnPath;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.hadoop.metadata.FileMetaData;
+import parquet.hadoop.metadata.ParquetMetadata;
 import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
 import parquet.schema.PrimitiveType.PrimitiveTypeName;
 import parquet.schema.Type.Repetition;
 
@@ -59,6 +77,84 @@ public class TestParquetMetadataConverter {
     assertEquals(Paper.schema, schema);
   }
 
+  @Test
+  public void testMetadataFilter() throws IOException {
+    MessageType schema = MessageTypeParser.parseMessageType("message m { required int64 a; required int64 b; required int64 c; }");
+    BlockMetaData block = new BlockMetaData();
+    block.setRowCount(1);
+    for (String[] path : schema.getPaths()) {
+      ColumnChunkMetaData column = ColumnChunkMetaData.get(ColumnPath.get(path), PrimitiveTypeName.INT64, CompressionCodecName.UNCOMPRESSED, Arrays.asList(Encoding.PLAIN), 4, 0, 1, 10, 10);
+      block.addColumn(column);
+    }
+    Map<String, String> keyValues = new HashMap<String, String>();
+    keyValues.put("k1", "v1");
+    keyValues.put("k2", "v2");
+    ParquetMetadata metadata = new ParquetMetadata(new FileMetaData(schema, keyValues, "test"), Arrays.asList(block));
+
+    ParquetMetadataConverter c = new ParquetMetadataConverter();
+    parquet.format.FileMetaData parquetMetadata = c.toParquetMetadata(1, metadata);
+    assertEquals(ParquetMetadata.toJSON(metadata), ParquetMetadata.toJSON(c.fromParquetMetadata(parquetMetadata)));
+
+    MetadataFilter filter = new MetadataFilter(Arrays.<String[]>asList(new String[] {"c"}), Arrays.asList("k2"));
+    ParquetMetadata filtered = c.fromParquetMetadata(parquetMetadata, filter);
+    assertEquals(schema, filtered.getFileMetaData().getSchema());
+    List<ColumnChunkMetaData> columns = filtered.getBlocks().get(0).getColumns();
+    // the first column is always kept
+    assertEquals(2, columns.size());
+    assertArrayEquals(new String[] {"a"}, columns.get(0).getPath());
+    assertArrayEquals(new String[] {"c"}, columns.get(1).getPath());
+    // paths and encodings are shared
+    assertSame(block.getColumns().get(2).getColumnPath(), columns.get(1).getColumnPath());
+    assertSame(block.getColumns().get(2).getEncodings(), columns.get(1).getEncodings());
+    assertEquals(Collections.singletonMap("k2", "v2"), filtered.getFileMetaData().getKeyValueMetaData());
+  }
+
+  @Test
+  public void testFilteredFileMetaDataReader() throws IOException {
+    MessageType schema = MessageTypeParser.parseMessageType("message m { required int64 a; required int64 b; required int64 c; }");
+    List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+    for (int i = 0; i < 3; i++) {
+      BlockMetaData block = new BlockMetaData();
+      block.setRowCount(i + 1);
+      block.setTotalByteSize(30);
+      for (String[] path : schema.getPaths()) {
+        ColumnChunkMetaData column = ColumnChunkMetaData.get(ColumnPath.get(path), PrimitiveTypeName.INT64, CompressionCodecName.SNAPPY, Arrays.asList(Encoding.PLAIN), 4 + i * 30, 0, i + 1, 10, 12);
+        block.addColumn(column);
+      }
+      blocks.add(block);
+    }
+    Map<String, String> keyValues = new HashMap<String, String>();
+    keyValues.put("k1", "v1");
+    keyValues.put("k2", "v2");
+    ParquetMetadataConverter c = new ParquetMetadataConverter();
+    parquet.format.FileMetaData parquetMetadata = c.toParquetMetadata(1, new ParquetMetadata(new FileMetaData(schema, keyValues, "test"), blocks));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writeFileMetaData(parquetMetadata, out);
+    byte[] footer = out.toByteArray();
+
+    MetadataFilter filter = new MetadataFilter(Arrays.<String[]>asList(new String[] {"c"}), Arrays.asList("k2"));
+    // the chunks and values filtered out are not decoded
+    parquet.format.FileMetaData decoded = new FilteredFileMetaDataReader(filter).read(new ByteArrayInputStream(footer));
+    assertEquals(parquetMetadata.getSchema(), decoded.getSchema());
+    assertEquals(3, decoded.getRow_groups().size());
+    for (int i = 0; i < 3; i++) {
+      RowGroup rowGroup = parquetMetadata.getRow_groups().get(i);
+      RowGroup decodedRowGroup = decoded.getRow_groups().get(i);
+      assertEquals(rowGroup.getNum_rows(), decodedRowGroup.getNum_rows());
+      assertEquals(rowGroup.getTotal_byte_size(), decodedRowGroup.getTotal_byte_size());
+      assertEquals(Arrays.asList(rowGroup.getColumns().get(0), rowGroup.getColumns().get(2)), decodedRowGroup.getColumns());
+    }
+    assertEquals(Arrays.asList(new KeyValue("k2").setValue("v2")), decoded.getKey_value_metadata());
+    assertEquals("test", decoded.getCreated_by());
+
+    assertEquals(
+        ParquetMetadata.toJSON(c.fromParquetMetadata(parquetMetadata, filter)),
+        ParquetMetadata.toJSON(c.readParquetMetadata(new ByteArrayInputStream(footer), filter)));
+    assertEquals(
+        ParquetMetadata.toJSON(c.fromParquetMetadata(parquetMetadata)),
+        ParquetMetadata.toJSON(c.readParquetMetadata(new ByteArrayInputStream(footer), MetadataFilter.NO_FILTER)));
+  }
+
   @Test
   public void testEnumEquivalence() {
     ParquetMetadataConverter c = new ParquetMetadataConverter();
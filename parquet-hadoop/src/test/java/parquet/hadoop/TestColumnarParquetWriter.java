@@ -0,0 +1,192 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Test;
+
+import parquet.column.ColumnDescriptor;
+import parquet.example.data.Group;
+import parquet.hadoop.example.GroupReadSupport;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.io.ParquetEncodingException;
+import parquet.io.api.Binary;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+
+public class TestColumnarParquetWriter {
+
+  private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+      "message example { required int32 a; optional binary b; repeated int32 c; }");
+  private static final ColumnDescriptor A = SCHEMA.getColumnDescription(new String[] {"a"});
+  private static final ColumnDescriptor B = SCHEMA.getColumnDescription(new String[] {"b"});
+  private static final ColumnDescriptor C = SCHEMA.getColumnDescription(new String[] {"c"});
+
+  private static final int RECORDS_PER_ROW_GROUP = 500;
+
+  private void writeRowGroup(ColumnarParquetWriter writer, int first, int count) {
+    int[] a = new int[count];
+    List<Binary> b = new ArrayList<Binary>();
+    int[] bD = new int[count];
+    List<Integer> c = new ArrayList<Integer>();
+    List<Integer> cR = new ArrayList<Integer>();
+    List<Integer> cD = new ArrayList<Integer>();
+    for (int i = 0; i < count; i++) {
+      int record = first + i;
+      a[i] = record;
+      if (record % 3 != 0) {
+        b.add(Binary.fromString("b" + record));
+        bD[i] = 1;
+      }
+      int repeated = record % 4;
+      if (repeated == 0) {
+        cR.add(0);
+        cD.add(0);
+      }
+      for (int k = 0; k < repeated; k++) {
+        c.add(record * 10 + k);
+        cR.add(k == 0 ? 0 : 1);
+        cD.add(1);
+      }
+    }
+    // the required column is written in two batches
+    int half = count / 2;
+    int[] a1 = new int[half];
+    int[] a2 = new int[count - half];
+    System.arraycopy(a, 0, a1, 0, a1.length);
+    System.arraycopy(a, half, a2, 0, a2.length);
+    writer.writeBatch(A, a1, null, null, a1.length);
+    writer.writeBatch(A, a2, null, null, a2.length);
+    writer.writeBatch(B, b.toArray(new Binary[b.size()]), null, bD, count);
+    writer.writeBatch(C, toArray(c), toArray(cR), toArray(cD), cR.size());
+  }
+
+  private static int[] toArray(List<Integer> list) {
+    int[] array = new int[list.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = list.get(i);
+    }
+    return array;
+  }
+
+  @Test
+  public void testWriteBatches() throws IOException {
+    Configuration conf = new Configuration();
+    Path file = new Path("target/test/TestColumnarParquetWriter/testWriteBatches.parquet");
+    FileSystem fs = file.getFileSystem(conf);
+    fs.delete(file, true);
+
+    ColumnarParquetWriter writer = new ColumnarParquetWriter(
+        file, SCHEMA, new HashMap<String, String>(), CompressionCodecName.UNCOMPRESSED, 1024 * 1024, 1024, false);
+    writeRowGroup(writer, 0, RECORDS_PER_ROW_GROUP);
+    writer.endRowGroup();
+    writeRowGroup(writer, RECORDS_PER_ROW_GROUP, RECORDS_PER_ROW_GROUP);
+    writer.close();
+
+    ParquetMetadata footer = ParquetFileReader.readFooter(conf, file);
+    assertEquals(2, footer.getBlocks().size());
+    assertEquals(RECORDS_PER_ROW_GROUP, footer.getBlocks().get(0).getRowCount());
+
+    ParquetReader<Group> reader = new ParquetReader<Group>(file, new GroupReadSupport());
+    for (int record = 0; record < 2 * RECORDS_PER_ROW_GROUP; record++) {
+      Group group = reader.read();
+      assertEquals(record, group.getInteger("a", 0));
+      if (record % 3 != 0) {
+        assertEquals("b" + record, group.getString("b", 0));
+      } else {
+        assertEquals(0, group.getFieldRepetitionCount("b"));
+      }
+      assertEquals(record % 4, group.getFieldRepetitionCount("c"));
+      for (int k = 0; k < record % 4; k++) {
+        assertEquals(record * 10 + k, group.getInteger("c", k));
+      }
+    }
+    assertNull(reader.read());
+    reader.close();
+  }
+
+  @Test
+  public void testRecordCountMismatch() throws IOException {
+    Path file = new Path("target/test/TestColumnarParquetWriter/testRecordCountMismatch.parquet");
+    file.getFileSystem(new Configuration()).delete(file, true);
+    ColumnarParquetWriter writer = new ColumnarParquetWriter(
+        file, SCHEMA, new HashMap<String, String>(), CompressionCodecName.UNCOMPRESSED, 1024 * 1024, 1024, false);
+    writer.writeBatch(A, new int[] {1, 2}, null, null, 2);
+    writer.writeBatch(B, new Binary[] {Binary.fromString("b")}, null, new int[] {1, 0}, 2);
+    writer.writeBatch(C, new int[0], new int[] {0}, new int[] {0}, 1);
+    try {
+      writer.endRowGroup();
+      fail("the row group should be rejected");
+    } catch (ParquetEncodingException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testRejectedBatchIsNotCounted() throws IOException {
+    Configuration conf = new Configuration();
+    Path file = new Path("target/test/TestColumnarParquetWriter/testRejectedBatchIsNotCounted.parquet");
+    file.getFileSystem(conf).delete(file, true);
+    ColumnarParquetWriter writer = new ColumnarParquetWriter(
+        conf, file, SCHEMA, new HashMap<String, String>(), CompressionCodecName.UNCOMPRESSED, 1024 * 1024, 1024, false);
+    writer.writeBatch(A, new int[] {1, 2}, null, null, 2);
+    try {
+      // one value for two defined levels
+      writer.writeBatch(B, new Binary[] {Binary.fromString("b")}, null, new int[] {1, 1}, 2);
+      fail("the batch should be rejected");
+    } catch (ParquetEncodingException e) {
+      // expected
+    }
+    writer.writeBatch(B, new Binary[] {Binary.fromString("b")}, null, new int[] {1, 0}, 2);
+    writer.writeBatch(C, new int[0], new int[] {0, 0}, new int[] {0, 0}, 2);
+    writer.close();
+    assertEquals(2, ParquetFileReader.readFooter(conf, file).getBlocks().get(0).getRowCount());
+  }
+
+  @Test
+  public void testEmptyRowGroupIsNotWritten() throws IOException {
+    Configuration conf = new Configuration();
+    Path file = new Path("target/test/TestColumnarParquetWriter/testEmptyRowGroupIsNotWritten.parquet");
+    file.getFileSystem(conf).delete(file, true);
+    ColumnarParquetWriter writer = new ColumnarParquetWriter(
+        conf, file, SCHEMA, new HashMap<String, String>(), CompressionCodecName.UNCOMPRESSED, 1024 * 1024, 1024, false);
+    writer.writeBatch(A, new int[0], null, null, 0);
+    writer.endRowGroup();
+    writeRowGroup(writer, 0, RECORDS_PER_ROW_GROUP);
+    writer.close();
+
+    ParquetMetadata footer = ParquetFileReader.readFooter(conf, file);
+    assertEquals(1, footer.getBlocks().size());
+    ParquetReader<Group> reader = new ParquetReader<Group>(file, new GroupReadSupport());
+    for (int record = 0; record < RECORDS_PER_ROW_GROUP; record++) {
+      assertEquals(record, reader.read().getInteger("a", 0));
+    }
+    assertNull(reader.read());
+    reader.close();
+  }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.junit.Test;
+
+import parquet.column.Encoding;
+import parquet.example.data.Group;
+import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.hadoop.example.GroupReadSupport;
+import parquet.hadoop.example.GroupWriteSupport;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.ColumnPath;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+import parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+public class TestCombineParquetInputFormat {
+
+  private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+      "message example { required int32 file; required int32 line; }");
+
+  @Test
+  public void testCombineSplits() throws IOException, InterruptedException {
+    List<ParquetInputSplit> splits = new ArrayList<ParquetInputSplit>();
+    for (int i = 0; i < 10; i++) {
+      List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+      BlockMetaData block = new BlockMetaData();
+      block.addColumn(ColumnChunkMetaData.get(ColumnPath.get("foo"), PrimitiveTypeName.BINARY, CompressionCodecName.GZIP, Arrays.asList(Encoding.PLAIN), 4, 0, 0, 10, 10));
+      blocks.add(block);
+      splits.add(new ParquetInputSplit(new Path("hdfs://foo.namenode:1234/bar" + i), 0, 14, new String[] { "h" + (i % 2) }, blocks, "message foo {}", "message foo {}", "message foo {}", null, null));
+    }
+    List<CombineParquetInputSplit> combined = CombineParquetInputFormat.combineSplits(splits, 30);
+    // 3 splits local to h0, 3 local to h1, then the 4 remaining ones
+    assertEquals(combined.toString(), 4, combined.size());
+    assertArrayEquals(new String[] { "h0" }, combined.get(0).getLocations());
+    assertEquals(Arrays.asList(splits.get(0), splits.get(2), splits.get(4)), combined.get(0).getSplits());
+    assertArrayEquals(new String[] { "h1" }, combined.get(1).getLocations());
+    assertEquals(Arrays.asList(splits.get(6), splits.get(7), splits.get(8)), combined.get(2).getSplits());
+    assertEquals(Arrays.asList(splits.get(9)), combined.get(3).getSplits());
+    assertArrayEquals(new String[] { "h1" }, combined.get(3).getLocations());
+    assertEquals(1, CombineParquetInputFormat.combineSplits(splits, Long.MAX_VALUE).size());
+    assertEquals(10, CombineParquetInputFormat.combineSplits(splits, 1).size());
+  }
+
+  @Test
+  public void testReadCombined() throws Exception {
+    testReadCombined(false);
+    testReadCombined(true);
+  }
+
+  private void testReadCombined(boolean taskSideMetadata) throws Exception {
+    Configuration conf = new Configuration();
+    Path root = new Path("target/test/TestCombineParquetInputFormat/");
+    FileSystem fs = root.getFileSystem(conf);
+    fs.delete(root, true);
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    Set<String> expected = new HashSet<String>();
+    for (int file = 0; file < 5; file++) {
+      ParquetWriter<Group> writer = new ParquetWriter<Group>(new Path(root, "part-" + file + ".parquet"), new GroupWriteSupport() {
+        @Override
+        public WriteContext init(Configuration configuration) {
+          setSchema(SCHEMA, configuration);
+          return super.init(configuration);
+        }
+      });
+      for (int line = 0; line < 10; line++) {
+        writer.write(factory.newGroup().append("file", file).append("line", line));
+        expected.add(file + ":" + line);
+      }
+      writer.close();
+    }
+
+    Job job = new Job(conf);
+    CombineParquetInputFormat.setInputPaths(job, root);
+    ParquetInputFormat.setTaskSideMetadata(job, taskSideMetadata);
+    CombineParquetInputFormat<Group> inputFormat = new CombineParquetInputFormat<Group>(GroupReadSupport.class);
+    List<InputSplit> splits = inputFormat.getSplits(job);
+    assertEquals(1, splits.size());
+    CombineParquetInputSplit split = (CombineParquetInputSplit)splits.get(0);
+    assertEquals(5, split.getSplits().size());
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    split.write(new DataOutputStream(baos));
+    CombineParquetInputSplit read = new CombineParquetInputSplit();
+    read.readFields(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
+    assertEquals(split.toString(), read.toString());
+
+    CombineParquetRecordReader<Group> reader = new CombineParquetRecordReader<Group>(inputFormat);
+    reader.initialize(read, job.getConfiguration());
+    Set<String> actual = new HashSet<String>();
+    int count = 0;
+    while (reader.nextKeyValue()) {
+      Group group = reader.getCurrentValue();
+      actual.add(group.getInteger("file", 0) + ":" + group.getInteger("line", 0));
+      ++ count;
+    }
+    assertEquals(1.0f, reader.getProgress(), 0);
+    reader.close();
+    assertEquals(50, count);
+    assertEquals(expected, actual);
+  }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static parquet.format.converter.ParquetMetadataConverter.MetadataFilter.NO_FILTER;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.junit.Test;
+
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.FileMetaData;
+import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.schema.MessageTypeParser;
+
+public class TestFooterCache {
+
+  private static ParquetMetadata footer() {
+    FileMetaData fileMetaData = new FileMetaData(
+        MessageTypeParser.parseMessageType("message m { required int64 a; }"),
+        new HashMap<String, String>(),
+        "test");
+    ArrayList<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+    blocks.add(new BlockMetaData());
+    return new ParquetMetadata(fileMetaData, blocks);
+  }
+
+  private static FileStatus status(String path, long length, long modificationTime) {
+    return new FileStatus(length, false, 1, 1024, modificationTime, new Path(path));
+  }
+
+  private static void assertSameFooter(ParquetMetadata expected, ParquetMetadata actual) {
+    assertEquals(ParquetMetadata.toJSON(expected), ParquetMetadata.toJSON(actual));
+  }
+
+  @Test
+  public void testCopies() {
+    FooterCache cache = new FooterCache(1024 * 1024);
+    ParquetMetadata footer = footer();
+    cache.put(status("/a", 100, 1), NO_FILTER, footer);
+    // modifying the footer put or the ones returned does not change the cached footer
+    footer.getBlocks().get(0).setPath("part-0");
+    ParquetMetadata cached = cache.get(status("/a", 100, 1), NO_FILTER);
+    assertNull(cached.getBlocks().get(0).getPath());
+    cached.getBlocks().get(0).setPath("part-1");
+    cached.getBlocks().add(new BlockMetaData());
+    cached.getFileMetaData().getKeyValueMetaData().put("key", "value");
+    ParquetMetadata cachedAgain = cache.get(status("/a", 100, 1), NO_FILTER);
+    assertNotSame(cached, cachedAgain);
+    assertSameFooter(footer(), cachedAgain);
+  }
+
+  @Test
+  public void testInvalidation() {
+    FooterCache cache = new FooterCache(1024 * 1024);
+    ParquetMetadata footer = footer();
+    cache.put(status("/a", 100, 1), NO_FILTER, footer);
+    assertSameFooter(footer, cache.get(status("/a", 100, 1), NO_FILTER));
+    assertNull(cache.get(status("/b", 100, 1), NO_FILTER));
+    assertNull(cache.get(status("/a", 100, 2), NO_FILTER));
+    // stale entries are dropped
+    assertNull(cache.get(status("/a", 100, 1), NO_FILTER));
+    cache.put(status("/a", 100, 1), NO_FILTER, footer);
+    assertNull(cache.get(status("/a", 101, 1), NO_FILTER));
+  }
+
+  @Test
+  public void testEviction() {
+    long footerSize = FooterCache.estimateSize(footer());
+    FooterCache cache = new FooterCache(footerSize * 2);
+    cache.put(status("/a", 100, 1), NO_FILTER, footer());
+    cache.put(status("/b", 100, 1), NO_FILTER, footer());
+    // a becomes the most recently used
+    cache.get(status("/a", 100, 1), NO_FILTER);
+    cache.put(status("/c", 100, 1), NO_FILTER, footer());
+    assertEquals(2, cache.getCount());
+    assertNull(cache.get(status("/b", 100, 1), NO_FILTER));
+    cache.setMaxSize(footerSize);
+    assertEquals(1, cache.getCount());
+    assertNull(cache.get(status("/a", 100, 1), NO_FILTER));
+    cache.setMaxSize(footerSize - 1);
+    assertEquals(0, cache.getCount());
+    cache.put(status("/a", 100, 1), NO_FILTER, footer());
+    assertEquals(0, cache.getCount());
+  }
+
+}
@@ -16,12 +16,21 @@
 package parquet.hadoop;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.hadoop.fs.BlockLocation;
 import org.apache.hadoop.fs.FileStatus;
@@ -32,9 +41,12 @@ import parquet.column.Encoding;
 import parquet.hadoop.api.ReadSupport;
 import parquet.hadoop.metadata.BlockMetaData;
 import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.ColumnPath;
 import parquet.hadoop.metadata.CompressionCodecName;
 import parquet.hadoop.metadata.FileMetaData;
+import parquet.hadoop.metadata.ParquetMetadata;
 import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
 import parquet.schema.PrimitiveType.PrimitiveTypeName;
 
 public class TestInputFormat {
@@ -53,7 +65,7 @@ public class TestInputFormat {
     FileMetaData fileMetaData = new FileMetaData(new MessageType("foo"), new HashMap<String, String>(), "parquet-mr");
     @SuppressWarnings("serial")
     List<ParquetInputSplit> splits = ParquetInputFormat.generateSplits(
-        blocks, hdfsBlocks, fileStatus, fileMetaData, ReadSupport.class, "", new HashMap<String, String>() {{put("specific", "foo");}});
+        blocks, hdfsBlocks, fileStatus, fileMetaData, ReadSupport.class, "", Collections.singleton(ColumnPath.get("foo")), new HashMap<String, String>() {{put("specific", "foo");}});
     assertEquals(splits.toString().replaceAll("([{])", "$0\n").replaceAll("([}])", "\n$0"), 2, splits.size());
     for (int i = 0; i < splits.size(); i++) {
       ParquetInputSplit parquetInputSplit = splits.get(i);
@@ -65,10 +77,163 @@ public class TestInputFormat {
     }
   }
 
+  @Test
+  public void testSplitSerialization() throws IOException, InterruptedException {
+    List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+    for (int i = 0; i < 3; i++) {
+      blocks.add(newBlock(i * 10));
+    }
+    blocks.get(1).setPath("part-0");
+    Map<String, String> extraMetadata = new HashMap<String, String>();
+    extraMetadata.put("foo", "bar");
+    extraMetadata.put("null", null);
+    String schema = "message foo { required binary foo; }";
+    ParquetInputSplit split = new ParquetInputSplit(
+        new Path("hdfs://foo.namenode:1234/bar"), 0, 30,
+        new String[] { "foo0.datanode", "bar0.datanode"},
+        blocks, schema, schema, new String(schema), extraMetadata, null);
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    split.write(new DataOutputStream(baos));
+    ParquetInputSplit read = new ParquetInputSplit();
+    read.readFields(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
+
+    assertEquals(split.toString(), read.toString());
+    assertEquals(ParquetMetadata.toJSON(new ParquetMetadata(null, blocks)), ParquetMetadata.toJSON(new ParquetMetadata(null, read.getBlocks())));
+    assertEquals(split.getStart(), read.getStart());
+    assertEquals(split.getPath(), read.getPath());
+    assertSame(read.getSchema(), read.getFileSchema());
+  }
+
+  @Test
+  public void testProjectedSplits() throws IOException, InterruptedException {
+    List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+    for (int i = 0; i < 10; i++) {
+      BlockMetaData block = new BlockMetaData();
+      block.addColumn(ColumnChunkMetaData.get(ColumnPath.get("foo"), PrimitiveTypeName.BINARY, CompressionCodecName.GZIP, Arrays.asList(Encoding.PLAIN), i * 100, 0, 0, 10, 10));
+      block.addColumn(ColumnChunkMetaData.get(ColumnPath.get("bar"), PrimitiveTypeName.BINARY, CompressionCodecName.GZIP, Arrays.asList(Encoding.PLAIN), i * 100 + 10, 0, 0, 90, 90));
+      blocks.add(block);
+    }
+    BlockLocation[] hdfsBlocks = new BlockLocation[] {
+        new BlockLocation(new String[0], new String[] { "foo0.datanode" }, 0, 500),
+        new BlockLocation(new String[0], new String[] { "foo1.datanode" }, 500, 500)
+    };
+    FileStatus fileStatus = new FileStatus(1000, false, 2, 500, 0, new Path("hdfs://foo.namenode:1234/bar"));
+    MessageType fileSchema = MessageTypeParser.parseMessageType("message m { required binary foo; required binary bar; }");
+    FileMetaData fileMetaData = new FileMetaData(fileSchema, new HashMap<String, String>(), "parquet-mr");
+    // only the 10 bytes of foo are counted in each row group
+    List<ParquetInputSplit> splits = ParquetInputFormat.generateProjectedSplits(
+        blocks, hdfsBlocks, fileStatus, fileMetaData, "message m { required binary foo; }", Collections.singleton(ColumnPath.get("foo")), new HashMap<String, String>(), 30);
+    assertEquals(4, splits.size());
+    assertEquals(blocks.subList(0, 3), splits.get(0).getBlocks());
+    assertEquals(blocks.subList(9, 10), splits.get(3).getBlocks());
+    assertEquals(300, splits.get(1).getStart());
+    assertEquals(300, splits.get(1).getLength());
+    assertEquals("[foo0.datanode, foo1.datanode]", Arrays.toString(splits.get(1).getLocations()));
+    assertEquals("[foo1.datanode]", Arrays.toString(splits.get(2).getLocations()));
+    splits = ParquetInputFormat.generateProjectedSplits(
+        blocks, hdfsBlocks, fileStatus, fileMetaData, fileSchema.toString(), new HashSet<ColumnPath>(Arrays.asList(ColumnPath.get("foo"), ColumnPath.get("bar"))), new HashMap<String, String>(), 300);
+    assertEquals(4, splits.size());
+  }
+
+  @Test
+  public void testProjectedSplitsOfFilteredFooter() throws IOException, InterruptedException {
+    // a filtered footer only keeps the chunks of foo: bar fills the rest of each row group
+    List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+    for (int i = 0; i < 10; i++) {
+      blocks.add(newBlock(i * 100, 10));
+    }
+    BlockLocation[] hdfsBlocks = new BlockLocation[] {
+        new BlockLocation(new String[0], new String[] { "foo0.datanode" }, 0, 500),
+        new BlockLocation(new String[0], new String[] { "foo1.datanode" }, 500, 500)
+    };
+    FileStatus fileStatus = new FileStatus(1000, false, 2, 500, 0, new Path("hdfs://foo.namenode:1234/bar"));
+    FileMetaData fileMetaData = new FileMetaData(
+        MessageTypeParser.parseMessageType("message m { required binary foo; required binary bar; }"), new HashMap<String, String>(), "parquet-mr");
+    List<ParquetInputSplit> splits = ParquetInputFormat.generateProjectedSplits(
+        blocks, hdfsBlocks, fileStatus, fileMetaData, "message m { required binary foo; }", Collections.singleton(ColumnPath.get("foo")), new HashMap<String, String>(), 30);
+    assertEquals(4, splits.size());
+    long end = 0;
+    for (ParquetInputSplit split : splits) {
+      // the splits cover the whole file without gaps
+      assertEquals(end, split.getStart());
+      end = split.getStart() + split.getLength();
+    }
+    assertEquals(1000, end);
+    assertEquals(300, splits.get(1).getLength());
+    for (BlockMetaData block : blocks) {
+      // each row group is selected by the split containing it
+      int selected = 0;
+      for (ParquetInputSplit split : splits) {
+        selected += ParquetInputFormat.selectBlocks(Arrays.asList(block), split.getStart(), split.getLength()).size();
+      }
+      assertEquals(1, selected);
+    }
+  }
+
+  @Test
+  public void testHostsWeightedByProjectedBytes() throws IOException, InterruptedException {
+    // a row group spanning two HDFS blocks: foo is in the first one and bar mostly in the second one
+    BlockMetaData block = new BlockMetaData();
+    block.addColumn(ColumnChunkMetaData.get(ColumnPath.get("foo"), PrimitiveTypeName.BINARY, CompressionCodecName.GZIP, Arrays.asList(Encoding.PLAIN), 0, 0, 0, 100, 100));
+    block.addColumn(ColumnChunkMetaData.get(ColumnPath.get("bar"), PrimitiveTypeName.BINARY, CompressionCodecName.GZIP, Arrays.asList(Encoding.PLAIN), 100, 0, 0, 300, 300));
+    List<BlockMetaData> blocks = Arrays.asList(block);
+    BlockLocation[] hdfsBlocks = new BlockLocation[] {
+        new BlockLocation(new String[0], new String[] { "foo0.datanode", "bar0.datanode" }, 0, 200),
+        new BlockLocation(new String[0], new String[] { "foo1.datanode", "bar0.datanode" }, 200, 200)
+    };
+    String[] defaultHosts = new String[] { "default.datanode" };
+    assertEquals("[bar0.datanode, foo1.datanode, foo0.datanode]", Arrays.toString(
+        ParquetInputFormat.getHosts(blocks, Collections.singleton(ColumnPath.get("bar")), hdfsBlocks, defaultHosts)));
+    // foo0 and bar0 store as many bytes of foo: they keep the order of the hdfs block
+    assertEquals("[foo0.datanode, bar0.datanode]", Arrays.toString(
+        ParquetInputFormat.getHosts(blocks, Collections.singleton(ColumnPath.get("foo")), hdfsBlocks, defaultHosts)));
+    assertEquals("[default.datanode]", Arrays.toString(
+        ParquetInputFormat.getHosts(blocks, Collections.singleton(ColumnPath.get("baz")), hdfsBlocks, defaultHosts)));
+  }
+
+  @Test
+  public void testSelectBlocks() throws IOException, InterruptedException {
+    List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+    for (int i = 0; i < 10; i++) {
+      blocks.add(newBlock(i * 10, 10));
+    }
+    // whatever the split boundaries, each row group is read exactly once
+    for (int splitSize = 1; splitSize <= 100; splitSize++) {
+      List<BlockMetaData> selected = new ArrayList<BlockMetaData>();
+      for (long start = 0; start < 100; start += splitSize) {
+        selected.addAll(ParquetInputFormat.selectBlocks(blocks, start, splitSize));
+      }
+      assertEquals("split size " + splitSize, blocks, selected);
+    }
+    assertEquals(blocks.subList(2, 5), ParquetInputFormat.selectBlocks(blocks, 20, 30));
+    assertEquals(blocks.subList(3, 5), ParquetInputFormat.selectBlocks(blocks, 26, 24));
+  }
+
+  @Test
+  public void testTaskSideSplitSerialization() throws IOException, InterruptedException {
+    ParquetInputSplit split = new ParquetInputSplit(
+        new Path("hdfs://foo.namenode:1234/bar"), 50, 50,
+        new String[] { "foo0.datanode", "bar0.datanode"});
+    assertTrue(split.isTaskSideMetadata());
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    split.write(new DataOutputStream(baos));
+    ParquetInputSplit read = new ParquetInputSplit();
+    read.readFields(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
+
+    assertTrue(read.isTaskSideMetadata());
+    assertEquals(split.toString(), read.toString());
+    assertEquals(0, read.getBlocks().size());
+  }
+
   private BlockMetaData newBlock(long start) {
+    return newBlock(start, 0);
+  }
+
+  private BlockMetaData newBlock(long start, long compressedSize) {
     BlockMetaData blockMetaData = new BlockMetaData();
-    ColumnChunkMetaData column = new ColumnChunkMetaData(new String[] {"foo"}, PrimitiveTypeName.BINARY, CompressionCodecName.GZIP, Arrays.asList(Encoding.PLAIN));
-    column.setFirstDataPageOffset(start);
+    ColumnChunkMetaData column = ColumnChunkMetaData.get(ColumnPath.get("foo"), PrimitiveTypeName.BINARY, CompressionCodecName.GZIP, Arrays.asList(Encoding.PLAIN), start, 0, 0, compressedSize, compressedSize);
     blockMetaData.addColumn(column);
     return blockMetaData;
   }
@@ -0,0 +1,211 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import parquet.example.data.Group;
+import parquet.hadoop.api.ReadSupport.ReadContext;
+import parquet.hadoop.example.GroupReadSupport;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.io.api.Binary;
+import parquet.io.api.RecordMaterializer;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+
+public class TestParallelParquetReader {
+
+  private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+      "message example { required int32 id; optional binary name; }");
+
+  private static final int ROW_GROUPS = 20;
+  private static final int RECORDS_PER_ROW_GROUP = 500;
+  private static final int RECORDS = ROW_GROUPS * RECORDS_PER_ROW_GROUP;
+
+  private static final Path FILE = new Path("target/test/TestParallelParquetReader/test.parquet");
+  private static final Path SNAPPY_FILE = new Path("target/test/TestParallelParquetReader/test.snappy.parquet");
+
+  @BeforeClass
+  public static void writeFiles() throws IOException {
+    writeFile(FILE, CompressionCodecName.UNCOMPRESSED);
+    writeFile(SNAPPY_FILE, CompressionCodecName.SNAPPY);
+  }
+
+  private static void writeFile(Path file, CompressionCodecName codec) throws IOException {
+    file.getFileSystem(new Configuration()).delete(file, true);
+    ColumnarParquetWriter writer = new ColumnarParquetWriter(
+        file, SCHEMA, new HashMap<String, String>(), codec, 1024 * 1024, 1024, false);
+    for (int rowGroup = 0; rowGroup < ROW_GROUPS; rowGroup++) {
+      int[] ids = new int[RECORDS_PER_ROW_GROUP];
+      Binary[] names = new Binary[RECORDS_PER_ROW_GROUP / 2];
+      int[] nameD = new int[RECORDS_PER_ROW_GROUP];
+      for (int i = 0; i < RECORDS_PER_ROW_GROUP; i++) {
+        int id = rowGroup * RECORDS_PER_ROW_GROUP + i;
+        ids[i] = id;
+        if (i % 2 == 0) {
+          names[i / 2] = Binary.fromString("name" + id);
+          nameD[i] = 1;
+        }
+      }
+      writer.writeBatch(SCHEMA.getColumnDescription(new String[] {"id"}), ids, null, null, RECORDS_PER_ROW_GROUP);
+      writer.writeBatch(SCHEMA.getColumnDescription(new String[] {"name"}), names, null, nameD, RECORDS_PER_ROW_GROUP);
+      writer.endRowGroup();
+    }
+    writer.close();
+  }
+
+  private void checkRecord(Group group) {
+    int id = group.getInteger("id", 0);
+    if (id % 2 == 0) {
+      assertEquals("name" + id, group.getString("name", 0));
+    } else {
+      assertEquals(0, group.getFieldRepetitionCount("name"));
+    }
+  }
+
+  @Test
+  public void testReadOrdered() throws IOException {
+    testReadOrdered(FILE);
+  }
+
+  @Test
+  public void testReadOrderedCompressed() throws IOException {
+    testReadOrdered(SNAPPY_FILE);
+  }
+
+  private void testReadOrdered(Path file) throws IOException {
+    ParallelParquetReader<Group> reader = new ParallelParquetReader<Group>(new Configuration(), file, new GroupReadSupport(), 4);
+    try {
+      for (int i = 0; i < RECORDS; i++) {
+        Group group = reader.read();
+        assertEquals(i, group.getInteger("id", 0));
+        checkRecord(group);
+      }
+      assertNull(reader.read());
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testReadUnordered() throws IOException {
+    ParallelParquetReader<Group> reader = new ParallelParquetReader<Group>(new Configuration(), FILE, new GroupReadSupport(), 3, false);
+    BitSet seen = new BitSet(RECORDS);
+    try {
+      Group group;
+      while ((group = reader.read()) != null) {
+        int id = group.getInteger("id", 0);
+        assertTrue("duplicate record " + id, !seen.get(id));
+        seen.set(id);
+        checkRecord(group);
+      }
+    } finally {
+      reader.close();
+    }
+    assertEquals(RECORDS, seen.cardinality());
+  }
+
+  @Test
+  public void testReleasesRowGroups() throws IOException {
+    testReleasesRowGroups(true);
+    testReleasesRowGroups(false);
+  }
+
+  private void testReleasesRowGroups(boolean ordered) throws IOException {
+    ParallelParquetReader<Group> reader = new ParallelParquetReader<Group>(new Configuration(), FILE, new GroupReadSupport(), 2, ordered);
+    try {
+      int count = 0;
+      while (reader.read() != null) {
+        ++ count;
+        // the row groups already returned must not be retained by the open reader
+        assertTrue(reader.getRowGroupsInFlight() <= 4);
+      }
+      assertEquals(RECORDS, count);
+      assertEquals(0, reader.getRowGroupsInFlight());
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testFailedRowGroup() throws IOException {
+    final AtomicInteger prepared = new AtomicInteger();
+    ParallelParquetReader<Group> reader = new ParallelParquetReader<Group>(new Configuration(), FILE, new GroupReadSupport() {
+      @Override
+      public RecordMaterializer<Group> prepareForRead(Configuration configuration,
+          Map<String, String> keyValueMetaData, MessageType fileSchema, ReadContext readContext) {
+        if (prepared.incrementAndGet() == 2) {
+          throw new RuntimeException("failed row group");
+        }
+        return super.prepareForRead(configuration, keyValueMetaData, fileSchema, readContext);
+      }
+    }, 1);
+    try {
+      for (int i = 0; i < RECORDS_PER_ROW_GROUP; i++) {
+        assertEquals(i, reader.read().getInteger("id", 0));
+      }
+      // the failure is reported again instead of returning the following row groups
+      for (int i = 0; i < 2; i++) {
+        try {
+          reader.read();
+          fail("the second row group can not be read");
+        } catch (IOException e) {
+          // expected
+        }
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testCloseBeforeEnd() throws IOException {
+    ParallelParquetReader<Group> reader = new ParallelParquetReader<Group>(new Configuration(), FILE, new GroupReadSupport(), 2);
+    assertEquals(0, reader.read().getInteger("id", 0));
+    reader.close();
+    assertNull(reader.read());
+  }
+
+  @Test
+  public void testReadRowGroupKeepsPosition() throws IOException {
+    Configuration configuration = new Configuration();
+    ParquetFileReader reader = new ParquetFileReader(
+        configuration, FILE, ParquetFileReader.readFooter(configuration, FILE).getBlocks(), SCHEMA.getColumns());
+    try {
+      assertEquals(RECORDS_PER_ROW_GROUP, reader.readRowGroup(ROW_GROUPS - 1).getRowCount());
+      for (int i = 0; i < ROW_GROUPS; i++) {
+        assertEquals(RECORDS_PER_ROW_GROUP, reader.readNextRowGroup().getRowCount());
+      }
+      assertNull(reader.readNextRowGroup());
+    } finally {
+      reader.close();
+    }
+  }
+}
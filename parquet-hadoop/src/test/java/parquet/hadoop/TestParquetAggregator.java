@@ -0,0 +1,165 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.junit.Test;
+
+import parquet.column.ColumnDescriptor;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.io.api.Binary;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+import parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+public class TestParquetAggregator {
+
+  private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+      "message example {"
+      + " required int32 a; optional int64 b; optional binary c; required double d; repeated int32 e; optional int32 empty;"
+      + " }");
+
+  private static final int ROW_GROUPS = 3;
+  private static final int RECORDS_PER_ROW_GROUP = 1000;
+
+  private ColumnDescriptor column(String name) {
+    return SCHEMA.getColumnDescription(new String[] {name});
+  }
+
+  private void writeFile(Path file, boolean enableDictionary) throws IOException {
+    file.getFileSystem(new Configuration()).delete(file, true);
+    ColumnarParquetWriter writer = new ColumnarParquetWriter(
+        file, SCHEMA, new HashMap<String, String>(), CompressionCodecName.UNCOMPRESSED, 1024 * 1024, 1024, enableDictionary);
+    int count = RECORDS_PER_ROW_GROUP;
+    for (int rowGroup = 0; rowGroup < ROW_GROUPS; rowGroup++) {
+      int[] a = new int[count];
+      long[] b = new long[count / 2];
+      int[] bD = new int[count];
+      Binary[] c = new Binary[count];
+      int[] cD = new int[count];
+      double[] d = new double[count];
+      int[] e = new int[2 * count];
+      int[] eR = new int[2 * count];
+      int[] eD = new int[2 * count];
+      for (int i = 0; i < count; i++) {
+        int record = rowGroup * count + i;
+        a[i] = record - 1500;
+        if (i % 2 == 0) {
+          b[i / 2] = record * 1000000000l;
+          bD[i] = 1;
+        }
+        // few distinct values: dictionary encoded
+        c[i] = Binary.fromString("c" + (record % 7));
+        cD[i] = 1;
+        d[i] = record / 4.0;
+        e[2 * i] = 1;
+        e[2 * i + 1] = 2;
+        eR[2 * i + 1] = 1;
+        eD[2 * i] = 1;
+        eD[2 * i + 1] = 1;
+      }
+      writer.writeBatch(column("a"), a, null, null, count);
+      writer.writeBatch(column("b"), b, null, bD, count);
+      writer.writeBatch(column("c"), c, null, cD, count);
+      writer.writeBatch(column("d"), d, null, null, count);
+      writer.writeBatch(column("e"), e, eR, eD, 2 * count);
+      writer.writeBatch(column("empty"), new int[0], null, new int[count], count);
+      writer.endRowGroup();
+    }
+    writer.close();
+  }
+
+  @Test
+  public void testAggregate() throws IOException {
+    testAggregate(false);
+  }
+
+  @Test
+  public void testAggregateDictionary() throws IOException {
+    testAggregate(true);
+  }
+
+  private void testAggregate(boolean enableDictionary) throws IOException {
+    Path file = new Path("target/test/TestParquetAggregator/test" + enableDictionary + ".parquet");
+    writeFile(file, enableDictionary);
+    long records = ROW_GROUPS * RECORDS_PER_ROW_GROUP;
+
+    ParquetAggregator aggregator = new ParquetAggregator(new Configuration(), file);
+    assertEquals(records, aggregator.count());
+
+    ColumnAggregate a = aggregator.aggregate("a");
+    assertEquals(records, a.getValueCount());
+    assertEquals(0, a.getNullCount());
+    assertEquals(-1500, a.getMin());
+    assertEquals(1499, a.getMax());
+    assertEquals(-1500l, a.getSum());
+
+    ColumnAggregate b = aggregator.aggregate("b");
+    assertEquals(records / 2, b.getValueCount());
+    assertEquals(records / 2, b.getNullCount());
+    assertEquals(0l, b.getMin());
+    assertEquals(2998000000000l, b.getMax());
+    assertEquals(2248500000000000l, b.getSum());
+
+    ColumnAggregate c = aggregator.aggregate("c");
+    assertEquals(records, c.getValueCount());
+    assertEquals("c0", ((Binary)c.getMin()).toStringUsingUTF8());
+    assertEquals("c6", ((Binary)c.getMax()).toStringUsingUTF8());
+    assertNull(c.getSum());
+
+    ColumnAggregate d = aggregator.aggregate("d");
+    assertEquals(0.0, d.getMin());
+    assertEquals(749.75, d.getMax());
+    assertEquals(records * (records - 1) / 2 / 4.0, d.getSum());
+
+    ColumnAggregate e = aggregator.aggregate("e");
+    assertEquals(2 * records, e.getValueCount());
+    assertEquals(3 * records, e.getSum());
+
+    ColumnAggregate empty = aggregator.aggregate("empty");
+    assertEquals(0, empty.getValueCount());
+    assertEquals(records, empty.getNullCount());
+    assertNull(empty.getMin());
+    assertNull(empty.getMax());
+    assertEquals(0l, empty.getSum());
+  }
+
+  @Test
+  public void testBinaryMinMaxAreCopied() {
+    ColumnAggregate aggregate = new ColumnAggregate(new ColumnDescriptor(new String[] {"c"}, PrimitiveTypeName.BINARY, 0, 0));
+    byte[] page = "xbyaz".getBytes();
+    aggregate.add(Binary.fromByteArray(page, 1, 2), 1);
+    aggregate.add(Binary.fromByteArray(page, 3, 2), 1);
+    // the page buffer is reused
+    Arrays.fill(page, (byte)0);
+    assertEquals("az", ((Binary)aggregate.getMin()).toStringUsingUTF8());
+    assertEquals("by", ((Binary)aggregate.getMax()).toStringUsingUTF8());
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testSumOverflow() {
+    ColumnAggregate aggregate = new ColumnAggregate(new ColumnDescriptor(new String[] {"b"}, PrimitiveTypeName.INT64, 0, 0));
+    aggregate.add(Long.MAX_VALUE / 2, 3);
+  }
+}
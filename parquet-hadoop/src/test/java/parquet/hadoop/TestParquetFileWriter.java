@@ -21,13 +21,17 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static parquet.column.Encoding.BIT_PACKED;
 import static parquet.column.Encoding.PLAIN;
+import static parquet.column.Encoding.PLAIN_DICTIONARY;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
@@ -39,9 +43,12 @@ import org.junit.Test;
 import parquet.Log;
 import parquet.bytes.BytesInput;
 import parquet.column.ColumnDescriptor;
+import parquet.column.page.DictionaryPage;
 import parquet.column.page.Page;
 import parquet.column.page.PageReadStore;
 import parquet.column.page.PageReader;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
 import parquet.hadoop.metadata.CompressionCodecName;
 import parquet.hadoop.metadata.ParquetMetadata;
 import parquet.schema.MessageType;
@@ -102,6 +109,13 @@ public class TestParquetFileWriter {
     assertEquals(c1Ends - c1Starts, readFooter.getBlocks().get(0).getColumns().get(0).getTotalSize());
     assertEquals(c2Ends - c2Starts, readFooter.getBlocks().get(0).getColumns().get(1).getTotalSize());
 
+    { // footer larger than the tail read
+      Configuration smallTail = new Configuration(configuration);
+      smallTail.setInt(ParquetInputFormat.FOOTER_READ_SIZE, 8);
+      smallTail.setLong(ParquetInputFormat.FOOTER_CACHE_SIZE, 0);
+      ParquetMetadata footer = ParquetFileReader.readFooter(smallTail, path);
+      assertEquals(ParquetMetadata.toJSON(readFooter), ParquetMetadata.toJSON(footer));
+    }
 
     { // read first block of col #1
       ParquetFileReader r = new ParquetFileReader(configuration, path, Arrays.asList(readFooter.getBlocks().get(0)), Arrays.asList(schema.getColumnDescription(path1)));
@@ -132,9 +146,120 @@ public class TestParquetFileWriter {
 
       assertNull(r.readNextRowGroup());
     }
+
+    { // read all blocks of col #1 and #2, one read per column chunk, memory mapped
+      Configuration separateReads = new Configuration(configuration);
+      separateReads.setLong(ParquetInputFormat.MAX_READ_GAP, -1);
+      separateReads.setBoolean(ParquetInputFormat.MEMORY_MAP, true);
+      ParquetFileReader r = new ParquetFileReader(separateReads, path, readFooter.getBlocks(), Arrays.asList(schema.getColumnDescription(path2), schema.getColumnDescription(path1)));
+
+      PageReadStore pages = r.readNextRowGroup();
+      assertEquals(3, pages.getRowCount());
+      validateContains(schema, pages, path1, 2, BytesInput.from(bytes1));
+      validateContains(schema, pages, path1, 3, BytesInput.from(bytes1));
+      validateContains(schema, pages, path2, 2, BytesInput.from(bytes2));
+      validateContains(schema, pages, path2, 3, BytesInput.from(bytes2));
+      validateContains(schema, pages, path2, 1, BytesInput.from(bytes2));
+
+      pages = r.readNextRowGroup();
+      assertEquals(4, pages.getRowCount());
+      validateContains(schema, pages, path1, 7, BytesInput.from(bytes3));
+      validateContains(schema, pages, path2, 8, BytesInput.from(bytes4));
+
+      assertNull(r.readNextRowGroup());
+    }
+
+    for (boolean memoryMap : new boolean[] {false, true}) {
+      // column chunks larger than their size in the footer are read past their end
+      Configuration underReported = new Configuration(configuration);
+      underReported.setBoolean(ParquetInputFormat.MEMORY_MAP, memoryMap);
+      ParquetFileReader r = new ParquetFileReader(underReported, path, withTotalSize(readFooter.getBlocks(), 1), Arrays.asList(schema.getColumnDescription(path1), schema.getColumnDescription(path2)));
+
+      PageReadStore pages = r.readNextRowGroup();
+      assertEquals(3, pages.getRowCount());
+      validateContains(schema, pages, path1, 2, BytesInput.from(bytes1));
+      validateContains(schema, pages, path1, 3, BytesInput.from(bytes1));
+      validateContains(schema, pages, path2, 2, BytesInput.from(bytes2));
+      validateContains(schema, pages, path2, 3, BytesInput.from(bytes2));
+      validateContains(schema, pages, path2, 1, BytesInput.from(bytes2));
+
+      pages = r.readNextRowGroup();
+      assertEquals(4, pages.getRowCount());
+      validateContains(schema, pages, path1, 7, BytesInput.from(bytes3));
+      validateContains(schema, pages, path2, 8, BytesInput.from(bytes4));
+
+      assertNull(r.readNextRowGroup());
+      r.close();
+    }
     PrintFooter.main(new String[] {path.toString()});
   }
 
+  private List<BlockMetaData> withTotalSize(List<BlockMetaData> blocks, long totalSize) {
+    List<BlockMetaData> result = new ArrayList<BlockMetaData>();
+    for (BlockMetaData block : blocks) {
+      BlockMetaData copy = new BlockMetaData();
+      copy.setRowCount(block.getRowCount());
+      copy.setTotalByteSize(block.getTotalByteSize());
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        copy.addColumn(ColumnChunkMetaData.get(
+            column.getColumnPath(), column.getType(), column.getCodec(), column.getEncodings(),
+            column.getFirstDataPageOffset(), column.getDictionaryPageOffset(), column.getValueCount(),
+            totalSize, column.getTotalUncompressedSize()));
+      }
+      result.add(copy);
+    }
+    return result;
+  }
+
+  @Test
+  public void testWriteReadDictionary() throws Exception {
+
+    File testFile = new File("target/test/TestParquetFileWriter/testParquetFileDictionary").getAbsoluteFile();
+    testFile.delete();
+
+    Path path = new Path(testFile.toURI());
+    Configuration configuration = new Configuration();
+
+    MessageType schema = MessageTypeParser.parseMessageType("message m { required group a {required binary b;} required group c { required int64 d; }}");
+    String[] path1 = {"a", "b"};
+    ColumnDescriptor c1 = schema.getColumnDescription(path1);
+    String[] path2 = {"c", "d"};
+    ColumnDescriptor c2 = schema.getColumnDescription(path2);
+
+    byte[] dictionary = { 0, 0, 0, 1, 0, 0, 0, 2};
+    byte[] bytes1 = { 0, 1, 2, 3};
+    byte[] bytes2 = { 1, 2, 3, 4};
+    CompressionCodecName codec = CompressionCodecName.UNCOMPRESSED;
+    ParquetFileWriter w = new ParquetFileWriter(configuration, schema, path);
+    w.start();
+    w.startBlock(3);
+    w.startColumn(c1, 3, codec);
+    long c1Starts = w.getPos();
+    w.writeDictionaryPage(new DictionaryPage(BytesInput.from(dictionary), 2, PLAIN_DICTIONARY));
+    w.writeDataPage(3, 4, BytesInput.from(bytes1), BIT_PACKED, BIT_PACKED, PLAIN_DICTIONARY);
+    w.endColumn();
+    long c1Ends = w.getPos();
+    w.startColumn(c2, 3, codec);
+    w.writeDataPage(3, 4, BytesInput.from(bytes2), BIT_PACKED, BIT_PACKED, PLAIN);
+    w.endColumn();
+    w.endBlock();
+    w.end(new HashMap<String, String>());
+
+    ParquetMetadata readFooter = ParquetFileReader.readFooter(configuration, path);
+    assertEquals(c1Ends - c1Starts, readFooter.getBlocks().get(0).getColumns().get(0).getTotalSize());
+
+    ParquetFileReader r = new ParquetFileReader(configuration, path, readFooter.getBlocks(), Arrays.asList(schema.getColumnDescription(path1), schema.getColumnDescription(path2)));
+    PageReadStore pages = r.readNextRowGroup();
+    assertEquals(3, pages.getRowCount());
+    DictionaryPage dictionaryPage = pages.getPageReader(c1).readDictionaryPage();
+    assertEquals(2, dictionaryPage.getDictionarySize());
+    assertArrayEquals(dictionary, dictionaryPage.getBytes().toByteArray());
+    validateContains(schema, pages, path1, 3, BytesInput.from(bytes1));
+    validateContains(schema, pages, path2, 3, BytesInput.from(bytes2));
+    assertNull(r.readNextRowGroup());
+    r.close();
+  }
+
   @Test
   public void testMetaDataFile() throws Exception {
 
@@ -142,6 +267,7 @@ public class TestParquetFileWriter {
 
     Path testDirPath = new Path(testDir.toURI());
     Configuration configuration = new Configuration();
+    configuration.setLong(ParquetInputFormat.FOOTER_CACHE_SIZE, 32 * 1024 * 1024);
 
     final FileSystem fs = testDirPath.getFileSystem(configuration);
     fs.delete(testDirPath, true);
@@ -156,6 +282,10 @@ public class TestParquetFileWriter {
     List<Footer> footers = ParquetFileReader.readAllFootersInParallel(configuration, outputStatus);
     validateFooters(footers);
     ParquetFileWriter.writeMetadataFile(configuration, testDirPath, footers);
+    // merging the footers does not change the cached footers
+    for (BlockMetaData block : ParquetFileReader.readFooter(configuration, fs.getFileStatus(new Path(testDirPath, "part0"))).getBlocks()) {
+      assertNull(block.getPath());
+    }
 
     footers = ParquetFileReader.readFooters(configuration, outputStatus);
     validateFooters(footers);
@@ -180,6 +310,31 @@ public class TestParquetFileWriter {
     footers = ParquetFileReader.readAllFootersInParallelUsingSummaryFiles(configuration, Arrays.asList(fs.listStatus(testDirPath)));
     validateFooters(footers);
 
+    Configuration noCache = new Configuration(configuration);
+    noCache.setLong(ParquetInputFormat.FOOTER_CACHE_SIZE, 0);
+    List<FileStatus> partFiles = Arrays.asList(fs.listStatus(testDirPath));
+    { // sequential
+      Configuration sequential = new Configuration(noCache);
+      sequential.setInt(ParquetInputFormat.FOOTER_READ_THREADS, 1);
+      assertEquals(1, ParquetFileReader.getFooterReadParallelism(sequential, partFiles));
+      validateFooters(ParquetFileReader.readAllFootersInParallel(sequential, partFiles));
+    }
+    { // provided executor
+      final AtomicInteger executed = new AtomicInteger();
+      ParquetFileReader.setFooterReadExecutor(new Executor() {
+        @Override
+        public void execute(Runnable command) {
+          executed.incrementAndGet();
+          command.run();
+        }
+      });
+      try {
+        validateFooters(ParquetFileReader.readAllFootersInParallel(noCache, partFiles));
+      } finally {
+        ParquetFileReader.setFooterReadExecutor(null);
+      }
+      assertEquals(3, executed.get());
+    }
   }
 
   private void validateFooters(final List<Footer> metadata) {
@@ -1,13 +1,21 @@
 package parquet.hadoop;
 
 import java.io.IOException;
+import java.util.Random;
+
+import org.apache.hadoop.conf.Configuration;
 
 import org.junit.Test;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import parquet.bytes.BytesInput;
+import parquet.hadoop.CodecFactory.BytesCompressor;
+import parquet.hadoop.CodecFactory.BytesDecompressor;
 import parquet.hadoop.codec.SnappyCompressor;
 import parquet.hadoop.codec.SnappyDecompressor;
+import parquet.hadoop.metadata.CompressionCodecName;
 
 public class TestSnappyCodec {
   @Test
@@ -64,4 +72,65 @@ public class TestSnappyCodec {
     assertEquals(uncompressedSize, decompressedSize);
     assertArrayEquals(uncompressedData, decompressedData);
   }
+
+  @Test
+  public void TestSnappyLargePage() throws IOException {
+    // random bytes do not compress: the compressed page is larger than the 4KB buffer of the stream
+    byte[] page = new byte[20 * 1024];
+    new Random(42).nextBytes(page);
+    CodecFactory codecFactory = new CodecFactory(new Configuration());
+    BytesCompressor compressor = codecFactory.getCompressor(CompressionCodecName.SNAPPY, page.length);
+    BytesDecompressor decompressor = codecFactory.getDecompressor(CompressionCodecName.SNAPPY);
+    for (int i = 0; i < 2; i++) {
+      byte[] compressed = compressor.compress(BytesInput.from(page)).toByteArray();
+      assertTrue(compressed.length > 4 * 1024);
+      byte[] decompressed = decompressor.decompress(BytesInput.from(compressed), page.length).toByteArray();
+      assertArrayEquals(page, decompressed);
+    }
+    codecFactory.release();
+  }
+
+  @Test
+  public void TestSnappyChunkedInput() throws IOException {
+    SnappyCompressor compressor = new SnappyCompressor();
+    SnappyDecompressor decompressor = new SnappyDecompressor();
+    // the buffers grow while partially filled
+    TestSnappyChunked(compressor, decompressor, 10, 100, 3, 500);
+    TestSnappyChunked(compressor, decompressor, 50, 50, 2000, 1);
+    TestSnappyChunked(compressor, decompressor, 5);
+  }
+
+  private void TestSnappyChunked(SnappyCompressor compressor, SnappyDecompressor decompressor,
+      int... chunkSizes) throws IOException {
+    compressor.reset();
+    decompressor.reset();
+
+    int uncompressedSize = 0;
+    for (int chunkSize : chunkSizes) {
+      uncompressedSize += chunkSize;
+    }
+    byte[] uncompressedData = new byte[uncompressedSize];
+    for (int i = 0; i < uncompressedSize; i++) {
+      uncompressedData[i] = (byte)(i % 7);
+    }
+
+    int offset = 0;
+    for (int chunkSize : chunkSizes) {
+      compressor.setInput(uncompressedData, offset, chunkSize);
+      offset += chunkSize;
+    }
+    compressor.finish();
+    byte[] compressedData = new byte[uncompressedSize + 100];
+    int compressedSize = compressor.compress(compressedData, 0, compressedData.length);
+
+    // feed the compressed data in 2 chunks
+    int half = compressedSize / 2;
+    decompressor.setInput(compressedData, 0, half);
+    decompressor.setInput(compressedData, half, compressedSize - half);
+    byte[] decompressedData = new byte[uncompressedSize];
+    int decompressedSize = decompressor.decompress(decompressedData, 0, uncompressedSize);
+
+    assertEquals(uncompressedSize, decompressedSize);
+    assertArrayEquals(uncompressedData, decompressedData);
+  }
 }
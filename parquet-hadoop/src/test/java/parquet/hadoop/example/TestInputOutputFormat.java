@@ -18,11 +18,16 @@ package parquet.hadoop.example;
 import static java.lang.Thread.sleep;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static parquet.filter.ColumnPredicates.equalTo;
+import static parquet.filter.ColumnPredicates.not;
+import static parquet.filter.ColumnRecordFilter.column;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
@@ -36,8 +41,14 @@ import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
 import org.junit.Test;
 
 import parquet.Log;
+import parquet.column.ColumnDescriptor;
+import parquet.column.ColumnReader;
 import parquet.example.data.Group;
 import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.filter.RecordFilter;
+import parquet.filter.UnboundRecordFilter;
+import parquet.hadoop.ParquetInputFormat;
+import parquet.hadoop.ParquetOutputFormat;
 import parquet.hadoop.metadata.CompressionCodecName;
 import parquet.hadoop.util.ContextUtil;
 import parquet.schema.MessageTypeParser;
@@ -64,8 +75,32 @@ public class TestInputOutputFormat {
     }
   }
 
+  public static class NonEmptyContentFilter implements UnboundRecordFilter {
+    private final UnboundRecordFilter filter = column("content", not(equalTo("")));
+
+    @Override
+    public RecordFilter bind(Map<ColumnDescriptor, ColumnReader> readers) {
+      return filter.bind(readers);
+    }
+  }
+
+  private String readLine(BufferedReader in, boolean skipEmptyLines) throws IOException {
+    String line = in.readLine();
+    while (skipEmptyLines && line != null && line.length() == 0) {
+      line = in.readLine();
+    }
+    return line;
+  }
+
   private void testReadWrite(CompressionCodecName codec) throws IOException, ClassNotFoundException, InterruptedException {
+    testReadWrite(codec, new HashMap<String, String>());
+  }
+
+  private void testReadWrite(CompressionCodecName codec, Map<String, String> extraConf) throws IOException, ClassNotFoundException, InterruptedException {
     final Configuration conf = new Configuration();
+    for (Map.Entry<String, String> entry : extraConf.entrySet()) {
+      conf.set(entry.getKey(), entry.getValue());
+    }
     final Path inputPath = new Path("src/test/java/parquet/hadoop/example/TestInputOutputFormat.java");
     final Path parquetPath = new Path("target/test/example/TestInputOutputFormat/parquet");
     final Path outputPath = new Path("target/test/example/TestInputOutputFormat/out");
@@ -105,10 +140,12 @@ public class TestInputOutputFormat {
 
     final BufferedReader in = new BufferedReader(new FileReader(new File(inputPath.toString())));
     final BufferedReader out = new BufferedReader(new FileReader(new File(outputPath.toString(), "part-m-00000")));
+    // the filter drops the empty lines
+    boolean filtered = extraConf.containsKey(ParquetInputFormat.UNBOUND_RECORD_FILTER);
     String lineIn;
     String lineOut = null;
     int lineNumber = 0;
-    while ((lineIn = in.readLine()) != null && (lineOut = out.readLine()) != null) {
+    while ((lineIn = readLine(in, filtered)) != null && (lineOut = out.readLine()) != null) {
       ++ lineNumber;
       lineOut = lineOut.substring(lineOut.indexOf("\t") + 1);
       assertEquals("line " + lineNumber, lineIn, lineOut);
@@ -126,6 +163,59 @@ public class TestInputOutputFormat {
     testReadWrite(CompressionCodecName.SNAPPY);
   }
 
+  @Test
+  public void testReadWriteAsyncFlush() throws IOException, ClassNotFoundException, InterruptedException {
+    Map<String, String> conf = new HashMap<String, String>();
+    // small row groups so that several of them are flushed in the background
+    conf.put(ParquetOutputFormat.BLOCK_SIZE, "1024");
+    conf.put(ParquetOutputFormat.ASYNC_FLUSH, "true");
+    testReadWrite(CompressionCodecName.UNCOMPRESSED, conf);
+    testReadWrite(CompressionCodecName.GZIP, conf);
+  }
+
+  @Test
+  public void testReadWritePrefetch() throws IOException, ClassNotFoundException, InterruptedException {
+    Map<String, String> conf = new HashMap<String, String>();
+    conf.put(ParquetOutputFormat.BLOCK_SIZE, "1024");
+    conf.put(ParquetInputFormat.PREFETCH_DEPTH, "2");
+    testReadWrite(CompressionCodecName.UNCOMPRESSED, conf);
+    testReadWrite(CompressionCodecName.SNAPPY, conf);
+  }
+
+  @Test
+  public void testReadWriteMemoryMap() throws IOException, ClassNotFoundException, InterruptedException {
+    Map<String, String> conf = new HashMap<String, String>();
+    conf.put(ParquetOutputFormat.BLOCK_SIZE, "1024");
+    conf.put(ParquetInputFormat.MEMORY_MAP, "true");
+    testReadWrite(CompressionCodecName.UNCOMPRESSED, conf);
+    testReadWrite(CompressionCodecName.GZIP, conf);
+  }
+
+  @Test
+  public void testReadWriteTaskSideMetadata() throws IOException, ClassNotFoundException, InterruptedException {
+    Map<String, String> conf = new HashMap<String, String>();
+    conf.put(ParquetOutputFormat.BLOCK_SIZE, "1024");
+    conf.put(ParquetInputFormat.TASK_SIDE_METADATA, "true");
+    testReadWrite(CompressionCodecName.UNCOMPRESSED, conf);
+    testReadWrite(CompressionCodecName.SNAPPY, conf);
+  }
+
+  @Test
+  public void testReadWriteFiltered() throws IOException, ClassNotFoundException, InterruptedException {
+    Map<String, String> conf = new HashMap<String, String>();
+    conf.put(ParquetOutputFormat.BLOCK_SIZE, "1024");
+    conf.put(ParquetInputFormat.UNBOUND_RECORD_FILTER, NonEmptyContentFilter.class.getName());
+    testReadWrite(CompressionCodecName.UNCOMPRESSED, conf);
+  }
+
+  @Test
+  public void testReadWriteProjectedSplitSize() throws IOException, ClassNotFoundException, InterruptedException {
+    Map<String, String> conf = new HashMap<String, String>();
+    conf.put(ParquetOutputFormat.BLOCK_SIZE, "1024");
+    conf.put(ParquetInputFormat.PROJECTED_SPLIT_SIZE, String.valueOf(1024 * 1024));
+    testReadWrite(CompressionCodecName.UNCOMPRESSED, conf);
+  }
+
   private void waitForJob(Job job) throws InterruptedException, IOException {
     while (!job.isComplete()) {
       LOG.debug("waiting for job " + job.getJobName());
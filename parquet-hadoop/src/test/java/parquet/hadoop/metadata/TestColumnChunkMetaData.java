@@ -0,0 +1,133 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop.metadata;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import parquet.column.Encoding;
+import parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+public class TestColumnChunkMetaData {
+
+  private ColumnChunkMetaData get(long value) {
+    return ColumnChunkMetaData.get(
+        ColumnPath.get("a", "b"), PrimitiveTypeName.INT32, CompressionCodecName.SNAPPY, Arrays.asList(Encoding.PLAIN),
+        value, value, value, value, value);
+  }
+
+  private void assertRoundTrip(long value, ColumnChunkMetaData md) {
+    assertEquals(value, md.getFirstDataPageOffset());
+    assertEquals(value, md.getDictionaryPageOffset());
+    assertEquals(value, md.getValueCount());
+    assertEquals(value, md.getTotalSize());
+    assertEquals(value, md.getTotalUncompressedSize());
+  }
+
+  @Test
+  public void testIntValues() {
+    long[] values = { 0, 1, 4, Integer.MAX_VALUE, (1l << 32) - 1 };
+    for (long value : values) {
+      ColumnChunkMetaData md = get(value);
+      assertTrue(value + " should be stored as an int", md instanceof ColumnChunkMetaData.IntColumnChunkMetaData);
+      assertRoundTrip(value, md);
+    }
+  }
+
+  @Test
+  public void testLongValues() {
+    long[] values = { 1l << 32, Long.MAX_VALUE, -1 };
+    for (long value : values) {
+      ColumnChunkMetaData md = get(value);
+      assertTrue(value + " should be stored as a long", md instanceof ColumnChunkMetaData.LongColumnChunkMetaData);
+      assertRoundTrip(value, md);
+    }
+  }
+
+  @Test
+  public void testMixedValues() {
+    ColumnChunkMetaData md = ColumnChunkMetaData.get(
+        ColumnPath.get("a"), PrimitiveTypeName.INT64, CompressionCodecName.UNCOMPRESSED, Arrays.asList(Encoding.PLAIN),
+        1l << 32, 0, 10, 100, 200);
+    assertTrue(md instanceof ColumnChunkMetaData.LongColumnChunkMetaData);
+    assertEquals(1l << 32, md.getFirstDataPageOffset());
+    assertEquals(0, md.getDictionaryPageOffset());
+    assertEquals(10, md.getValueCount());
+    assertEquals(100, md.getTotalSize());
+    assertEquals(200, md.getTotalUncompressedSize());
+  }
+
+  @Test
+  public void testInterning() {
+    ColumnChunkMetaData md1 = get(1);
+    ColumnChunkMetaData md2 = get(2);
+    assertSame(md1.getColumnPath(), md2.getColumnPath());
+    assertSame(md1.getEncodings(), md2.getEncodings());
+    assertSame(ColumnPath.get("a", "b"), md1.getColumnPath());
+  }
+
+  @Test
+  public void testInternedInstancesAreCollected() {
+    WeakReference<ColumnPath> path = new WeakReference<ColumnPath>(ColumnPath.get("not", "referenced"));
+    WeakReference<ColumnChunkProperties> properties = new WeakReference<ColumnChunkProperties>(ColumnChunkProperties.get(
+        ColumnPath.get("not", "referenced", "either"), PrimitiveTypeName.INT32, CompressionCodecName.GZIP, Arrays.asList(Encoding.PLAIN)));
+    for (int attempt = 0; attempt < 10 && (path.get() != null || properties.get() != null); attempt++) {
+      System.gc();
+    }
+    assertNull(path.get());
+    assertNull(properties.get());
+  }
+
+  @Test
+  public void testPathCopies() {
+    ColumnChunkMetaData md = get(1);
+    md.getPath()[0] = "modified";
+    md.getColumnPath().toArray()[1] = "modified";
+    assertArrayEquals(new String[] {"a", "b"}, md.getPath());
+    assertSame(md.getColumnPath(), ColumnPath.get("a", "b"));
+  }
+
+  @SuppressWarnings("deprecation")
+  @Test
+  public void testDeprecatedMutableInstances() {
+    ColumnChunkMetaData md = new ColumnChunkMetaData(new String[] {"a", "b"}, PrimitiveTypeName.INT32, CompressionCodecName.SNAPPY, Arrays.asList(Encoding.PLAIN));
+    md.setFirstDataPageOffset(1);
+    md.setDictionaryPageOffset(2);
+    md.setValueCount(3);
+    md.setTotalSize(4);
+    md.setTotalUncompressedSize(5);
+    assertSame(ColumnPath.get("a", "b"), md.getColumnPath());
+    assertEquals(1, md.getFirstDataPageOffset());
+    assertEquals(2, md.getDictionaryPageOffset());
+    assertEquals(3, md.getValueCount());
+    assertEquals(4, md.getTotalSize());
+    assertEquals(5, md.getTotalUncompressedSize());
+  }
+
+  @SuppressWarnings("deprecation")
+  @Test(expected = IllegalStateException.class)
+  public void testImmutableInstances() {
+    get(1).setValueCount(2);
+  }
+}